@@ -1,9 +1,12 @@
 package com.sportradar.worldcupscore;
 
+import com.sportradar.worldcupscore.config.WorldCupScoreRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(WorldCupScoreRuntimeHints.class)
 public class WorldCupScoreApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,27 @@
+package com.sportradar.worldcupscore.actuator;
+
+import com.sportradar.worldcupscore.model.LagReport;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/betlag}: how far behind ingestion the workers are, and which recent bets took longest.
+ */
+@Component
+@Endpoint(id = "betlag")
+public class BetLagEndpoint {
+    private final BetProcessor betProcessor;
+
+    @Autowired
+    public BetLagEndpoint(BetProcessor betProcessor) {
+        this.betProcessor = betProcessor;
+    }
+
+    @ReadOperation
+    public LagReport lag() {
+        return betProcessor.getLagReport();
+    }
+}
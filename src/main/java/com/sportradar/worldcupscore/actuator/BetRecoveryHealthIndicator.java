@@ -0,0 +1,47 @@
+package com.sportradar.worldcupscore.actuator;
+
+import com.sportradar.worldcupscore.service.BetProcessor;
+import com.sportradar.worldcupscore.service.TenantRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code betRecovery} health: out of service until the bets spilled by an earlier run have been processed again.
+ * Part of the readiness group, so a restarted pod gets no traffic while it is still replaying its spill files.
+ */
+@Component
+public class BetRecoveryHealthIndicator implements HealthIndicator {
+    private final BetProcessor betProcessor;
+    private final TenantRegistry tenantRegistry;
+
+    @Autowired
+    public BetRecoveryHealthIndicator(BetProcessor betProcessor, TenantRegistry tenantRegistry) {
+        this.betProcessor = betProcessor;
+        this.tenantRegistry = tenantRegistry;
+    }
+
+    @Override
+    public Health health() {
+        List<String> recovering = new ArrayList<>();
+        if (!betProcessor.isRecovered()) {
+            recovering.add("default");
+        }
+        for (String tenant : tenantRegistry.getTenants()) {
+            if (!tenantRegistry.get(tenant).isRecovered()) {
+                recovering.add(tenant);
+            }
+        }
+        if (recovering.isEmpty()) {
+            return Health.up().build();
+        }
+        return Health.outOfService()
+                .withDetail("recovering", recovering)
+                .withDetail("queued", betProcessor.getQueuedCount())
+                .build();
+    }
+}
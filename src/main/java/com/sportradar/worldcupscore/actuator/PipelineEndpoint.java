@@ -0,0 +1,29 @@
+package com.sportradar.worldcupscore.actuator;
+
+import com.sportradar.worldcupscore.service.BetProcessor;
+import com.sportradar.worldcupscore.service.PipelineStage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/pipeline}: queue depth and service time of each processing stage.
+ */
+@Component
+@Endpoint(id = "pipeline")
+public class PipelineEndpoint {
+    private final BetProcessor betProcessor;
+
+    @Autowired
+    public PipelineEndpoint(BetProcessor betProcessor) {
+        this.betProcessor = betProcessor;
+    }
+
+    @ReadOperation
+    public List<PipelineStage.StageStats> stages() {
+        return betProcessor.getPipelineStats();
+    }
+}
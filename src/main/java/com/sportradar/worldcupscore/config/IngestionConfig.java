@@ -0,0 +1,22 @@
+package com.sportradar.worldcupscore.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportradar.worldcupscore.controller.BetStreamServlet;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IngestionConfig {
+
+    // a plain servlet next to the dispatcher, since non-blocking reads need the request before Spring MVC binds it
+    @Bean
+    public ServletRegistrationBean<BetStreamServlet> betStreamServlet(BetProcessor betProcessor, ObjectMapper mapper) {
+        ServletRegistrationBean<BetStreamServlet> registration =
+                new ServletRegistrationBean<>(new BetStreamServlet(betProcessor, mapper), "/api/bets/stream");
+        registration.setName("betStream");
+        registration.setAsyncSupported(true);
+        return registration;
+    }
+}
@@ -0,0 +1,64 @@
+package com.sportradar.worldcupscore.config;
+
+import com.sportradar.worldcupscore.service.BetReplay;
+import com.sportradar.worldcupscore.service.ReplayReport;
+import com.sportradar.worldcupscore.util.Messages;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+/**
+ * Batch mode: with the {@code replay} profile the application starts without the web server, replays
+ * {@code bet.replay.file}, prints the summary and exits.
+ */
+@Component
+@Profile("replay")
+public class ReplayRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayRunner.class);
+
+    private final ApplicationContext context;
+
+    @Value("${bet.replay.file:}")
+    private String file = "";
+
+    // 0 means one thread per available processor
+    @Value("${bet.replay.parallelism:0}")
+    private int parallelism = 0;
+
+    public ReplayRunner(ApplicationContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = replay(System.out);
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    int replay(PrintStream out) {
+        if (file.isBlank()) {
+            logger.error(Messages.REPLAY_NO_FILE);
+            return 2;
+        }
+        try {
+            ReplayReport report = new BetReplay(parallelism).replay(Path.of(file));
+            logger.info(Messages.REPLAY_COMPLETED, report.getBets(), file, report.getElapsedMillis(), report.getBetsPerMinute());
+            out.print(report.getSummary());
+            return 0;
+        } catch (IOException e) {
+            logger.error(Messages.REPLAY_FAILED, file, e.getMessage());
+            return 1;
+        }
+    }
+}
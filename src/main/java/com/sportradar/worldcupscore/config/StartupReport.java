@@ -0,0 +1,70 @@
+package com.sportradar.worldcupscore.config;
+
+import com.sportradar.worldcupscore.util.Messages;
+import com.sun.management.HotSpotDiagnosticMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Logs how long the application took to become ready and its resident memory at that point, so the plain,
+ * AOT/CDS and native builds can be compared. With {@code bet.startup.exit-when-ready} the application exits right
+ * after, which is how the {@code cds} build profile measures it.
+ */
+@Component
+public class StartupReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupReport.class);
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+
+    @Value("${bet.startup.exit-when-ready:false}")
+    private boolean exitWhenReady;
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        long residentKb = residentKilobytes(PROC_STATUS);
+        logger.info(Messages.STARTUP_REPORT, event.getTimeTaken().toMillis(), ManagementFactory.getRuntimeMXBean().getUptime(),
+                residentKb < 0 ? "n/a" : residentKb / 1024 + " MB", AotDetector.useGeneratedArtifacts(), isSharingClasses());
+        if (exitWhenReady) {
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+
+    /**
+     * The {@code VmRSS} line of a Linux {@code /proc/<pid>/status} file, or -1 where there is none.
+     */
+    static long residentKilobytes(Path status) {
+        try {
+            List<String> lines = Files.readAllLines(status);
+            for (String line : lines) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.substring("VmRSS:".length()).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // not Linux, or a format we do not know
+        }
+        return -1;
+    }
+
+    private static boolean isSharingClasses() {
+        try {
+            HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            return hotSpot != null && !hotSpot.getVMOption("SharedArchiveFile").getValue().isEmpty();
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            // native images and VMs without the option
+            return false;
+        }
+    }
+}
@@ -8,8 +8,11 @@ import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
+// no sample bets when replaying a file
 @Configuration
+@Profile("!replay")
 public class WorldCupScoreConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(WorldCupScoreConfig.class);
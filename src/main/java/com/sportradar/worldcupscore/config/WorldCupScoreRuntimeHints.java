@@ -0,0 +1,31 @@
+package com.sportradar.worldcupscore.config;
+
+import com.sportradar.worldcupscore.model.Alert;
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.IngestionReport;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection the AOT build cannot infer from the controllers: JSON bound outside of Spring MVC (the stream
+ * servlet, alert SSE and webhook), the Jackson builder of {@link Bet}, and the tenant processors that are
+ * autowired by hand.
+ */
+public class WorldCupScoreRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(), Bet.class, IngestionReport.class, Alert.class);
+        // @JsonDeserialize(builder = ...) is not followed by the binding registrar
+        hints.reflection().registerType(Bet.BetBuilder.class,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        // @Value fields and @PostConstruct of the per-tenant processors, see TenantRegistry
+        hints.reflection().registerType(BetProcessor.class,
+                MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
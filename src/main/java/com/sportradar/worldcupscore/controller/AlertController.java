@@ -0,0 +1,73 @@
+package com.sportradar.worldcupscore.controller;
+
+import com.sportradar.worldcupscore.model.Alert;
+import com.sportradar.worldcupscore.model.AlertDirection;
+import com.sportradar.worldcupscore.model.AlertRule;
+import com.sportradar.worldcupscore.model.AlertScope;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+@RestController
+@RequestMapping("/api/alerts")
+public class AlertController {
+    private final BetProcessor betProcessor;
+
+    @Autowired
+    public AlertController(BetProcessor betProcessor) {
+        this.betProcessor = betProcessor;
+    }
+
+    @GetMapping("/rules")
+    public ResponseEntity<List<AlertRule>> getRules() {
+        return ResponseEntity.ok(betProcessor.getAlertRules());
+    }
+
+    @PostMapping("/rules")
+    public ResponseEntity<AlertRule> addRule(@RequestParam AlertScope scope,
+                                             @RequestParam(required = false) String key,
+                                             @RequestParam double threshold,
+                                             @RequestParam(defaultValue = "ABOVE") AlertDirection direction) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(betProcessor.addAlertRule(scope, key, threshold, direction));
+    }
+
+    @DeleteMapping("/rules/{id}")
+    public ResponseEntity<Void> removeRule(@PathVariable long id) {
+        if (!betProcessor.removeAlertRule(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Server-sent events, one {@code alert} event per alert, until the client disconnects.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        SseEmitter emitter = new SseEmitter(0L);
+        Consumer<Alert> subscriber = new Consumer<>() {
+            @Override
+            public void accept(Alert alert) {
+                try {
+                    emitter.send(SseEmitter.event().name("alert").data(alert));
+                } catch (IOException e) {
+                    betProcessor.unsubscribeAlerts(this);
+                    emitter.completeWithError(e);
+                }
+            }
+        };
+        emitter.onCompletion(() -> betProcessor.unsubscribeAlerts(subscriber));
+        emitter.onTimeout(() -> betProcessor.unsubscribeAlerts(subscriber));
+        emitter.onError(e -> betProcessor.unsubscribeAlerts(subscriber));
+        betProcessor.subscribeAlerts(subscriber);
+        return emitter;
+    }
+}
@@ -0,0 +1,39 @@
+package com.sportradar.worldcupscore.controller;
+
+import com.sportradar.worldcupscore.model.ArchiveGroupBy;
+import com.sportradar.worldcupscore.model.ArchiveQuery;
+import com.sportradar.worldcupscore.model.ArchiveReport;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/archive")
+public class ArchiveController {
+    private final BetProcessor betProcessor;
+
+    @Autowired
+    public ArchiveController(BetProcessor betProcessor) {
+        this.betProcessor = betProcessor;
+    }
+
+    @GetMapping
+    public ResponseEntity<ArchiveReport> query(@RequestParam(required = false) String event,
+                                               @RequestParam(required = false) String market,
+                                               @RequestParam(required = false) String client,
+                                               @RequestParam(required = false) Instant from,
+                                               @RequestParam(required = false) Instant to,
+                                               @RequestParam(defaultValue = "NONE") ArchiveGroupBy groupBy) {
+        ArchiveReport report = betProcessor.queryArchive(new ArchiveQuery(event, market, client, from, to, groupBy));
+        if (report == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(report);
+    }
+}
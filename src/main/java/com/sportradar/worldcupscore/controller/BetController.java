@@ -1,17 +1,24 @@
 package com.sportradar.worldcupscore.controller;
 
 import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetTracking;
+import com.sportradar.worldcupscore.model.BetUpdateStatus;
 import com.sportradar.worldcupscore.service.BetProcessor;
+import com.sportradar.worldcupscore.service.CompletionRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.List;
 
 @RestController
 @RequestMapping("/api")
 public class BetController {
+    public static final String TRACKING_TOKEN_HEADER = "X-Bet-Tracking-Token";
+    private static final long MAX_WAIT_MILLIS = 30000;
+
     private final BetProcessor betProcessor;
 
     @Autowired
@@ -21,8 +28,41 @@ public class BetController {
 
     @PostMapping("/bets")
     public ResponseEntity<Bet> addBet(@RequestBody Bet bet) {
-        betProcessor.addBet(bet);
-        return ResponseEntity.status(HttpStatus.CREATED).body(bet);
+        long token = betProcessor.addBet(bet);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (token > 0) {
+            response.header(TRACKING_TOKEN_HEADER, String.valueOf(token));
+        }
+        return response.body(bet);
+    }
+
+    /**
+     * Outcome of a submitted update. With {@code waitMs} a still-queued update is long-polled without holding
+     * a servlet thread, answering as soon as it is processed or flagged, or with QUEUED when the wait runs out.
+     */
+    @GetMapping("/bets/{id}/status")
+    public DeferredResult<ResponseEntity<BetTracking>> getBetStatus(@PathVariable int id,
+                                                                    @RequestParam(required = false) Long token,
+                                                                    @RequestParam(defaultValue = "0") long waitMs) {
+        return trackingResult(betProcessor, id, token, waitMs);
+    }
+
+    static DeferredResult<ResponseEntity<BetTracking>> trackingResult(BetProcessor betProcessor, int id, Long token,
+                                                                     long waitMs) {
+        long wait = Math.min(Math.max(0, waitMs), MAX_WAIT_MILLIS);
+        DeferredResult<ResponseEntity<BetTracking>> result = new DeferredResult<>(wait > 0 ? wait : null);
+        CompletionRegistry.Tracked tracked = betProcessor.findTracking(id, token);
+        if (tracked == null) {
+            result.setResult(ResponseEntity.notFound().build());
+            return result;
+        }
+        if (wait == 0 || tracked.getStatus() != BetUpdateStatus.QUEUED) {
+            result.setResult(ResponseEntity.ok(tracked.toTracking()));
+            return result;
+        }
+        result.onTimeout(() -> result.setResult(ResponseEntity.ok(tracked.toTracking())));
+        tracked.getCompletion().thenRun(() -> result.setResult(ResponseEntity.ok(tracked.toTracking())));
+        return result;
     }
 
     @GetMapping("/summary")
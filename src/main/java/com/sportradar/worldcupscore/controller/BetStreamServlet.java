@@ -0,0 +1,218 @@
+package com.sportradar.worldcupscore.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportradar.worldcupscore.exception.InvalidTransitionException;
+import com.sportradar.worldcupscore.exception.RateLimitExceededException;
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.IngestionReport;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import com.sportradar.worldcupscore.util.Messages;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-lived feed connections posting newline-delimited bets to {@code /api/bets/stream}. The body is read with
+ * servlet non-blocking I/O, so a connection only takes a container thread while bytes are available. Reading
+ * pauses while the processor queue is full: the unread bytes fill the socket buffers and the feed is slowed down
+ * by TCP flow control, and no thread waits for the queue.
+ */
+public class BetStreamServlet extends HttpServlet {
+
+    private static final Logger logger = LoggerFactory.getLogger(BetStreamServlet.class);
+    static final int MAX_LINE_BYTES = 64 * 1024;
+    static final int MAX_ERRORS = 20;
+    private static final long RETRY_MILLIS = 10;
+
+    private final transient BetProcessor betProcessor;
+    private final transient ObjectMapper mapper;
+    private final transient ScheduledExecutorService resumer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "bet-stream-resume");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BetStreamServlet(BetProcessor betProcessor, ObjectMapper mapper) {
+        this.betProcessor = betProcessor;
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        AsyncContext async = request.startAsync();
+        // feeds stay connected for as long as they have bets to send
+        async.setTimeout(0);
+        ServletInputStream input = request.getInputStream();
+        input.setReadListener(new Ingestion(async, input));
+    }
+
+    @Override
+    public void destroy() {
+        resumer.shutdownNow();
+    }
+
+    private final class Ingestion implements ReadListener {
+        private final AsyncContext async;
+        private final ServletInputStream input;
+        private final byte[] chunk = new byte[8192];
+        private byte[] line = new byte[256];
+        private int lineLength;
+        private boolean tooLong;
+        private int lineNumber;
+        private long accepted;
+        private long rejected;
+        private final List<String> errors = new ArrayList<>();
+        private boolean finished;
+
+        private Ingestion(AsyncContext async, ServletInputStream input) {
+            this.async = async;
+            this.input = input;
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            pump();
+        }
+
+        // capacity is checked before isReady(): once isReady() has returned true the container will not call
+        // onDataAvailable again until the data is read, so a paused stream is resumed from the timer instead
+        private synchronized void pump() throws IOException {
+            while (!finished) {
+                if (!betProcessor.hasCapacity()) {
+                    resumer.schedule(this::resume, RETRY_MILLIS, TimeUnit.MILLISECONDS);
+                    return;
+                }
+                if (!input.isReady()) {
+                    return;
+                }
+                int read = input.read(chunk);
+                if (read < 0) {
+                    return;
+                }
+                split(read);
+            }
+        }
+
+        private void resume() {
+            try {
+                pump();
+            } catch (IOException e) {
+                onError(e);
+            }
+        }
+
+        private void split(int read) {
+            int start = 0;
+            for (int i = 0; i < read; i++) {
+                if (chunk[i] == '\n') {
+                    append(start, i - start);
+                    endLine();
+                    start = i + 1;
+                }
+            }
+            append(start, read - start);
+        }
+
+        private void append(int offset, int length) {
+            if (tooLong || length == 0) {
+                return;
+            }
+            if (lineLength + length > MAX_LINE_BYTES) {
+                tooLong = true;
+                return;
+            }
+            if (lineLength + length > line.length) {
+                line = Arrays.copyOf(line, Math.min(MAX_LINE_BYTES, Math.max(line.length * 2, lineLength + length)));
+            }
+            System.arraycopy(chunk, offset, line, lineLength, length);
+            lineLength += length;
+        }
+
+        private void endLine() {
+            lineNumber++;
+            if (tooLong) {
+                reject(String.format(Locale.ROOT, Messages.STREAM_LINE_TOO_LONG, MAX_LINE_BYTES));
+            } else if (!isBlank()) {
+                accept();
+            }
+            lineLength = 0;
+            tooLong = false;
+        }
+
+        private boolean isBlank() {
+            for (int i = 0; i < lineLength; i++) {
+                if (!Character.isWhitespace(line[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void accept() {
+            try {
+                Bet bet = mapper.readValue(line, 0, lineLength, Bet.class);
+                if (betProcessor.addBet(bet) > 0) {
+                    accepted++;
+                } else {
+                    reject(Messages.SHUTTING_DOWN);
+                }
+            } catch (JsonProcessingException e) {
+                reject(e.getOriginalMessage());
+            } catch (IOException | RateLimitExceededException | InvalidTransitionException e) {
+                reject(e.getMessage());
+            } catch (RuntimeException e) {
+                // one bad line must not end the stream for every line after it
+                logger.warn(Messages.STREAM_LINE_FAILED, lineNumber, e);
+                reject(e.toString());
+            }
+        }
+
+        private void reject(String reason) {
+            rejected++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(String.format(Locale.ROOT, Messages.STREAM_LINE_REJECTED, lineNumber, reason));
+            }
+        }
+
+        @Override
+        public synchronized void onAllDataRead() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            // the last line may have no trailing newline
+            endLine();
+            HttpServletResponse response = (HttpServletResponse) async.getResponse();
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            mapper.writeValue(response.getOutputStream(), new IngestionReport(accepted, rejected, errors));
+            async.complete();
+        }
+
+        @Override
+        public synchronized void onError(Throwable t) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            logger.warn(Messages.STREAM_FAILED, accepted, t.getMessage());
+            async.complete();
+        }
+    }
+}
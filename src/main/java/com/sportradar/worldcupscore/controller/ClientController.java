@@ -0,0 +1,30 @@
+package com.sportradar.worldcupscore.controller;
+
+import com.sportradar.worldcupscore.model.ClientPortfolio;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/clients")
+public class ClientController {
+    private final BetProcessor betProcessor;
+
+    @Autowired
+    public ClientController(BetProcessor betProcessor) {
+        this.betProcessor = betProcessor;
+    }
+
+    @GetMapping("/{client}")
+    public ResponseEntity<ClientPortfolio> getClientPortfolio(@PathVariable String client) {
+        ClientPortfolio portfolio = betProcessor.getClientPortfolio(client);
+        if (portfolio == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(portfolio);
+    }
+}
@@ -0,0 +1,81 @@
+package com.sportradar.worldcupscore.controller;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import com.sportradar.worldcupscore.model.ExportFormat;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * End-of-day exports, streamed row by row to the response so memory stays flat however much state there is.
+ */
+@RestController
+@RequestMapping("/api/exports")
+public class ExportController {
+    private static final String[] BET_COLUMNS = {"id", "status", "amount", "odds", "client", "event", "market", "selection"};
+    private static final String[] CLIENT_COLUMNS = {"client", "profit", "loss", "net"};
+    private static final BetStatus[] SETTLED_STATUSES = {BetStatus.WINNER, BetStatus.LOSER, BetStatus.VOID};
+
+    private final BetProcessor betProcessor;
+
+    @Autowired
+    public ExportController(BetProcessor betProcessor) {
+        this.betProcessor = betProcessor;
+    }
+
+    /**
+     * Open bets with their details, then settled bets by id with their final status, winners first.
+     */
+    @GetMapping("/bets")
+    public ResponseEntity<StreamingResponseBody> exportBets(@RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return stream(format, BET_COLUMNS, writer -> {
+            betProcessor.forEachOpenBet(bet -> writeBet(writer, bet));
+            for (BetStatus status : SETTLED_STATUSES) {
+                betProcessor.forEachSettledId(status, id -> writer.row(id, status, null, null, null, null, null, null));
+            }
+        });
+    }
+
+    @GetMapping("/clients")
+    public ResponseEntity<StreamingResponseBody> exportClients(@RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return stream(format, CLIENT_COLUMNS, writer -> betProcessor.forEachClientResult(
+                (client, profit, loss) -> writer.row(client, profit, loss, profit - loss)));
+    }
+
+    @GetMapping("/review")
+    public ResponseEntity<StreamingResponseBody> exportReview(@RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return stream(format, BET_COLUMNS, writer -> betProcessor.forEachReviewBet(bet -> writeBet(writer, bet)));
+    }
+
+    private static void writeBet(ExportWriter writer, Bet bet) {
+        writer.row(bet.getId(), bet.getStatus(), bet.getAmount(), bet.getOdds(), bet.getClient(), bet.getEvent(),
+                bet.getMarket(), bet.getSelection());
+    }
+
+    private static ResponseEntity<StreamingResponseBody> stream(ExportFormat format, String[] columns,
+                                                                Consumer<ExportWriter> rows) {
+        StreamingResponseBody body = out -> {
+            ExportWriter writer = new ExportWriter(out, format, columns);
+            try {
+                rows.accept(writer);
+            } catch (UncheckedIOException e) {
+                // usually the client went away mid-export
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .body(body);
+    }
+}
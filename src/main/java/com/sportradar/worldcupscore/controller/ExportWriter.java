@@ -0,0 +1,97 @@
+package com.sportradar.worldcupscore.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sportradar.worldcupscore.model.ExportFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes export rows one at a time as CSV lines or NDJSON objects; only a small write buffer is held.
+ * I/O errors surface as {@link UncheckedIOException} so rows can be written from visitor callbacks.
+ */
+class ExportWriter {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final ExportFormat format;
+    private final String[] columns;
+    private final Writer writer;
+    private final JsonGenerator json;
+
+    ExportWriter(OutputStream out, ExportFormat format, String... columns) throws IOException {
+        this.format = format;
+        this.columns = columns;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.NDJSON) {
+            json = JSON.createGenerator(writer);
+            json.setRootValueSeparator(null);
+        } else {
+            json = null;
+            writeCsv((Object[]) columns);
+        }
+    }
+
+    void row(Object... values) {
+        try {
+            if (format == ExportFormat.NDJSON) {
+                writeJson(values);
+            } else {
+                writeCsv(values);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void flush() throws IOException {
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+    }
+
+    private void writeJson(Object[] values) throws IOException {
+        json.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            Object value = values[i];
+            json.writeFieldName(columns[i]);
+            if (value == null) {
+                json.writeNull();
+            } else if (value instanceof Integer number) {
+                json.writeNumber(number);
+            } else if (value instanceof Double number) {
+                json.writeNumber(number);
+            } else {
+                json.writeString(value.toString());
+            }
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private void writeCsv(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escapeCsv(values[i].toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
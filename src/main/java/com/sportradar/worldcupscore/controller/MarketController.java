@@ -0,0 +1,44 @@
+package com.sportradar.worldcupscore.controller;
+
+import com.sportradar.worldcupscore.model.DistributionSummary;
+import com.sportradar.worldcupscore.model.MarketSettlement;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/markets")
+public class MarketController {
+    private final BetProcessor betProcessor;
+
+    @Autowired
+    public MarketController(BetProcessor betProcessor) {
+        this.betProcessor = betProcessor;
+    }
+
+    @GetMapping("/quantiles")
+    public ResponseEntity<Map<String, DistributionSummary>> getQuantiles(
+            @RequestParam(defaultValue = "0.5,0.95,0.99") double[] q) {
+        return ResponseEntity.ok(betProcessor.getDistributions(q));
+    }
+
+    @GetMapping("/{event}/{market}/quantiles")
+    public ResponseEntity<Map<String, DistributionSummary>> getMarketQuantiles(
+            @PathVariable String event, @PathVariable String market,
+            @RequestParam(defaultValue = "0.5,0.95,0.99") double[] q) {
+        Map<String, DistributionSummary> distributions = betProcessor.getDistributions(event, market, q);
+        if (distributions == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(distributions);
+    }
+
+    @PostMapping("/{event}/{market}/settle")
+    public ResponseEntity<MarketSettlement> settleMarket(@PathVariable String event, @PathVariable String market,
+                                                         @RequestParam String winningSelection) {
+        return ResponseEntity.ok(betProcessor.settleMarket(event, market, winningSelection));
+    }
+}
@@ -0,0 +1,81 @@
+package com.sportradar.worldcupscore.controller;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetTracking;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import com.sportradar.worldcupscore.service.TenantRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The bet endpoints scoped to one tenant; unknown tenants get 404.
+ */
+@RestController
+@RequestMapping("/api/tenants")
+public class TenantController {
+    private final TenantRegistry tenantRegistry;
+
+    @Autowired
+    public TenantController(TenantRegistry tenantRegistry) {
+        this.tenantRegistry = tenantRegistry;
+    }
+
+    @GetMapping
+    public ResponseEntity<Set<String>> getTenants() {
+        return ResponseEntity.ok(tenantRegistry.getTenants());
+    }
+
+    @PostMapping("/{tenant}/bets")
+    public ResponseEntity<Bet> addBet(@PathVariable String tenant, @RequestBody Bet bet) {
+        BetProcessor betProcessor = tenantRegistry.get(tenant);
+        if (betProcessor == null) {
+            return ResponseEntity.notFound().build();
+        }
+        long token = betProcessor.addBet(bet);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (token > 0) {
+            response.header(BetController.TRACKING_TOKEN_HEADER, String.valueOf(token));
+        }
+        return response.body(bet);
+    }
+
+    /**
+     * Redeems the tracking token returned by {@code POST /{tenant}/bets}; see {@link BetController#getBetStatus}.
+     */
+    @GetMapping("/{tenant}/bets/{id}/status")
+    public DeferredResult<ResponseEntity<BetTracking>> getBetStatus(@PathVariable String tenant, @PathVariable int id,
+                                                                    @RequestParam(required = false) Long token,
+                                                                    @RequestParam(defaultValue = "0") long waitMs) {
+        BetProcessor betProcessor = tenantRegistry.get(tenant);
+        if (betProcessor == null) {
+            DeferredResult<ResponseEntity<BetTracking>> result = new DeferredResult<>();
+            result.setResult(ResponseEntity.notFound().build());
+            return result;
+        }
+        return BetController.trackingResult(betProcessor, id, token, waitMs);
+    }
+
+    @GetMapping("/{tenant}/summary")
+    public ResponseEntity<String> getSummary(@PathVariable String tenant) {
+        BetProcessor betProcessor = tenantRegistry.get(tenant);
+        if (betProcessor == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(betProcessor.getSummary());
+    }
+
+    @GetMapping("/{tenant}/bets/review")
+    public ResponseEntity<List<Bet>> getReviewBets(@PathVariable String tenant) {
+        BetProcessor betProcessor = tenantRegistry.get(tenant);
+        if (betProcessor == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(betProcessor.getReviewBets());
+    }
+}
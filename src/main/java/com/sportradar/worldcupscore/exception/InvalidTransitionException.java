@@ -0,0 +1,8 @@
+package com.sportradar.worldcupscore.exception;
+
+public class InvalidTransitionException extends RuntimeException {
+
+    public InvalidTransitionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.sportradar.worldcupscore.exception;
+
+public class RateLimitExceededException extends RuntimeException {
+
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,32 @@
+package com.sportradar.worldcupscore.jfr;
+
+import com.sportradar.worldcupscore.model.Bet;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The updates of a processed bet to the ledger, open-bet store, portfolios, alerts and distributions. The
+ * duration of the event is the time of those updates on the worker.
+ */
+@Name("com.sportradar.worldcupscore.BetAggregation")
+@Label("Bet Aggregation")
+@Category({"World Cup Score", "Bets"})
+@Description("Aggregate updates for a processed bet update")
+@StackTrace(false)
+public class BetAggregationEvent extends BetEvent {
+
+    @Label("Result")
+    double result;
+
+    public void commit(Bet bet, double result) {
+        end();
+        if (shouldCommit()) {
+            set(bet);
+            this.result = result;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.sportradar.worldcupscore.jfr;
+
+import com.sportradar.worldcupscore.model.Bet;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A bet taken off the queue by a worker, with the time it waited there.
+ */
+@Name("com.sportradar.worldcupscore.BetDequeued")
+@Label("Bet Dequeued")
+@Category({"World Cup Score", "Bets"})
+@Description("A worker took a bet update off the queue")
+@StackTrace(false)
+public class BetDequeuedEvent extends BetEvent {
+
+    @Label("Queue Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    long queueWait;
+
+    public static void emit(Bet bet, long dequeuedAt) {
+        BetDequeuedEvent event = new BetDequeuedEvent();
+        if (event.isEnabled()) {
+            event.set(bet);
+            event.queueWait = dequeuedAt - bet.getIngestedAtNanos();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.sportradar.worldcupscore.jfr;
+
+import com.sportradar.worldcupscore.model.Bet;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A bet update accepted by {@code addBet} and handed to the queue.
+ */
+@Name("com.sportradar.worldcupscore.BetEnqueued")
+@Label("Bet Enqueued")
+@Category({"World Cup Score", "Bets"})
+@Description("A bet update was accepted and queued")
+@StackTrace(false)
+public class BetEnqueuedEvent extends BetEvent {
+
+    @Label("Tracking Token")
+    long trackingToken;
+
+    public static void emit(Bet bet) {
+        BetEnqueuedEvent event = new BetEnqueuedEvent();
+        if (event.isEnabled()) {
+            event.set(bet);
+            event.trackingToken = bet.getTrackingToken();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.sportradar.worldcupscore.jfr;
+
+import com.sportradar.worldcupscore.model.Bet;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Fields shared by the bet lifecycle events. The events are only committed while a recording has them enabled,
+ * so outside a recording each call site costs one {@code isEnabled()} check.
+ */
+abstract class BetEvent extends Event {
+
+    @Label("Bet Id")
+    int betId;
+
+    @Label("Status")
+    String status;
+
+    @Label("Client")
+    String client;
+
+    void set(Bet bet) {
+        betId = bet.getId();
+        // a malformed update may carry no status; it is still recorded on its way to review
+        status = bet.getStatus() == null ? null : bet.getStatus().name();
+        client = bet.getClient();
+    }
+}
@@ -0,0 +1,32 @@
+package com.sportradar.worldcupscore.jfr;
+
+import com.sportradar.worldcupscore.model.Bet;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The external settlement call for a bet, or for a batch of bets in the staged pipeline, in which case the
+ * event carries the first bet of the batch. The duration of the event is the time of the call.
+ */
+@Name("com.sportradar.worldcupscore.BetSettlement")
+@Label("Bet Settlement")
+@Category({"World Cup Score", "Bets"})
+@Description("External settlement call for a bet update")
+@StackTrace(false)
+public class BetSettlementEvent extends BetEvent {
+
+    @Label("Batch Size")
+    int batchSize;
+
+    public void commit(Bet bet, int batchSize) {
+        end();
+        if (shouldCommit()) {
+            set(bet);
+            this.batchSize = batchSize;
+            commit();
+        }
+    }
+}
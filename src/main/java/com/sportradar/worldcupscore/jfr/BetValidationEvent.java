@@ -0,0 +1,37 @@
+package com.sportradar.worldcupscore.jfr;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The transition check of a bet update and its outcome: {@code PROCESSED}, {@code REVIEW} or {@code HELD} by the
+ * reorder window. The duration of the event is the time of the check.
+ */
+@Name("com.sportradar.worldcupscore.BetValidation")
+@Label("Bet Validation")
+@Category({"World Cup Score", "Bets"})
+@Description("Transition check of a bet update")
+@StackTrace(false)
+public class BetValidationEvent extends BetEvent {
+
+    @Label("Previous Status")
+    String previousStatus;
+
+    @Label("Outcome")
+    String outcome;
+
+    public void commit(Bet bet, BetStatus previousStatus, String outcome) {
+        end();
+        if (shouldCommit()) {
+            set(bet);
+            this.previousStatus = previousStatus == null ? null : previousStatus.name();
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
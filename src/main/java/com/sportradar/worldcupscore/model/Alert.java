@@ -0,0 +1,36 @@
+package com.sportradar.worldcupscore.model;
+
+import java.time.Instant;
+
+public class Alert {
+    private final AlertRule rule;
+    private final double value;
+    private final int betId;
+    private final Instant triggeredAt;
+
+    public Alert(AlertRule rule, double value, int betId, Instant triggeredAt) {
+        this.rule = rule;
+        this.value = value;
+        this.betId = betId;
+        this.triggeredAt = triggeredAt;
+    }
+
+    public AlertRule getRule() {
+        return rule;
+    }
+
+    /**
+     * The watched value right after the bet that crossed the threshold.
+     */
+    public double getValue() {
+        return value;
+    }
+
+    public int getBetId() {
+        return betId;
+    }
+
+    public Instant getTriggeredAt() {
+        return triggeredAt;
+    }
+}
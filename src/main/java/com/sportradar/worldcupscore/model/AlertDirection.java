@@ -0,0 +1,6 @@
+package com.sportradar.worldcupscore.model;
+
+public enum AlertDirection {
+    ABOVE,
+    BELOW
+}
@@ -0,0 +1,37 @@
+package com.sportradar.worldcupscore.model;
+
+public class AlertRule {
+    private final long id;
+    private final AlertScope scope;
+    private final String key;
+    private final double threshold;
+    private final AlertDirection direction;
+
+    public AlertRule(long id, AlertScope scope, String key, double threshold, AlertDirection direction) {
+        this.id = id;
+        this.scope = scope;
+        this.key = key;
+        this.threshold = threshold;
+        this.direction = direction;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public AlertScope getScope() {
+        return scope;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public AlertDirection getDirection() {
+        return direction;
+    }
+}
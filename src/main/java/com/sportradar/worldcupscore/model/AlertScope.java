@@ -0,0 +1,10 @@
+package com.sportradar.worldcupscore.model;
+
+public enum AlertScope {
+    // open liability of one selection, key event/market/selection
+    SELECTION_LIABILITY,
+    // realised loss of one client, key is the client
+    CLIENT_LOSS,
+    // global profit/loss, no key
+    TOTAL_PROFIT_LOSS
+}
@@ -0,0 +1,8 @@
+package com.sportradar.worldcupscore.model;
+
+public enum ArchiveGroupBy {
+    NONE,
+    EVENT,
+    MARKET,
+    CLIENT
+}
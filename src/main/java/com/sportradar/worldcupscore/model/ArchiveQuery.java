@@ -0,0 +1,48 @@
+package com.sportradar.worldcupscore.model;
+
+import java.time.Instant;
+
+/**
+ * Filter over archived settled bets; null fields match everything, {@code to} is exclusive.
+ */
+public class ArchiveQuery {
+    private final String event;
+    private final String market;
+    private final String client;
+    private final Instant from;
+    private final Instant to;
+    private final ArchiveGroupBy groupBy;
+
+    public ArchiveQuery(String event, String market, String client, Instant from, Instant to, ArchiveGroupBy groupBy) {
+        this.event = event;
+        this.market = market;
+        this.client = client;
+        this.from = from;
+        this.to = to;
+        this.groupBy = groupBy == null ? ArchiveGroupBy.NONE : groupBy;
+    }
+
+    public String getEvent() {
+        return event;
+    }
+
+    public String getMarket() {
+        return market;
+    }
+
+    public String getClient() {
+        return client;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public ArchiveGroupBy getGroupBy() {
+        return groupBy;
+    }
+}
@@ -0,0 +1,27 @@
+package com.sportradar.worldcupscore.model;
+
+import java.util.Map;
+
+public class ArchiveReport {
+    private final ArchiveGroupBy groupBy;
+    private final ArchiveTotals totals;
+    private final Map<String, ArchiveTotals> groups;
+
+    public ArchiveReport(ArchiveGroupBy groupBy, ArchiveTotals totals, Map<String, ArchiveTotals> groups) {
+        this.groupBy = groupBy;
+        this.totals = totals;
+        this.groups = groups;
+    }
+
+    public ArchiveGroupBy getGroupBy() {
+        return groupBy;
+    }
+
+    public ArchiveTotals getTotals() {
+        return totals;
+    }
+
+    public Map<String, ArchiveTotals> getGroups() {
+        return groups;
+    }
+}
@@ -0,0 +1,25 @@
+package com.sportradar.worldcupscore.model;
+
+public class ArchiveTotals {
+    private final long count;
+    private final double amount;
+    private final double profitLoss;
+
+    public ArchiveTotals(long count, double amount, double profitLoss) {
+        this.count = count;
+        this.amount = amount;
+        this.profitLoss = profitLoss;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public double getProfitLoss() {
+        return profitLoss;
+    }
+}
@@ -1,5 +1,6 @@
 package com.sportradar.worldcupscore.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
 
@@ -14,6 +15,10 @@ public class Bet {
     private final String market;
     private final String selection;
     private final BetStatus status;
+    // System.nanoTime() when the processor accepted the bet, 0 before that; carried by copies; internal only
+    private final long ingestedAtNanos;
+    // completion tracking token assigned at ingestion, 0 when untracked; internal only
+    private final long trackingToken;
 
     private Bet(BetBuilder builder) {
         this.id = builder.id;
@@ -24,6 +29,35 @@ public class Bet {
         this.market = builder.market;
         this.selection = builder.selection;
         this.status = builder.status;
+        this.ingestedAtNanos = 0;
+        this.trackingToken = 0;
+    }
+
+    private Bet(Bet source, long ingestedAtNanos, long trackingToken) {
+        this.id = source.id;
+        this.amount = source.amount;
+        this.odds = source.odds;
+        this.client = source.client;
+        this.event = source.event;
+        this.market = source.market;
+        this.selection = source.selection;
+        this.status = source.status;
+        this.ingestedAtNanos = ingestedAtNanos;
+        this.trackingToken = trackingToken;
+    }
+
+    /**
+     * Same bet, keeping its ingestion stamp, carrying the given tracking token.
+     */
+    public Bet withTrackingToken(long trackingToken) {
+        return new Bet(this, ingestedAtNanos, trackingToken);
+    }
+
+    /**
+     * Same bet stamped as ingested at {@code ingestedAtNanos}, carrying the given tracking token.
+     */
+    public Bet ingested(long ingestedAtNanos, long trackingToken) {
+        return new Bet(this, ingestedAtNanos, trackingToken);
     }
 
     public int getId() {
@@ -58,6 +92,16 @@ public class Bet {
         return status;
     }
 
+    @JsonIgnore
+    public long getIngestedAtNanos() {
+        return ingestedAtNanos;
+    }
+
+    @JsonIgnore
+    public long getTrackingToken() {
+        return trackingToken;
+    }
+
     @JsonPOJOBuilder(withPrefix = "")
     public static class BetBuilder {
         private int id;
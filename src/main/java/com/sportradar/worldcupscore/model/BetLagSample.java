@@ -0,0 +1,35 @@
+package com.sportradar.worldcupscore.model;
+
+public class BetLagSample {
+    private final int id;
+    private final BetStatus status;
+    private final double queueWaitMillis;
+    private final double processingMillis;
+
+    public BetLagSample(int id, BetStatus status, double queueWaitMillis, double processingMillis) {
+        this.id = id;
+        this.status = status;
+        this.queueWaitMillis = queueWaitMillis;
+        this.processingMillis = processingMillis;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public BetStatus getStatus() {
+        return status;
+    }
+
+    public double getQueueWaitMillis() {
+        return queueWaitMillis;
+    }
+
+    public double getProcessingMillis() {
+        return processingMillis;
+    }
+
+    public double getTotalMillis() {
+        return queueWaitMillis + processingMillis;
+    }
+}
@@ -0,0 +1,25 @@
+package com.sportradar.worldcupscore.model;
+
+public class BetTracking {
+    private final int id;
+    private final long token;
+    private final BetUpdateStatus status;
+
+    public BetTracking(int id, long token, BetUpdateStatus status) {
+        this.id = id;
+        this.token = token;
+        this.status = status;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public long getToken() {
+        return token;
+    }
+
+    public BetUpdateStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,7 @@
+package com.sportradar.worldcupscore.model;
+
+public enum BetUpdateStatus {
+    QUEUED,
+    PROCESSED,
+    REVIEW
+}
@@ -0,0 +1,40 @@
+package com.sportradar.worldcupscore.model;
+
+import java.util.List;
+
+public class ClientPortfolio {
+    private final String client;
+    private final List<Bet> openBets;
+    private final double openStake;
+    private final double potentialLiability;
+    private final double realisedProfitLoss;
+
+    public ClientPortfolio(String client, List<Bet> openBets, double openStake,
+                           double potentialLiability, double realisedProfitLoss) {
+        this.client = client;
+        this.openBets = openBets;
+        this.openStake = openStake;
+        this.potentialLiability = potentialLiability;
+        this.realisedProfitLoss = realisedProfitLoss;
+    }
+
+    public String getClient() {
+        return client;
+    }
+
+    public List<Bet> getOpenBets() {
+        return openBets;
+    }
+
+    public double getOpenStake() {
+        return openStake;
+    }
+
+    public double getPotentialLiability() {
+        return potentialLiability;
+    }
+
+    public double getRealisedProfitLoss() {
+        return realisedProfitLoss;
+    }
+}
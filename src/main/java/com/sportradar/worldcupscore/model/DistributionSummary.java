@@ -0,0 +1,21 @@
+package com.sportradar.worldcupscore.model;
+
+import java.util.Map;
+
+public class DistributionSummary {
+    private final long count;
+    private final Map<String, Double> quantiles;
+
+    public DistributionSummary(long count, Map<String, Double> quantiles) {
+        this.count = count;
+        this.quantiles = quantiles;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Map<String, Double> getQuantiles() {
+        return quantiles;
+    }
+}
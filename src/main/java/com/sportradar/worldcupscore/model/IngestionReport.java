@@ -0,0 +1,30 @@
+package com.sportradar.worldcupscore.model;
+
+import java.util.List;
+
+public class IngestionReport {
+    private final long accepted;
+    private final long rejected;
+    private final List<String> errors;
+
+    public IngestionReport(long accepted, long rejected, List<String> errors) {
+        this.accepted = accepted;
+        this.rejected = rejected;
+        this.errors = errors;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * The first rejected lines, as {@code line N: reason}.
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+}
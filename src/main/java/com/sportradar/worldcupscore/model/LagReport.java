@@ -0,0 +1,52 @@
+package com.sportradar.worldcupscore.model;
+
+import java.util.List;
+
+public class LagReport {
+    private final double currentLagMillis;
+    private final double oldestQueuedAgeMillis;
+    private final int queued;
+    private final long traced;
+    private final double averageQueueWaitMillis;
+    private final double averageProcessingMillis;
+    private final List<BetLagSample> slowest;
+
+    public LagReport(double currentLagMillis, double oldestQueuedAgeMillis, int queued, long traced,
+                     double averageQueueWaitMillis, double averageProcessingMillis, List<BetLagSample> slowest) {
+        this.currentLagMillis = currentLagMillis;
+        this.oldestQueuedAgeMillis = oldestQueuedAgeMillis;
+        this.queued = queued;
+        this.traced = traced;
+        this.averageQueueWaitMillis = averageQueueWaitMillis;
+        this.averageProcessingMillis = averageProcessingMillis;
+        this.slowest = slowest;
+    }
+
+    public double getCurrentLagMillis() {
+        return currentLagMillis;
+    }
+
+    public double getOldestQueuedAgeMillis() {
+        return oldestQueuedAgeMillis;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public long getTraced() {
+        return traced;
+    }
+
+    public double getAverageQueueWaitMillis() {
+        return averageQueueWaitMillis;
+    }
+
+    public double getAverageProcessingMillis() {
+        return averageProcessingMillis;
+    }
+
+    public List<BetLagSample> getSlowest() {
+        return slowest;
+    }
+}
@@ -0,0 +1,50 @@
+package com.sportradar.worldcupscore.model;
+
+public class MarketSettlement {
+    private final String event;
+    private final String market;
+    private final String winningSelection;
+    private final int settled;
+    private final int winners;
+    private final int losers;
+    private final double profitLoss;
+
+    public MarketSettlement(String event, String market, String winningSelection,
+                            int settled, int winners, int losers, double profitLoss) {
+        this.event = event;
+        this.market = market;
+        this.winningSelection = winningSelection;
+        this.settled = settled;
+        this.winners = winners;
+        this.losers = losers;
+        this.profitLoss = profitLoss;
+    }
+
+    public String getEvent() {
+        return event;
+    }
+
+    public String getMarket() {
+        return market;
+    }
+
+    public String getWinningSelection() {
+        return winningSelection;
+    }
+
+    public int getSettled() {
+        return settled;
+    }
+
+    public int getWinners() {
+        return winners;
+    }
+
+    public int getLosers() {
+        return losers;
+    }
+
+    public double getProfitLoss() {
+        return profitLoss;
+    }
+}
@@ -0,0 +1,359 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Global totals and per-client results, owned by a single aggregator thread. Workers only enqueue
+ * updates; the aggregator applies them in order and publishes an immutable {@link AggregateSnapshot},
+ * so readers get a consistent view with one volatile read and never block the workers.
+ * In {@link ClientStatsMode#APPROXIMATE} mode per-client results are kept in {@link HeavyHitters} instead
+ * of one exact total per client, and the number of bets per client is ranked too.
+ */
+public class AggregateLedger {
+
+    static final int TOP_CLIENTS = 5;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final ConcurrentLinkedQueue<Update> updates = new ConcurrentLinkedQueue<>();
+    private volatile AggregateSnapshot snapshot = AggregateSnapshot.EMPTY;
+    private volatile boolean closed;
+    private volatile boolean parked;
+    private Thread aggregator;
+
+    // written only while holding the ledger lock, normally by the aggregator thread
+    private long sequence;
+    private long processed;
+    private double amount;
+    private double profitLoss;
+    private final ConcurrentHashMap<String, Double> profitPerClient = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Double> lossPerClient = new ConcurrentHashMap<>();
+    private final TopClients topWinners = new TopClients(profitPerClient);
+    private final TopClients topLosers = new TopClients(lossPerClient);
+    // null in EXACT mode; in APPROXIMATE mode they replace the per-client maps above
+    private final HeavyHitters approximateProfits;
+    private final HeavyHitters approximateLosses;
+    private final HeavyHitters approximateVolume;
+
+    public AggregateLedger() {
+        approximateProfits = null;
+        approximateLosses = null;
+        approximateVolume = null;
+    }
+
+    /**
+     * A ledger in {@link ClientStatsMode#APPROXIMATE} mode, see {@link HeavyHitters} for the error bounds.
+     */
+    public AggregateLedger(double epsilon, double delta, int heavyHitters) {
+        approximateProfits = new HeavyHitters(epsilon, delta, heavyHitters);
+        approximateLosses = new HeavyHitters(epsilon, delta, heavyHitters);
+        approximateVolume = new HeavyHitters(epsilon, delta, heavyHitters);
+    }
+
+    public void start() {
+        aggregator = new Thread(this::run, "bet-aggregator");
+        aggregator.setDaemon(true);
+        aggregator.start();
+    }
+
+    /**
+     * Records a bet that passed validation; {@code result} is its profit/loss (0 for OPEN and VOID).
+     */
+    public Receipt record(Bet bet, double result) {
+        Update update = new Update();
+        update.processed = 1;
+        if (bet.getStatus() == BetStatus.OPEN) {
+            update.amount = bet.getAmount();
+            update.volumeClient = bet.getClient();
+        } else if (bet.getStatus() == BetStatus.WINNER) {
+            update.profitLoss = result;
+            update.profits = Collections.singletonMap(bet.getClient(), result);
+        } else if (bet.getStatus() == BetStatus.LOSER) {
+            update.profitLoss = result;
+            update.losses = Collections.singletonMap(bet.getClient(), bet.getAmount());
+        }
+        submit(update);
+        return update;
+    }
+
+    /**
+     * Records many settled bets as one update, so snapshots see all of them or none.
+     */
+    public Receipt recordBatch(long settled, double result, Map<String, Double> profits, Map<String, Double> losses) {
+        Update update = new Update();
+        update.processed = settled;
+        update.profitLoss = result;
+        update.profits = profits;
+        update.losses = losses;
+        submit(update);
+        return update;
+    }
+
+    /**
+     * Applies everything submitted so far on the calling thread, so the next snapshot includes it.
+     */
+    public void flush() {
+        drain();
+    }
+
+    public AggregateSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Live per-client profit; values can be ahead of the last published snapshot. Empty in APPROXIMATE mode.
+     */
+    public Map<String, Double> getProfitPerClient() {
+        return Collections.unmodifiableMap(profitPerClient);
+    }
+
+    public Map<String, Double> getLossPerClient() {
+        return Collections.unmodifiableMap(lossPerClient);
+    }
+
+    /**
+     * Estimated loss of one client in APPROXIMATE mode, never below its true loss; the exact live value otherwise.
+     */
+    public double estimateLoss(String client) {
+        if (approximateLosses == null) {
+            return lossPerClient.getOrDefault(client, 0.0);
+        }
+        synchronized (this) {
+            return approximateLosses.estimate(client);
+        }
+    }
+
+    /**
+     * Applies everything submitted so far, then hands the client's {@link #estimateLoss} and the sequence of the
+     * last applied update to {@code seed}; nothing is applied until it returns.
+     */
+    public synchronized void seedLoss(String client, LossSeed seed) {
+        drain();
+        seed.accept(estimateLoss(client), sequence);
+    }
+
+    /**
+     * Net result of one client: estimated profit minus estimated loss in APPROXIMATE mode, exact otherwise.
+     */
+    public double estimateResult(String client) {
+        if (approximateProfits == null) {
+            return profitPerClient.getOrDefault(client, 0.0) - lossPerClient.getOrDefault(client, 0.0);
+        }
+        synchronized (this) {
+            return approximateProfits.estimate(client) - approximateLosses.estimate(client);
+        }
+    }
+
+    /**
+     * Visits every client with a result straight from the live maps, without copying them. In APPROXIMATE
+     * mode only the tracked heavy hitters are visited, with their estimated totals.
+     */
+    public void forEachClient(ClientResultConsumer action) {
+        if (approximateProfits != null) {
+            forEachHeavyHitter(action);
+            return;
+        }
+        profitPerClient.forEach((client, profit) -> action.accept(client, profit, lossPerClient.getOrDefault(client, 0.0)));
+        lossPerClient.forEach((client, loss) -> {
+            if (!profitPerClient.containsKey(client)) {
+                action.accept(client, 0.0, loss);
+            }
+        });
+    }
+
+    /**
+     * Stops the aggregator after it has applied everything submitted so far; later updates are applied inline.
+     */
+    public void close() {
+        closed = true;
+        if (aggregator != null) {
+            LockSupport.unpark(aggregator);
+            try {
+                aggregator.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        drain();
+    }
+
+    private void forEachHeavyHitter(ClientResultConsumer action) {
+        Map<String, double[]> results = new HashMap<>();
+        synchronized (this) {
+            approximateProfits.forEachTracked((client, profit) -> results.put(client,
+                    new double[]{profit, approximateLosses.isTracked(client) ? approximateLosses.estimate(client) : 0}));
+            approximateLosses.forEachTracked((client, loss) -> results.putIfAbsent(client, new double[]{0, loss}));
+        }
+        results.forEach((client, result) -> action.accept(client, result[0], result[1]));
+    }
+
+    private void submit(Update update) {
+        updates.offer(update);
+        if (closed) {
+            drain();
+        } else if (parked) {
+            LockSupport.unpark(aggregator);
+        }
+    }
+
+    private void run() {
+        while (!closed) {
+            drain();
+            parked = true;
+            if (updates.isEmpty() && !closed) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            parked = false;
+        }
+    }
+
+    private synchronized void drain() {
+        Update update = updates.poll();
+        if (update == null) {
+            return;
+        }
+        while (update != null) {
+            apply(update);
+            update = updates.poll();
+        }
+        if (approximateProfits != null) {
+            List<Map.Entry<String, Long>> topVolume = approximateVolume.top(TOP_CLIENTS).stream()
+                    .<Map.Entry<String, Long>>map(e -> new AbstractMap.SimpleImmutableEntry<>(e.getKey(), Math.round(e.getValue())))
+                    .toList();
+            snapshot = new AggregateSnapshot(sequence, processed, amount, profitLoss,
+                    approximateProfits.top(TOP_CLIENTS), approximateLosses.top(TOP_CLIENTS), topVolume);
+        } else {
+            snapshot = new AggregateSnapshot(sequence, processed, amount, profitLoss,
+                    topWinners.toList(), topLosers.toList(), List.of());
+        }
+    }
+
+    private void apply(Update update) {
+        update.appliedAt = ++sequence;
+        processed += update.processed;
+        amount += update.amount;
+        profitLoss += update.profitLoss;
+        if (approximateProfits == null) {
+            update.profits.forEach((client, profit) -> topWinners.add(client, profit));
+            update.losses.forEach((client, loss) -> topLosers.add(client, loss));
+            return;
+        }
+        update.profits.forEach((client, profit) -> {
+            if (client != null) {
+                approximateProfits.add(client, profit);
+            }
+        });
+        update.losses.forEach((client, loss) -> {
+            if (client != null) {
+                approximateLosses.add(client, loss);
+            }
+        });
+        if (update.volumeClient != null) {
+            approximateVolume.add(update.volumeClient, 1);
+        }
+    }
+
+    private static final class Update implements Receipt {
+        // written once by the aggregator, read by alert watches deciding whether a seed already holds the update
+        private volatile long appliedAt;
+        private long processed;
+        private double amount;
+        private double profitLoss;
+        private Map<String, Double> profits = Collections.emptyMap();
+        private Map<String, Double> losses = Collections.emptyMap();
+        private String volumeClient;
+
+        @Override
+        public long appliedAt() {
+            return appliedAt;
+        }
+    }
+
+    /**
+     * Incrementally maintained top-N of a per-client total. Totals only grow in practice, so a client
+     * can only enter the ranking when it is updated; a decrease falls back to a full recount.
+     */
+    private static final class TopClients {
+        private final Map<String, Double> totals;
+        private final List<Map.Entry<String, Double>> top = new ArrayList<>(TOP_CLIENTS + 1);
+
+        private TopClients(Map<String, Double> totals) {
+            this.totals = totals;
+        }
+
+        private void add(String client, double delta) {
+            if (client == null) {
+                return;
+            }
+            double value = totals.merge(client, delta, Double::sum);
+            int index = indexOf(client);
+            if (delta < 0 && index >= 0) {
+                recount();
+                return;
+            }
+            if (index >= 0) {
+                top.set(index, new AbstractMap.SimpleImmutableEntry<>(client, value));
+            } else if (top.size() < TOP_CLIENTS || value > top.get(top.size() - 1).getValue()) {
+                top.add(new AbstractMap.SimpleImmutableEntry<>(client, value));
+            } else {
+                return;
+            }
+            top.sort((e1, e2) -> Double.compare(e2.getValue(), e1.getValue()));
+            if (top.size() > TOP_CLIENTS) {
+                top.remove(TOP_CLIENTS);
+            }
+        }
+
+        private int indexOf(String client) {
+            for (int i = 0; i < top.size(); i++) {
+                if (top.get(i).getKey().equals(client)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void recount() {
+            top.clear();
+            totals.entrySet().stream()
+                    .sorted((e1, e2) -> Double.compare(e2.getValue(), e1.getValue()))
+                    .limit(TOP_CLIENTS)
+                    .forEach(e -> top.add(new AbstractMap.SimpleImmutableEntry<>(e.getKey(), e.getValue())));
+        }
+
+        private List<Map.Entry<String, Double>> toList() {
+            return List.copyOf(top);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ClientResultConsumer {
+        void accept(String client, double profit, double loss);
+    }
+
+    /**
+     * A recorded update, as seen by whoever recorded it.
+     */
+    public interface Receipt {
+        /**
+         * The ledger sequence that applied the update, 0 while it is still queued.
+         */
+        long appliedAt();
+    }
+
+    @FunctionalInterface
+    public interface LossSeed {
+        void accept(double loss, long sequence);
+    }
+}
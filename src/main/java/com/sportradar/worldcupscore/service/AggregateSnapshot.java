@@ -0,0 +1,67 @@
+package com.sportradar.worldcupscore.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable aggregate state as of one point in the processing order: every bet counted in
+ * {@code processed} is also reflected in the amounts and client rankings, and nothing later is.
+ */
+public final class AggregateSnapshot {
+
+    static final AggregateSnapshot EMPTY = new AggregateSnapshot(0, 0, 0, 0, List.of(), List.of(), List.of());
+
+    private final long sequence;
+    private final long processed;
+    private final double amount;
+    private final double profitLoss;
+    private final List<Map.Entry<String, Double>> topWinners;
+    private final List<Map.Entry<String, Double>> topLosers;
+    private final List<Map.Entry<String, Long>> topVolume;
+
+    AggregateSnapshot(long sequence, long processed, double amount, double profitLoss,
+                      List<Map.Entry<String, Double>> topWinners, List<Map.Entry<String, Double>> topLosers,
+                      List<Map.Entry<String, Long>> topVolume) {
+        this.sequence = sequence;
+        this.processed = processed;
+        this.amount = amount;
+        this.profitLoss = profitLoss;
+        this.topWinners = topWinners;
+        this.topLosers = topLosers;
+        this.topVolume = topVolume;
+    }
+
+    /**
+     * Number of ledger updates this snapshot includes.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public double getProfitLoss() {
+        return profitLoss;
+    }
+
+    public List<Map.Entry<String, Double>> getTopWinners() {
+        return topWinners;
+    }
+
+    public List<Map.Entry<String, Double>> getTopLosers() {
+        return topLosers;
+    }
+
+    /**
+     * Clients with the most bets placed; only ranked in APPROXIMATE client-stats mode, empty otherwise.
+     */
+    public List<Map.Entry<String, Long>> getTopVolume() {
+        return topVolume;
+    }
+}
@@ -0,0 +1,356 @@
+package com.sportradar.worldcupscore.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.sportradar.worldcupscore.model.Alert;
+import com.sportradar.worldcupscore.model.AlertDirection;
+import com.sportradar.worldcupscore.model.AlertRule;
+import com.sportradar.worldcupscore.model.AlertScope;
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import com.sportradar.worldcupscore.util.Messages;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Threshold rules evaluated as bets are applied. Only watched keys are tracked: a bet whose selection and
+ * client have no rule costs one failed hash lookup each, and a bet that moves a watched value only checks
+ * the rules on that value. Alerts fire once when the value crosses the threshold and re-arm when it
+ * crosses back; they are delivered to subscribers and the webhook on a separate thread.
+ * <p>
+ * A key watched for the first time is seeded from the current state without stopping the workers. A selection
+ * is summed one {@link OpenBetStore} stripe at a time, and liability changes reach the watch inside the stripe's
+ * lock only once that stripe is summed. A client's loss is read from the {@link AggregateLedger} together with
+ * the ledger sequence it covers; losses recorded meanwhile are parked on the watch and kept only when the
+ * ledger applied them after that sequence.
+ */
+public class AlertEngine implements OpenBetStore.StripeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertEngine.class);
+    private static final AlertRule[] NO_RULES = new AlertRule[0];
+    private static final int ALL_STRIPES = (1 << OpenBetStore.STRIPES) - 1;
+    // ends a watch's parked losses once its seed is in
+    private static final Parked SEALED = new Parked(0, null, null);
+
+    private final AtomicLong nextRuleId = new AtomicLong();
+    private final Map<Long, AlertRule> rules = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Watch> selections = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Watch> clients = new ConcurrentHashMap<>();
+    // always maintained, so total rules start from the real value
+    private final Watch total = new Watch(0);
+    private final List<Consumer<Alert>> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService delivery = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "bet-alerts");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final OpenBetStore openBets;
+    private final AggregateLedger ledger;
+    private final URI webhook;
+    private final HttpClient httpClient;
+    private final ObjectMapper mapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    /**
+     * Selection rules are seeded from {@code openBets} and client rules from {@code ledger}; the store must report
+     * its changes to this engine through {@link OpenBetStore#setListener}.
+     *
+     * @param webhook where every alert is POSTed as JSON, or {@code null}
+     */
+    public AlertEngine(URI webhook, OpenBetStore openBets, AggregateLedger ledger) {
+        this.openBets = openBets;
+        this.ledger = ledger;
+        this.webhook = webhook;
+        this.httpClient = webhook == null ? null : HttpClient.newHttpClient();
+    }
+
+    /**
+     * Adds a rule; a key nobody watched yet is seeded from its current value, the total is always tracked.
+     */
+    public synchronized AlertRule addRule(AlertScope scope, String key, double threshold, AlertDirection direction) {
+        if (scope != AlertScope.TOTAL_PROFIT_LOSS && (key == null || key.isBlank())) {
+            throw new IllegalArgumentException(String.format(Locale.ROOT, Messages.ALERT_KEY_REQUIRED, scope));
+        }
+        if (scope == AlertScope.SELECTION_LIABILITY && key.split("/", -1).length != 3) {
+            throw new IllegalArgumentException(String.format(Locale.ROOT, Messages.ALERT_SELECTION_KEY, key));
+        }
+        AlertRule rule = new AlertRule(nextRuleId.incrementAndGet(), scope,
+                scope == AlertScope.TOTAL_PROFIT_LOSS ? null : key, threshold, direction);
+        Watch watch = switch (scope) {
+            case SELECTION_LIABILITY -> selections.containsKey(key) ? selections.get(key) : watchSelection(key);
+            case CLIENT_LOSS -> clients.containsKey(key) ? clients.get(key) : watchClient(key);
+            case TOTAL_PROFIT_LOSS -> total;
+        };
+        AlertRule[] watching = Arrays.copyOf(watch.rules, watch.rules.length + 1);
+        watching[watching.length - 1] = rule;
+        watch.rules = watching;
+        rules.put(rule.getId(), rule);
+        return rule;
+    }
+
+    public synchronized boolean removeRule(long id) {
+        AlertRule rule = rules.remove(id);
+        if (rule == null) {
+            return false;
+        }
+        Map<String, Watch> watches = switch (rule.getScope()) {
+            case SELECTION_LIABILITY -> selections;
+            case CLIENT_LOSS -> clients;
+            case TOTAL_PROFIT_LOSS -> null;
+        };
+        Watch watch = watches == null ? total : watches.get(rule.getKey());
+        watch.rules = Arrays.stream(watch.rules).filter(r -> r.getId() != id).toArray(AlertRule[]::new);
+        if (watches != null && watch.rules.length == 0) {
+            // nobody watches the key any more, stop tracking it
+            watches.remove(rule.getKey());
+        }
+        return true;
+    }
+
+    public List<AlertRule> getRules() {
+        List<AlertRule> list = new ArrayList<>(rules.values());
+        list.sort(Comparator.comparingLong(AlertRule::getId));
+        return list;
+    }
+
+    public void subscribe(Consumer<Alert> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(Consumer<Alert> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    @Override
+    public void added(int stripe, Bet bet) {
+        changeLiability(stripe, bet, liability(bet));
+    }
+
+    @Override
+    public void removed(int stripe, Bet bet) {
+        changeLiability(stripe, bet, -liability(bet));
+    }
+
+    /**
+     * A settled bet; {@code recorded} is its update in the ledger, which seeds client rules.
+     */
+    public void settled(Bet bet, double result, AggregateLedger.Receipt recorded) {
+        total.add(result, bet);
+        if (bet.getStatus() == BetStatus.LOSER && bet.getClient() != null && !clients.isEmpty()) {
+            Watch watch = clients.get(bet.getClient());
+            if (watch != null) {
+                watch.lost(bet.getAmount(), bet, recorded);
+            }
+        }
+    }
+
+    public void close() {
+        delivery.shutdown();
+        try {
+            delivery.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static String selectionKey(Bet bet) {
+        return bet.getEvent() + "/" + bet.getMarket() + "/" + bet.getSelection();
+    }
+
+    static double liability(Bet bet) {
+        return bet.getAmount() * (bet.getOdds() - 1);
+    }
+
+    private void changeLiability(int stripe, Bet bet, double delta) {
+        if (!selections.isEmpty()) {
+            Watch watch = selections.get(selectionKey(bet));
+            // a stripe not summed yet still counts this change in its share
+            if (watch != null && (watch.seededStripes & (1 << stripe)) != 0) {
+                watch.add(delta, bet);
+            }
+        }
+    }
+
+    // callers hold the engine's lock, so no other seed runs and the watch has no rules while it fills
+    private Watch watchSelection(String key) {
+        Watch watch = new Watch(0);
+        watch.seededStripes = 0;
+        selections.put(key, watch);
+        String[] parts = key.split("/", -1);
+        openBets.selectionLiability(parts[0], parts[1], parts[2], (stripe, liability) -> {
+            watch.shift(liability);
+            watch.seededStripes |= 1 << stripe;
+        });
+        return watch;
+    }
+
+    private Watch watchClient(String client) {
+        Watch watch = new Watch(0);
+        watch.parked.set(null);
+        clients.put(client, watch);
+        ledger.seedLoss(client, watch::seal);
+        return watch;
+    }
+
+    private void fire(AlertRule rule, double value, Bet bet) {
+        Alert alert = new Alert(rule, value, bet.getId(), Instant.now());
+        try {
+            delivery.execute(() -> deliver(alert));
+        } catch (RejectedExecutionException e) {
+            // shutting down, nobody is listening any more
+        }
+    }
+
+    private void deliver(Alert alert) {
+        AlertRule rule = alert.getRule();
+        logger.info(Messages.ALERT_TRIGGERED, rule.getId(), rule.getScope(), rule.getKey(), rule.getDirection(),
+                rule.getThreshold(), alert.getValue(), alert.getBetId());
+        for (Consumer<Alert> subscriber : subscribers) {
+            try {
+                subscriber.accept(alert);
+            } catch (RuntimeException e) {
+                logger.warn(Messages.ALERT_DELIVERY_FAILED, rule.getId(), e.getMessage());
+            }
+        }
+        if (webhook != null) {
+            post(alert);
+        }
+    }
+
+    private void post(Alert alert) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(webhook)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(alert)))
+                    .build();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            logger.warn(Messages.ALERT_DELIVERY_FAILED, alert.getRule().getId(), error.getMessage());
+                        } else if (response.statusCode() >= 300) {
+                            logger.warn(Messages.ALERT_DELIVERY_FAILED, alert.getRule().getId(), "HTTP " + response.statusCode());
+                        }
+                    });
+        } catch (JsonProcessingException e) {
+            logger.warn(Messages.ALERT_DELIVERY_FAILED, alert.getRule().getId(), e.getMessage());
+        }
+    }
+
+    private static boolean crossed(AlertRule rule, double before, double after) {
+        if (rule.getDirection() == AlertDirection.ABOVE) {
+            return before < rule.getThreshold() && after >= rule.getThreshold();
+        }
+        return before > rule.getThreshold() && after <= rule.getThreshold();
+    }
+
+    /**
+     * One watched value, updated lock-free so every change sees its exact before and after.
+     */
+    private final class Watch {
+        private final AtomicLong bits;
+        private volatile AlertRule[] rules = NO_RULES;
+        // selection watches: bit per store stripe already summed into the value, written by the seeding thread only
+        private volatile int seededStripes = ALL_STRIPES;
+        // client watches: losses recorded while the seed is read, SEALED once it is in
+        private final AtomicReference<Parked> parked = new AtomicReference<>(SEALED);
+        // last ledger sequence the seed covers, written before parked is sealed
+        private volatile long seededThrough;
+
+        private Watch(double initial) {
+            this.bits = new AtomicLong(Double.doubleToRawLongBits(initial));
+        }
+
+        private void add(double delta, Bet bet) {
+            double before = shift(delta);
+            double after = before + delta;
+            for (AlertRule rule : rules) {
+                if (crossed(rule, before, after)) {
+                    fire(rule, after, bet);
+                }
+            }
+        }
+
+        // adds delta and returns the value it replaced
+        private double shift(double delta) {
+            long previous;
+            long next;
+            do {
+                previous = bits.get();
+                next = Double.doubleToRawLongBits(Double.longBitsToDouble(previous) + delta);
+            } while (!bits.compareAndSet(previous, next));
+            return Double.longBitsToDouble(previous);
+        }
+
+        private void lost(double amount, Bet bet, AggregateLedger.Receipt recorded) {
+            while (true) {
+                Parked head = parked.get();
+                if (head == SEALED) {
+                    if (appliedAfterSeed(recorded, seededThrough)) {
+                        add(amount, bet);
+                    }
+                    return;
+                }
+                if (parked.compareAndSet(head, new Parked(amount, recorded, head))) {
+                    return;
+                }
+            }
+        }
+
+        // runs inside the ledger's lock, so no parked loss is applied while it is sorted out
+        private void seal(double loss, long sequence) {
+            seededThrough = sequence;
+            double value = loss;
+            for (Parked entry = parked.getAndSet(SEALED); entry != null; entry = entry.next) {
+                if (appliedAfterSeed(entry.recorded, sequence)) {
+                    value += entry.amount;
+                }
+            }
+            shift(value);
+        }
+    }
+
+    private static boolean appliedAfterSeed(AggregateLedger.Receipt recorded, long seededThrough) {
+        long appliedAt = recorded.appliedAt();
+        return appliedAt == 0 || appliedAt > seededThrough;
+    }
+
+    /**
+     * A loss recorded while its client's watch waited for the seed.
+     */
+    private static final class Parked {
+        private final double amount;
+        private final AggregateLedger.Receipt recorded;
+        private final Parked next;
+
+        private Parked(double amount, AggregateLedger.Receipt recorded, Parked next) {
+            this.amount = amount;
+            this.recorded = recorded;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.sportradar.worldcupscore.service;
+
+/**
+ * Priority classes used when {@code bet.processor.lanes.enabled} is set, highest first.
+ */
+public enum BetLane {
+    SETTLEMENT, HIGH_STAKE, STANDARD;
+}
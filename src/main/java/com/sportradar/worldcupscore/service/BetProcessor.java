@@ -1,8 +1,26 @@
 package com.sportradar.worldcupscore.service;
 
 
+import com.sportradar.worldcupscore.exception.InvalidTransitionException;
+import com.sportradar.worldcupscore.exception.RateLimitExceededException;
+import com.sportradar.worldcupscore.jfr.BetAggregationEvent;
+import com.sportradar.worldcupscore.jfr.BetDequeuedEvent;
+import com.sportradar.worldcupscore.jfr.BetEnqueuedEvent;
+import com.sportradar.worldcupscore.jfr.BetSettlementEvent;
+import com.sportradar.worldcupscore.jfr.BetValidationEvent;
+import com.sportradar.worldcupscore.model.Alert;
+import com.sportradar.worldcupscore.model.AlertDirection;
+import com.sportradar.worldcupscore.model.AlertRule;
+import com.sportradar.worldcupscore.model.AlertScope;
+import com.sportradar.worldcupscore.model.ArchiveQuery;
+import com.sportradar.worldcupscore.model.ArchiveReport;
 import com.sportradar.worldcupscore.model.Bet;
 import com.sportradar.worldcupscore.model.BetStatus;
+import com.sportradar.worldcupscore.model.BetUpdateStatus;
+import com.sportradar.worldcupscore.model.ClientPortfolio;
+import com.sportradar.worldcupscore.model.DistributionSummary;
+import com.sportradar.worldcupscore.model.LagReport;
+import com.sportradar.worldcupscore.model.MarketSettlement;
 import com.sportradar.worldcupscore.util.Messages;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
@@ -10,12 +28,21 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 @Service
 public class BetProcessor {
@@ -25,37 +52,312 @@ public class BetProcessor {
     @Value("${bet.processor.workers:4}")
     private int numberOfWorkers;
 
-    private final BlockingQueue<Bet> betQueue = new LinkedBlockingQueue<>();
+    @Value("${bet.processor.lanes.enabled:false}")
+    private boolean lanesEnabled;
+
+    // SETTLEMENT, HIGH_STAKE, STANDARD
+    @Value("${bet.processor.lanes.weights:4,2,1}")
+    private int[] laneWeights = {4, 2, 1};
+
+    @Value("${bet.processor.lanes.high-stake-threshold:1000}")
+    private double highStakeThreshold = 1000;
+
+    @Value("${bet.processor.work-stealing.enabled:false}")
+    private boolean workStealingEnabled;
+
+    @Value("${bet.processor.work-stealing.groups-per-worker:16}")
+    private int groupsPerWorker = 16;
+
+    // settle -> apply -> audit stages with their own pools instead of one worker doing everything
+    @Value("${bet.processor.pipeline.enabled:false}")
+    private boolean pipelineEnabled;
+
+    @Value("${bet.processor.pipeline.settle.threads:5}")
+    private int settleThreads = 5;
+
+    @Value("${bet.processor.pipeline.settle.batch-size:1}")
+    private int settleBatchSize = 1;
+
+    @Value("${bet.processor.pipeline.apply.threads:1}")
+    private int applyThreads = 1;
+
+    @Value("${bet.processor.pipeline.apply.batch-size:64}")
+    private int applyBatchSize = 64;
+
+    @Value("${bet.processor.pipeline.audit.threads:1}")
+    private int auditThreads = 1;
+
+    @Value("${bet.processor.pipeline.audit.batch-size:256}")
+    private int auditBatchSize = 256;
+
+    @Value("${bet.processor.ingestion.max-queued:10000}")
+    private int ingestionMaxQueued = 10000;
+
+    private PipelineStage<Bet> settleStage;
+    private PipelineStage<StagedBet> applyStage;
+    // only when the archive is enabled, it is the only thing audited
+    private PipelineStage<ArchivedBet> auditStage;
+
+    @Value("${bet.processor.reorder.window-ms:0}")
+    private long reorderWindowMillis;
+
+    @Value("${bet.processor.reorder.tick-ms:10}")
+    private long reorderTickMillis = 10;
+
+    @Value("${bet.processor.reorder.capacity:10000}")
+    private int reorderCapacity = 10000;
+
+    @Value("${bet.processor.rate-limit.enabled:false}")
+    private boolean rateLimitEnabled;
+
+    @Value("${bet.processor.rate-limit.per-second:50}")
+    private double rateLimitPerSecond = 50;
+
+    @Value("${bet.processor.rate-limit.burst:100}")
+    private int rateLimitBurst = 100;
+
+    @Value("${bet.processor.rate-limit.idle-ms:60000}")
+    private long rateLimitIdleMillis = 60000;
+
+    private ClientRateLimiter rateLimiter;
+
+    @Value("${bet.processor.precheck.enabled:false}")
+    private boolean precheckEnabled;
+
+    private TransitionPrecheck precheck;
+
+    @Value("${bet.processor.tracking.capacity:100000}")
+    private int trackingCapacity = 100000;
+
+    private CompletionRegistry completions = new CompletionRegistry(trackingCapacity);
+
+    private BlockingQueue<Bet> betQueue = new LinkedBlockingQueue<>();
+    private WorkStealingDispatcher dispatcher;
+    private ReorderBuffer reorderBuffer;
 
     private ExecutorService executor;
     private volatile boolean isShutdown = false;
 
+    // overflow tier behind the plain FIFO queue; empty keeps every queued bet on the heap
+    @Value("${bet.processor.spill.dir:}")
+    private String spillDir = "";
+
+    @Value("${bet.processor.spill.memory-bets:100000}")
+    private int spillMemoryBets = 100000;
+
+    @Value("${bet.processor.spill.segment-bytes:67108864}")
+    private int spillSegmentBytes = 67108864;
+
+    private SpillingBetQueue spillQueue;
+
+    // shared with the other tenants' processors, null when processing is not budgeted
+    private volatile ThreadBudget threadBudget;
+    // the key this processor's workers queue under in the thread budget; empty for the default processor
+    private String tenant = "";
+
+    // only bets that can still change live here; settled ids are moved to the bitmap
     private final ConcurrentHashMap<Integer, BetStatus> betStatusMap = new ConcurrentHashMap<>();
+    // final status of each settled id, one bitmap per status, written by the update that actually settled it;
+    // an id is settled when any of them holds it
+    private final Map<BetStatus, SettledBetBitmap> settledByStatus = Map.of(
+            BetStatus.WINNER, new SettledBetBitmap(),
+            BetStatus.LOSER, new SettledBetBitmap(),
+            BetStatus.VOID, new SettledBetBitmap());
+
+    // totals and per-client results, applied by one aggregator thread and read through snapshots
+    // replaced by an approximate ledger in initialize() when client-stats.mode is APPROXIMATE
+    private AggregateLedger ledger = new AggregateLedger();
+
+    // threshold rules on liabilities, client losses and the total, evaluated as bets are applied;
+    // selection liabilities are reported by the open-bet store itself
+    private AlertEngine alerts;
+
+    // empty means alerts are only streamed
+    @Value("${bet.processor.alerts.webhook-url:}")
+    private String alertsWebhookUrl = "";
+
+    @Value("${bet.processor.client-stats.mode:EXACT}")
+    private ClientStatsMode clientStatsMode = ClientStatsMode.EXACT;
 
-    private final AtomicInteger totalProcessed = new AtomicInteger(0);
-    private final DoubleAdder totalAmount = new DoubleAdder();
-    private final DoubleAdder totalProfitLoss = new DoubleAdder();
+    // relative overcount bound of the Count-Min estimates, and the probability of exceeding it
+    @Value("${bet.processor.client-stats.epsilon:0.0001}")
+    private double clientStatsEpsilon = 0.0001;
 
-    private final ConcurrentHashMap<String, DoubleAdder> profitPerClient = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, DoubleAdder> lossPerClient = new ConcurrentHashMap<>();
+    @Value("${bet.processor.client-stats.delta:0.001}")
+    private double clientStatsDelta = 0.001;
 
-    private final List<Bet> reviewBets = Collections.synchronizedList(new ArrayList<>());
+    @Value("${bet.processor.client-stats.heavy-hitters:100}")
+    private int heavyHitters = 100;
+
+    // open bets in columnar form; portfolios and market settlement read them back from here
+    private final OpenBetStore openBets = new OpenBetStore();
+    // replaced in initialize() when client-stats.mode is APPROXIMATE: realised results then come from the ledger
+    private ClientPortfolioIndex clientPortfolios = new ClientPortfolioIndex(openBets);
+    private final MarketDistributions marketDistributions = new MarketDistributions();
+
+    @Value("${bet.processor.review.capacity:100000}")
+    private int reviewCapacity = 100000;
+
+    @Value("${bet.processor.review.reconcile:true}")
+    private boolean reconcileReviews = true;
+
+    // empty keeps settled bets out of the archive
+    @Value("${bet.processor.archive.dir:}")
+    private String archiveDir = "";
+
+    @Value("${bet.processor.archive.segment-rows:1048576}")
+    private int archiveSegmentRows = 1 << 20;
+
+    private SettledBetArchive archive;
+
+    @Value("${bet.processor.lag.slowest:10}")
+    private int lagSlowest = 10;
+
+    @Value("${bet.processor.lag.window-ms:60000}")
+    private long lagWindowMillis = 60000;
+
+    private LagTracker lagTracker = new LagTracker(lagSlowest, lagWindowMillis);
+
+    private ReviewRegistry reviewBets = new ReviewRegistry(reviewCapacity);
+    private ExecutorService reconciler;
+    private final LongAdder reconciledBets = new LongAdder();
 
 
     @PostConstruct
     public void initialize() {
+        if (clientStatsMode == ClientStatsMode.APPROXIMATE) {
+            ledger = new AggregateLedger(clientStatsEpsilon, clientStatsDelta, heavyHitters);
+            clientPortfolios = new ClientPortfolioIndex(openBets, false);
+        }
+        ledger.start();
+        alerts = new AlertEngine(alertsWebhookUrl.isBlank() ? null : URI.create(alertsWebhookUrl), openBets, ledger);
+        openBets.setListener(alerts);
+        lagTracker = new LagTracker(lagSlowest, lagWindowMillis);
+        completions = new CompletionRegistry(trackingCapacity);
+        if (!archiveDir.isBlank()) {
+            archive = new SettledBetArchive(Path.of(archiveDir), archiveSegmentRows);
+            try {
+                archive.open();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        reviewBets = new ReviewRegistry(reviewCapacity);
+        if (reconcileReviews) {
+            reconciler = Executors.newSingleThreadExecutor();
+        }
+        if (rateLimitEnabled) {
+            rateLimiter = new ClientRateLimiter(rateLimitPerSecond, rateLimitBurst, rateLimitIdleMillis);
+            rateLimiter.start();
+        }
+        if (reorderWindowMillis > 0) {
+            reorderBuffer = new ReorderBuffer(reorderWindowMillis, reorderTickMillis, reorderCapacity, this::flagForReview);
+            reorderBuffer.start();
+        }
+        if (precheckEnabled) {
+            precheck = new TransitionPrecheck(betStatusMap::get, this::isSettled, reorderBuffer != null);
+        }
+        if (workStealingEnabled) {
+            // the dispatcher replaces the shared queue, so nothing built on that queue applies
+            if (lanesEnabled) {
+                logger.warn(Messages.WORK_STEALING_IGNORES, "bet.processor.lanes.enabled");
+            }
+            if (!spillDir.isBlank()) {
+                logger.warn(Messages.WORK_STEALING_IGNORES, "bet.processor.spill.dir");
+            }
+            if (pipelineEnabled) {
+                logger.warn(Messages.WORK_STEALING_IGNORES, "bet.processor.pipeline.enabled");
+            }
+        } else if (lanesEnabled) {
+            betQueue = new PriorityLaneQueue(this::laneOf, laneWeights);
+        } else if (!spillDir.isBlank()) {
+            spillQueue = new SpillingBetQueue(Path.of(spillDir), spillMemoryBets, spillSegmentBytes);
+            try {
+                spillQueue.open();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (!spillQueue.isEmpty()) {
+                logger.info(Messages.SPILL_RECOVERED, spillQueue.size(), spillDir);
+            }
+            betQueue = spillQueue;
+        }
+        if (pipelineEnabled && !workStealingEnabled) {
+            // the stages bring their own threads, bet.processor.workers does not apply
+            startPipeline();
+            return;
+        }
         executor = Executors.newFixedThreadPool(numberOfWorkers);
+        if (workStealingEnabled) {
+            dispatcher = new WorkStealingDispatcher(numberOfWorkers, groupsPerWorker);
+            for (int i = 0; i < numberOfWorkers; i++) {
+                int index = i;
+                executor.submit(() -> processStolenBets(index));
+            }
+            return;
+        }
         for (int i = 0; i < numberOfWorkers; i++) {
             executor.submit(this::processBets);
         }
     }
 
-    public void addBet(Bet bet) {
+    /**
+     * Makes a fresh instance, before {@link #initialize()}, the processor of one tenant: it gets its own
+     * worker count and keeps its archive and spill files in subdirectories named after the tenant.
+     */
+    public void assignTenant(String tenant, int workers) {
+        this.tenant = tenant;
+        numberOfWorkers = workers;
+        if (!archiveDir.isBlank()) {
+            archiveDir = Path.of(archiveDir, tenant).toString();
+        }
+        if (!spillDir.isBlank()) {
+            spillDir = Path.of(spillDir, tenant).toString();
+        }
+    }
+
+    /**
+     * Limits how many bets are processed at once across every processor sharing {@code budget}.
+     */
+    public void setThreadBudget(ThreadBudget budget) {
+        this.threadBudget = budget;
+    }
+
+    /**
+     * Queues the bet and returns the token to follow its outcome with, or 0 if it was not accepted.
+     */
+    public long addBet(Bet bet) {
+        if (rateLimiter != null && !rateLimiter.tryAcquire(bet.getClient())) {
+            throw new RateLimitExceededException(String.format(Locale.ROOT, Messages.RATE_LIMITED, bet.getClient(), bet.getId()));
+        }
         if (!isShutdown) {
-            betQueue.offer(bet);
-        } else {
-            logger.info(Messages.SHUTTING_DOWN);
+            if (precheck != null) {
+                String reason = precheck.admit(bet);
+                if (reason != null) {
+                    throw new InvalidTransitionException(reason);
+                }
+            }
+            long token = completions.register(bet);
+            // the only place a bet is stamped; copies made later keep this stamp
+            Bet tracked = bet.ingested(System.nanoTime(), token);
+            if (dispatcher != null) {
+                dispatcher.submit(tracked);
+            } else {
+                betQueue.offer(tracked);
+            }
+            BetEnqueuedEvent.emit(tracked);
+            return token;
         }
+        logger.info(Messages.SHUTTING_DOWN);
+        return 0;
+    }
+
+    private BetLane laneOf(Bet bet) {
+        // a settlement only jumps ahead once its OPEN is applied, otherwise it stays behind it in its stake lane
+        if (bet.getStatus() != BetStatus.OPEN && betStatusMap.get(bet.getId()) == BetStatus.OPEN) {
+            return BetLane.SETTLEMENT;
+        }
+        return bet.getAmount() >= highStakeThreshold ? BetLane.HIGH_STAKE : BetLane.STANDARD;
     }
 
     private void processBets() {
@@ -63,47 +365,348 @@ public class BetProcessor {
             while (!isShutdown || !betQueue.isEmpty()) {
                 Bet bet = betQueue.poll(100, TimeUnit.MILLISECONDS);
                 if (bet != null) {
-                    // simulation process
-                    Thread.sleep(50);
-                    processBet(bet);
+                    handleBet(bet);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void startPipeline() {
+        if (archive != null) {
+            auditStage = new PipelineStage<>("audit", auditThreads, auditBatchSize, this::auditBatch);
+            auditStage.start();
+        }
+        applyStage = new PipelineStage<>("apply", applyThreads, applyBatchSize, this::applyBatch);
+        applyStage.start();
+        // the first stage reads the ingestion queue itself, so lanes and spilling still apply
+        settleStage = new PipelineStage<>("settle", settleThreads, settleBatchSize, betQueue, this::settleBatch);
+        settleStage.start();
+    }
+
+    // I/O-bound: one simulated external settlement call per batch
+    private void settleBatch(List<Bet> batch) throws InterruptedException {
+        long dequeuedAt = System.nanoTime();
+        for (Bet bet : batch) {
+            lagTracker.dequeued(bet, dequeuedAt);
+            BetDequeuedEvent.emit(bet, dequeuedAt);
+        }
+        ThreadBudget budget = threadBudget;
+        if (budget != null) {
+            budget.acquire(tenant);
+        }
+        try {
+            BetSettlementEvent settlement = new BetSettlementEvent();
+            settlement.begin();
+            Thread.sleep(50);
+            settlement.commit(batch.get(0), batch.size());
+        } finally {
+            if (budget != null) {
+                budget.release();
+            }
+        }
+        for (Bet bet : batch) {
+            applyStage.submit(new StagedBet(bet, dequeuedAt));
+        }
+    }
+
+    // CPU-bound: validation against the current state, transition, indexes and ledger updates
+    private void applyBatch(List<StagedBet> batch) {
+        for (StagedBet staged : batch) {
+            try {
+                processOrReview(staged.bet);
+            } finally {
+                if (precheck != null) {
+                    precheck.done(staged.bet);
                 }
             }
+            lagTracker.processed(staged.bet, staged.dequeuedAt, System.nanoTime());
+        }
+    }
+
+    private void auditBatch(List<ArchivedBet> batch) {
+        for (ArchivedBet archived : batch) {
+            appendToArchive(archived.bet, archived.result, archived.settledAt);
+        }
+    }
+
+    private void processStolenBets(int workerIndex) {
+        try {
+            dispatcher.runWorker(workerIndex, this::handleBet, () -> isShutdown);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
     }
 
-    private void processBet(Bet bet) {
+    private void handleBet(Bet bet) throws InterruptedException {
+        long dequeuedAt = System.nanoTime();
+        lagTracker.dequeued(bet, dequeuedAt);
+        BetDequeuedEvent.emit(bet, dequeuedAt);
+        ThreadBudget budget = threadBudget;
+        if (budget != null) {
+            budget.acquire(tenant);
+        }
+        try {
+            BetSettlementEvent settlement = new BetSettlementEvent();
+            settlement.begin();
+            // simulation process
+            Thread.sleep(50);
+            settlement.commit(bet, 1);
+            processOrReview(bet);
+        } finally {
+            if (budget != null) {
+                budget.release();
+            }
+            if (precheck != null) {
+                precheck.done(bet);
+            }
+        }
+        lagTracker.processed(bet, dequeuedAt, System.nanoTime());
+    }
+
+    // a worker applies the next bet even when this one blows up; the failed bet goes to review
+    private void processOrReview(Bet bet) {
+        try {
+            processBet(bet);
+        } catch (RuntimeException e) {
+            logger.warn(Messages.BET_FAILED, bet.getId(), bet.getStatus(), e);
+            flagForReview(bet);
+        }
+    }
+
+    private boolean processBet(Bet bet) {
+        BetValidationEvent validation = new BetValidationEvent();
+        validation.begin();
         BetStatus previousStatus = betStatusMap.get(bet.getId());
+        boolean settled = previousStatus == null && isSettled(bet.getId());
         boolean valid = false;
 
-        if (!isValidBet(bet, previousStatus, valid)) {
-            reviewBets.add(bet);
-            logger.info(Messages.BET_REVIEW, bet.getId(), bet.getStatus());
-            return;
+        if (previousStatus == null && !settled && bet.getStatus() != BetStatus.OPEN
+                && reorderBuffer != null && holdUntilOpen(bet)) {
+            validation.commit(bet, previousStatus, "HELD");
+            return true;
+        }
+
+        if (settled || !isValidBet(bet, previousStatus, valid) || !applyTransition(bet)) {
+            validation.commit(bet, previousStatus, BetUpdateStatus.REVIEW.name());
+            flagForReview(bet);
+            return false;
         }
+        validation.commit(bet, previousStatus, BetUpdateStatus.PROCESSED.name());
 
-        betStatusMap.put(bet.getId(), bet.getStatus());
+        BetAggregationEvent aggregation = new BetAggregationEvent();
+        aggregation.begin();
+        double result = 0;
+        if (bet.getStatus() == BetStatus.OPEN) {
+            // only when open the amount counts
+            ledger.record(bet, 0);
+            openBets.add(bet);
+            clientPortfolios.open(bet);
+        } else {
+            result = resultOf(bet);
+            Bet opened = openBets.remove(bet.getId());
+            // ledger, portfolio, alerts and archive all book the result to the client the bet was opened with
+            Bet booked = bookedToOpenClient(bet, opened);
+            AggregateLedger.Receipt recorded = ledger.record(booked, result);
+            clientPortfolios.settle(booked, opened, result);
+            alerts.settled(booked, result, recorded);
+            archive(booked, result, System.currentTimeMillis());
+        }
+        marketDistributions.record(bet);
+        aggregation.commit(bet, result);
 
-        totalProcessed.incrementAndGet();
+        logger.info(Messages.BET_PROCESSED, bet.getId());
+        completions.complete(bet, BetUpdateStatus.PROCESSED);
+        acknowledge(bet);
 
         if (bet.getStatus() == BetStatus.OPEN) {
-            // only when open
-            totalAmount.add(bet.getAmount());
+            if (reorderBuffer != null) {
+                reorderBuffer.release(bet.getId()).forEach(this::processBet);
+            }
+            if (reconciler != null && reviewBets.contains(bet.getId())) {
+                scheduleReconcile(bet.getId());
+            }
         }
+        return true;
+    }
 
-        double result;
+    private void scheduleReconcile(int id) {
+        try {
+            reconciler.execute(() -> reconcile(id));
+        } catch (RejectedExecutionException e) {
+            // shutting down, the bets simply stay in review
+        }
+    }
+
+    // re-runs the transition check for review bets of an id whose state just changed
+    private void reconcile(int id) {
+        for (Bet bet : reviewBets.removeAll(id)) {
+            if (processBet(bet)) {
+                reconciledBets.increment();
+                logger.info(Messages.BET_RECONCILED, bet.getId(), bet.getStatus());
+            }
+        }
+    }
+
+    private boolean holdUntilOpen(Bet bet) {
+        if (!reorderBuffer.hold(bet)) {
+            return false;
+        }
+        logger.info(Messages.BET_HELD, bet.getId(), bet.getStatus());
+        // the OPEN may have been applied while the bet was being parked, in which case nobody else releases it
+        if (betStatusMap.containsKey(bet.getId()) || isSettled(bet.getId())) {
+            reorderBuffer.release(bet.getId()).forEach(this::processBet);
+        }
+        return true;
+    }
+
+    private void flagForReview(Bet bet) {
+        reviewBets.add(bet);
+        completions.complete(bet, BetUpdateStatus.REVIEW);
+        acknowledge(bet);
+        logger.info(Messages.BET_REVIEW, bet.getId(), bet.getStatus());
+        // the OPEN may have been applied after this bet failed its check but before it was added, in which case
+        // the OPEN's own look at the review set missed it
+        if (reconciler != null && bet.getStatus() != null && bet.getStatus() != BetStatus.OPEN
+                && betStatusMap.get(bet.getId()) == BetStatus.OPEN) {
+            scheduleReconcile(bet.getId());
+        }
+    }
+
+    // a spilled bet is done once it is applied or in review; one held for its OPEN is not done yet
+    private void acknowledge(Bet bet) {
+        if (spillQueue != null) {
+            spillQueue.acknowledge(bet);
+        }
+    }
+
+    private void archive(Bet bet, double result, long settledAt) {
+        if (archive == null) {
+            return;
+        }
+        if (auditStage != null) {
+            auditStage.submit(new ArchivedBet(bet, result, settledAt));
+            return;
+        }
+        appendToArchive(bet, result, settledAt);
+    }
+
+    private void appendToArchive(Bet bet, double result, long settledAt) {
+        try {
+            archive.append(bet, result, settledAt);
+        } catch (UncheckedIOException e) {
+            logger.error(Messages.ARCHIVE_FAILED, bet.getId(), e.getMessage());
+        }
+    }
+
+    private static double resultOf(Bet bet) {
         if (bet.getStatus() == BetStatus.WINNER) {
-            result = bet.getAmount() * (bet.getOdds() - 1);
-            totalProfitLoss.add(result);
-            profitPerClient.computeIfAbsent(bet.getClient(), k -> new DoubleAdder()).add(result);
+            return bet.getAmount() * (bet.getOdds() - 1);
         } else if (bet.getStatus() == BetStatus.LOSER) {
-            result = -bet.getAmount();
-            totalProfitLoss.add(result);
-            lossPerClient.computeIfAbsent(bet.getClient(), k -> new DoubleAdder()).add(bet.getAmount());
+            return -bet.getAmount();
         }
+        return 0;
+    }
 
-        logger.info(Messages.BET_PROCESSED, bet.getId());
+    /**
+     * Settles every open bet of a market in one parallel pass, bypassing the queue and the settlement step.
+     * Bets already settled by a queued update are skipped; aggregates are applied once per client.
+     */
+    public MarketSettlement settleMarket(String event, String market, String winningSelection) {
+        List<Bet> marketBets = openBets.findByMarket(event, market);
+        if (marketBets.isEmpty()) {
+            return new MarketSettlement(event, market, winningSelection, 0, 0, 0, 0);
+        }
+        Consumer<Bet> distributions = marketDistributions.recorder(event, market);
+        long settledAt = System.currentTimeMillis();
+        SettlementTotals totals = marketBets.parallelStream()
+                .map(open -> settledCopy(open, winningSelection))
+                .filter(this::applyTransition)
+                .collect(SettlementTotals::new, (partial, bet) -> {
+                    distributions.accept(bet);
+                    double result = resultOf(bet);
+                    partial.add(bet, result);
+                    archive(bet, result, settledAt);
+                }, SettlementTotals::merge);
+
+        openBets.removeAll(Arrays.copyOf(totals.ids, totals.settled));
+
+        Map<String, Double> profits = new HashMap<>();
+        Map<String, Double> losses = new HashMap<>();
+        totals.perClient.forEach((client, settlement) -> {
+            clientPortfolios.settle(client, settlement.bets, settlement.result);
+            if (settlement.wins > 0) {
+                profits.put(client, settlement.profit);
+            }
+            if (settlement.losses > 0) {
+                losses.put(client, settlement.loss);
+            }
+        });
+        // one ledger update, so no snapshot shows half a market settled
+        AggregateLedger.Receipt recorded = ledger.recordBatch(totals.settled, totals.profitLoss, profits, losses);
+        for (Bet bet : totals.bets) {
+            alerts.settled(bet, resultOf(bet), recorded);
+        }
+        // callers read the summary right after the command returns
+        ledger.flush();
+
+        logger.info(Messages.MARKET_SETTLED, event, market, totals.settled, winningSelection);
+        return new MarketSettlement(event, market, winningSelection,
+                totals.settled, totals.winners, totals.losers, totals.profitLoss);
+    }
+
+    private static Bet bookedToOpenClient(Bet settlement, Bet opened) {
+        if (opened == null || Objects.equals(opened.getClient(), settlement.getClient())) {
+            return settlement;
+        }
+        return new Bet.BetBuilder()
+                .id(settlement.getId())
+                .amount(settlement.getAmount())
+                .odds(settlement.getOdds())
+                .client(opened.getClient())
+                .event(settlement.getEvent())
+                .market(settlement.getMarket())
+                .selection(settlement.getSelection())
+                .status(settlement.getStatus())
+                .build()
+                .ingested(settlement.getIngestedAtNanos(), settlement.getTrackingToken());
+    }
+
+    private static Bet settledCopy(Bet open, String winningSelection) {
+        return new Bet.BetBuilder()
+                .id(open.getId())
+                .amount(open.getAmount())
+                .odds(open.getOdds())
+                .client(open.getClient())
+                .event(open.getEvent())
+                .market(open.getMarket())
+                .selection(open.getSelection())
+                .status(Objects.equals(winningSelection, open.getSelection()) ? BetStatus.WINNER : BetStatus.LOSER)
+                .build();
+    }
+
+    private boolean applyTransition(Bet bet) {
+        if (bet.getStatus() == BetStatus.OPEN) {
+            return betStatusMap.putIfAbsent(bet.getId(), BetStatus.OPEN) == null;
+        }
+        // the final status claims the id in the hot map first, so only one update settles it, and the id stays
+        // there until its bitmap holds it, so readers always find it in one of them
+        if (!betStatusMap.replace(bet.getId(), BetStatus.OPEN, bet.getStatus())) {
+            return false;
+        }
+        settledByStatus.get(bet.getStatus()).add(bet.getId());
+        betStatusMap.remove(bet.getId(), bet.getStatus());
+        return true;
+    }
+
+    private boolean isSettled(int id) {
+        for (SettledBetBitmap outcomes : settledByStatus.values()) {
+            if (outcomes.contains(id)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private static boolean isValidBet(Bet bet, BetStatus previousStatus, boolean valid) {
@@ -123,13 +726,50 @@ public class BetProcessor {
 
     public void shutdownSystem() {
         isShutdown = true;
-        executor.shutdown();
-        try {
-            if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+        if (dispatcher != null) {
+            dispatcher.wakeAll();
+        }
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
                 executor.shutdownNow();
             }
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
+        }
+        if (settleStage != null) {
+            // upstream first, so each stage sees everything its predecessor produced
+            settleStage.close();
+            applyStage.close();
+        }
+        if (reorderBuffer != null) {
+            // nothing can release them any more
+            reorderBuffer.stop();
+        }
+        if (reconciler != null) {
+            reconciler.shutdown();
+            try {
+                reconciler.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (rateLimiter != null) {
+            rateLimiter.stop();
+        }
+        if (spillQueue != null) {
+            spillQueue.close();
+        }
+        ledger.close();
+        alerts.close();
+        if (auditStage != null) {
+            // after the reconciler, which can still settle bets
+            auditStage.close();
+        }
+        if (archive != null) {
+            archive.close();
         }
         logger.info(Messages.SHUTDOWN_COMPLETED);
         logger.info(getSummary());
@@ -138,32 +778,287 @@ public class BetProcessor {
     // Método para generar un resumen de las estadísticas procesadas
     public String getSummary() {
         StringBuilder sb = new StringBuilder();
-        sb.append(Messages.SUMMARY_HEADER_TOTAL_PROCESSED).append(totalProcessed.get()).append("\n");
-        sb.append(Messages.SUMMARY_HEADER_TOTAL_AMOUNT).append(totalAmount.sum()).append("\n");
-        sb.append(Messages.SUMMARY_HEADER_TOTAL_PROFIT_LOSS).append(totalProfitLoss.sum()).append("\n");
+        appendTotals(sb, ledger.snapshot());
 
-        sb.append(Messages.SUMMARY_HEADER_TOP_WINNERS + "\n");
-        profitPerClient.entrySet().stream()
-                .sorted((e1, e2) -> Double.compare(e2.getValue().sum(), e1.getValue().sum()))
-                .limit(5)
-                .forEach(e -> sb.append(e.getKey()).append(": ").append(e.getValue().sum()).append("\n"));
+        if (betQueue instanceof PriorityLaneQueue laneQueue) {
+            for (PriorityLaneQueue.LaneStats lane : laneQueue.getLaneStats()) {
+                sb.append(String.format(Locale.ROOT, Messages.SUMMARY_LANE, lane.getLane(), lane.getWeight(), lane.getDispatched(),
+                        lane.getQueued(), lane.getAverageWaitMillis(), lane.getMaxWaitMillis())).append("\n");
+            }
+        }
 
-        sb.append(Messages.SUMMARY_HEADER_TOP_LOSERS + "\n");
-        lossPerClient.entrySet().stream()
-                .sorted((e1, e2) -> Double.compare(e2.getValue().sum(), e1.getValue().sum()))
-                .limit(5)
-                .forEach(e -> sb.append(e.getKey()).append(": ").append(e.getValue().sum()).append("\n"));
+        for (PipelineStage.StageStats stage : getPipelineStats()) {
+            sb.append(String.format(Locale.ROOT, Messages.SUMMARY_STAGE, stage.getStage(), stage.getThreads(),
+                    stage.getBatchSize(), stage.getProcessed(), stage.getQueued(), stage.getAverageServiceMillis(),
+                    stage.getMaxServiceMillis())).append("\n");
+        }
+
+        if (spillQueue != null && spillQueue.getSpilled() > 0) {
+            sb.append(String.format(Locale.ROOT, Messages.SUMMARY_SPILL, spillQueue.getSpilled(), spillQueue.getOnDisk())).append("\n");
+        }
+
+        if (reorderBuffer != null) {
+            sb.append(String.format(Locale.ROOT, Messages.SUMMARY_REORDER, reorderBuffer.size(), reorderBuffer.getReleased(),
+                    reorderBuffer.getExpired(), reorderBuffer.getRejected(), reorderBuffer.getAverageWaitMillis(),
+                    reorderBuffer.getMaxWaitMillis())).append("\n");
+        }
 
         if (!reviewBets.isEmpty()) {
             sb.append(Messages.SUMMARY_HEADER_REVIEW).append(reviewBets.size()).append("\n");
         }
+        if (reconciledBets.sum() > 0) {
+            sb.append(Messages.SUMMARY_HEADER_RECONCILED).append(reconciledBets.sum()).append("\n");
+        }
+        if (precheck != null && precheck.getRejected() > 0) {
+            sb.append(Messages.SUMMARY_HEADER_PRECHECK).append(precheck.getRejected()).append("\n");
+        }
+        if (rateLimiter != null && rateLimiter.getRejected() > 0) {
+            sb.append(Messages.SUMMARY_HEADER_RATE_LIMITED).append(rateLimiter.getRejected()).append("\n");
+        }
         return sb.toString();
     }
 
+    // the summary lines shared with the offline replay
+    static void appendTotals(StringBuilder sb, AggregateSnapshot totals) {
+        sb.append(Messages.SUMMARY_HEADER_TOTAL_PROCESSED).append(totals.getProcessed()).append("\n");
+        sb.append(Messages.SUMMARY_HEADER_TOTAL_AMOUNT).append(totals.getAmount()).append("\n");
+        sb.append(Messages.SUMMARY_HEADER_TOTAL_PROFIT_LOSS).append(totals.getProfitLoss()).append("\n");
+
+        sb.append(Messages.SUMMARY_HEADER_TOP_WINNERS + "\n");
+        totals.getTopWinners().forEach(e -> sb.append(e.getKey()).append(": ").append(e.getValue()).append("\n"));
+
+        sb.append(Messages.SUMMARY_HEADER_TOP_LOSERS + "\n");
+        totals.getTopLosers().forEach(e -> sb.append(e.getKey()).append(": ").append(e.getValue()).append("\n"));
+
+        if (!totals.getTopVolume().isEmpty()) {
+            sb.append(Messages.SUMMARY_HEADER_TOP_VOLUME + "\n");
+            totals.getTopVolume().forEach(e -> sb.append(e.getKey()).append(": ").append(e.getValue()).append("\n"));
+        }
+    }
+
+    /**
+     * Adds a rule seeded from the current state while bets keep flowing. A CLIENT_LOSS rule in APPROXIMATE mode
+     * starts from the ledger's estimate, which may be above the client's true loss.
+     */
+    public AlertRule addAlertRule(AlertScope scope, String key, double threshold, AlertDirection direction) {
+        return alerts.addRule(scope, key, threshold, direction);
+    }
+
+    public boolean removeAlertRule(long id) {
+        return alerts.removeRule(id);
+    }
+
+    public List<AlertRule> getAlertRules() {
+        return alerts.getRules();
+    }
+
+    public void subscribeAlerts(Consumer<Alert> subscriber) {
+        alerts.subscribe(subscriber);
+    }
+
+    public void unsubscribeAlerts(Consumer<Alert> subscriber) {
+        alerts.unsubscribe(subscriber);
+    }
+
+    /**
+     * In APPROXIMATE mode only clients with open bets have a portfolio, and the realised result is the ledger's
+     * estimate.
+     */
+    public ClientPortfolio getClientPortfolio(String client) {
+        ClientPortfolio portfolio = clientPortfolios.snapshot(client);
+        if (portfolio == null || clientStatsMode != ClientStatsMode.APPROXIMATE) {
+            return portfolio;
+        }
+        return new ClientPortfolio(client, portfolio.getOpenBets(), portfolio.getOpenStake(),
+                portfolio.getPotentialLiability(), ledger.estimateResult(client));
+    }
+
+    public Map<String, DistributionSummary> getDistributions(double[] quantiles) {
+        return marketDistributions.summary(quantiles);
+    }
+
+    public Map<String, DistributionSummary> getDistributions(String event, String market, double[] quantiles) {
+        return marketDistributions.summary(event, market, quantiles);
+    }
+
+    /**
+     * Totals of archived settled bets matching the query, or null when the archive is disabled.
+     */
+    public ArchiveReport queryArchive(ArchiveQuery query) {
+        return archive == null ? null : archive.query(query);
+    }
+
     public List<Bet> getReviewBets() {
-        synchronized (reviewBets) {
-            return new ArrayList<>(reviewBets);
+        return reviewBets.toList();
+    }
+
+    /**
+     * The tracked update with {@code token}, or the latest one for the bet when token is null.
+     */
+    public CompletionRegistry.Tracked findTracking(int id, Long token) {
+        return completions.find(id, token);
+    }
+
+    /**
+     * Depth and service time of each pipeline stage in order; empty unless the pipeline is enabled.
+     */
+    public List<PipelineStage.StageStats> getPipelineStats() {
+        if (settleStage == null) {
+            return List.of();
+        }
+        List<PipelineStage.StageStats> stats = new ArrayList<>(3);
+        stats.add(settleStage.getStats());
+        stats.add(applyStage.getStats());
+        if (auditStage != null) {
+            stats.add(auditStage.getStats());
+        }
+        return stats;
+    }
+
+    public LagReport getLagReport() {
+        Bet oldest;
+        if (dispatcher != null) {
+            oldest = dispatcher.oldest();
+        } else {
+            oldest = betQueue instanceof PriorityLaneQueue laneQueue ? laneQueue.oldest() : betQueue.peek();
+        }
+        return lagTracker.report(oldest, getQueuedCount(), System.nanoTime());
+    }
+
+    /**
+     * Whether the bets left in the spill directory by an earlier run have all been processed again; always true
+     * without spilling. Readiness waits for this rather than for the bean to be initialized.
+     */
+    public boolean isRecovered() {
+        return spillQueue == null || spillQueue.isRecovered();
+    }
+
+    public int getQueuedCount() {
+        return dispatcher != null ? dispatcher.size() : betQueue.size();
+    }
+
+    /**
+     * Whether streaming ingestion may read more bets: false once {@code bet.processor.ingestion.max-queued}
+     * updates are waiting in memory, so the feeds are paused at the socket instead of growing the heap. Bets
+     * spilled to disk do not count: absorbing bursts there is what the spill directory is for.
+     */
+    public boolean hasCapacity() {
+        int queued = spillQueue != null ? spillQueue.getInMemory() : getQueuedCount();
+        return queued < ingestionMaxQueued;
+    }
+
+    // export visitors: each walks live state piece by piece instead of building a list
+
+    public void forEachOpenBet(Consumer<Bet> action) {
+        openBets.forEach(action);
+    }
+
+    /**
+     * Visits the ids settled with {@code status}: WINNER, LOSER or VOID.
+     */
+    public void forEachSettledId(BetStatus status, IntConsumer action) {
+        SettledBetBitmap outcomes = settledByStatus.get(status);
+        if (outcomes != null) {
+            outcomes.forEach(action);
+        }
+    }
+
+    public void forEachClientResult(AggregateLedger.ClientResultConsumer action) {
+        ledger.forEachClient(action);
+    }
+
+    public void forEachReviewBet(Consumer<Bet> action) {
+        reviewBets.forEach(action);
+    }
+
+    private static final class SettlementTotals {
+        private int settled;
+        private int winners;
+        private int losers;
+        private double profitLoss;
+        private int[] ids = new int[16];
+        private final List<Bet> bets = new ArrayList<>();
+        private final Map<String, ClientSettlement> perClient = new HashMap<>();
+
+        private void add(Bet bet, double result) {
+            if (settled == ids.length) {
+                ids = Arrays.copyOf(ids, settled * 2);
+            }
+            ids[settled++] = bet.getId();
+            bets.add(bet);
+            profitLoss += result;
+            if (bet.getStatus() == BetStatus.WINNER) {
+                winners++;
+            } else {
+                losers++;
+            }
+            if (bet.getClient() != null) {
+                perClient.computeIfAbsent(bet.getClient(), k -> new ClientSettlement()).add(bet, result);
+            }
+        }
+
+        private void merge(SettlementTotals other) {
+            ids = Arrays.copyOf(ids, Math.max(ids.length, settled + other.settled));
+            System.arraycopy(other.ids, 0, ids, settled, other.settled);
+            settled += other.settled;
+            bets.addAll(other.bets);
+            winners += other.winners;
+            losers += other.losers;
+            profitLoss += other.profitLoss;
+            other.perClient.forEach((client, settlement) -> perClient.merge(client, settlement, ClientSettlement::merge));
         }
     }
 
+    private static final class ClientSettlement {
+        private final List<Bet> bets = new ArrayList<>();
+        private double result;
+        private int wins;
+        private double profit;
+        private int losses;
+        private double loss;
+
+        private void add(Bet bet, double betResult) {
+            bets.add(bet);
+            result += betResult;
+            if (bet.getStatus() == BetStatus.WINNER) {
+                wins++;
+                profit += betResult;
+            } else {
+                losses++;
+                loss += bet.getAmount();
+            }
+        }
+
+        private ClientSettlement merge(ClientSettlement other) {
+            bets.addAll(other.bets);
+            result += other.result;
+            wins += other.wins;
+            profit += other.profit;
+            losses += other.losses;
+            loss += other.loss;
+            return this;
+        }
+    }
+
+    private static final class StagedBet {
+        private final Bet bet;
+        private final long dequeuedAt;
+
+        private StagedBet(Bet bet, long dequeuedAt) {
+            this.bet = bet;
+            this.dequeuedAt = dequeuedAt;
+        }
+    }
+
+    private static final class ArchivedBet {
+        private final Bet bet;
+        private final double result;
+        private final long settledAt;
+
+        private ArchivedBet(Bet bet, double result, long settledAt) {
+            this.bet = bet;
+            this.result = result;
+            this.settledAt = settledAt;
+        }
+    }
 }
@@ -0,0 +1,305 @@
+package com.sportradar.worldcupscore.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.sportradar.worldcupscore.model.BetStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Offline replay of a recorded NDJSON bet file (one {@code POST /api/bets} body per line) through the
+ * transition rules of {@link BetProcessor}, without queues, workers or the simulated processing time.
+ * The file is memory-mapped window by window and every window is parsed in parallel slices; updates are
+ * partitioned by bet id, so each partition applies its ids' transitions in file order on its own. A window's
+ * slices are replayed into the partitions' state before the next window is mapped, so only one window's parsed
+ * updates are held at a time, and the partition totals are merged at the end. Updates that break the rules are
+ * counted as review.
+ */
+public class BetReplay {
+
+    static final long WINDOW_BYTES = 1L << 30;
+    static final int MIN_SLICE_BYTES = 1 << 16;
+    private static final int SLICES_PER_THREAD = 4;
+    private static final int PARTITIONS_PER_THREAD = 4;
+    private static final int STATE_OPEN = 0;
+    private static final int STATE_SETTLED = 1;
+    private static final BetStatus[] STATUSES = BetStatus.values();
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final int parallelism;
+    private final int partitions;
+    private final long windowBytes;
+
+    public BetReplay(int parallelism) {
+        this(parallelism, WINDOW_BYTES);
+    }
+
+    BetReplay(int parallelism, long windowBytes) {
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.partitions = this.parallelism * PARTITIONS_PER_THREAD;
+        this.windowBytes = windowBytes;
+    }
+
+    public ReplayReport replay(Path file) throws IOException {
+        long startedAt = System.nanoTime();
+        StringDictionary clients = new StringDictionary();
+        Totals[] partitionTotals = new Totals[partitions];
+        IntIntHashMap[] partitionStates = new IntIntHashMap[partitions];
+        for (int partition = 0; partition < partitions; partition++) {
+            partitionTotals[partition] = new Totals(0);
+            partitionStates[partition] = new IntIntHashMap(1024);
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(windowBytes, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = position + length < size ? lineEnd(window, (int) length) : (int) length;
+                if (end == 0) {
+                    throw new IOException(String.format(Locale.ROOT,
+                            "Line at offset %d is longer than the replay window of %d bytes", position, windowBytes));
+                }
+                List<Batch[]> slices = pool.submit(() -> parseWindow(window, end, clients)).join();
+                int windowClients = clients.size();
+                pool.submit(() -> IntStream.range(0, partitions).parallel().forEach(partition ->
+                        replayPartition(slices, partition, partitionTotals[partition].grow(windowClients),
+                                partitionStates[partition]))).join();
+                position += end;
+            }
+            int clientCount = clients.size();
+            Totals totals = pool.submit(() -> Arrays.stream(partitionTotals).parallel()
+                    .map(partial -> partial.grow(clientCount))
+                    .reduce(Totals::merge)
+                    .orElseGet(() -> new Totals(clientCount))).join();
+            AggregateSnapshot snapshot = new AggregateSnapshot(totals.processed, totals.processed, totals.amount,
+                    totals.profitLoss, top(totals.profits, totals.won, clients), top(totals.losses, totals.lost, clients), List.of());
+            return new ReplayReport(snapshot, totals.reviewed, totals.processed + totals.reviewed,
+                    System.nanoTime() - startedAt);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // offset just past the last newline of the window, 0 when it has none
+    private static int lineEnd(ByteBuffer window, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (window.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private List<Batch[]> parseWindow(ByteBuffer window, int end, StringDictionary clients) {
+        int sliceCount = Math.max(1, Math.min(parallelism * SLICES_PER_THREAD, end / MIN_SLICE_BYTES));
+        int[] bounds = new int[sliceCount + 1];
+        bounds[sliceCount] = end;
+        for (int i = 1; i < sliceCount; i++) {
+            int from = Math.max(bounds[i - 1], (int) ((long) end * i / sliceCount));
+            while (from < end && window.get(from - 1) != '\n') {
+                from++;
+            }
+            bounds[i] = from;
+        }
+        return IntStream.range(0, sliceCount).parallel()
+                .mapToObj(i -> parseSlice(window.slice(bounds[i], bounds[i + 1] - bounds[i]), clients))
+                .toList();
+    }
+
+    private Batch[] parseSlice(ByteBuffer slice, StringDictionary clients) {
+        Batch[] batches = new Batch[partitions];
+        try (JsonParser parser = JSON.createParser(new ByteBufferBackedInputStream(slice))) {
+            for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, "Expected one bet object per line");
+                }
+                int id = 0;
+                double amount = 0;
+                double odds = 0;
+                String client = null;
+                int status = -1;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    if (parser.nextToken() == JsonToken.VALUE_NULL) {
+                        continue;
+                    }
+                    switch (field) {
+                        case "id" -> id = parser.getIntValue();
+                        case "amount" -> amount = parser.getDoubleValue();
+                        case "odds" -> odds = parser.getDoubleValue();
+                        case "client" -> client = parser.getText();
+                        case "status" -> status = statusOf(parser);
+                        default -> parser.skipChildren();
+                    }
+                }
+                int partition = Math.floorMod(Integer.hashCode(id) * 0x9E3779B9, partitions);
+                Batch batch = batches[partition];
+                if (batch == null) {
+                    batch = batches[partition] = new Batch();
+                }
+                batch.add(id, status, amount, odds, clients.encode(client));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return batches;
+    }
+
+    private static int statusOf(JsonParser parser) throws IOException {
+        String text = parser.getText();
+        for (BetStatus status : STATUSES) {
+            if (status.name().equals(text)) {
+                return status.ordinal();
+            }
+        }
+        throw new JsonParseException(parser, "Unknown bet status " + text);
+    }
+
+    // same rules as BetProcessor with the reorder window disabled: OPEN first, then exactly one settlement;
+    // states carries the partition's ids from one window to the next
+    private static void replayPartition(List<Batch[]> slices, int partition, Totals totals, IntIntHashMap states) {
+        for (Batch[] slice : slices) {
+            Batch batch = slice[partition];
+            if (batch == null) {
+                continue;
+            }
+            for (int i = 0; i < batch.size; i++) {
+                int id = batch.ids[i];
+                int previous = states.get(id);
+                int status = batch.statuses[i];
+                if (status == BetStatus.OPEN.ordinal() && previous == IntIntHashMap.MISSING) {
+                    states.put(id, STATE_OPEN);
+                    totals.processed++;
+                    totals.amount += batch.amounts[i];
+                } else if (status > BetStatus.OPEN.ordinal() && previous == STATE_OPEN) {
+                    states.put(id, STATE_SETTLED);
+                    totals.settle(STATUSES[status], batch.amounts[i], batch.odds[i], batch.clients[i]);
+                } else {
+                    totals.reviewed++;
+                }
+            }
+        }
+    }
+
+    private static List<Map.Entry<String, Double>> top(double[] values, boolean[] present, StringDictionary clients) {
+        return IntStream.range(0, values.length)
+                .filter(client -> present[client])
+                .boxed()
+                .sorted((c1, c2) -> Double.compare(values[c2], values[c1]))
+                .limit(AggregateLedger.TOP_CLIENTS)
+                .<Map.Entry<String, Double>>map(client -> new AbstractMap.SimpleImmutableEntry<>(clients.decode(client), values[client]))
+                .toList();
+    }
+
+    /**
+     * Updates of one slice that fall into one partition, column by column, in file order.
+     */
+    private static final class Batch {
+        private int[] ids = new int[64];
+        private byte[] statuses = new byte[64];
+        private double[] amounts = new double[64];
+        private double[] odds = new double[64];
+        private int[] clients = new int[64];
+        private int size;
+
+        private void add(int id, int status, double amount, double odd, int client) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+                odds = Arrays.copyOf(odds, capacity);
+                clients = Arrays.copyOf(clients, capacity);
+            }
+            ids[size] = id;
+            statuses[size] = (byte) status;
+            amounts[size] = amount;
+            odds[size] = odd;
+            clients[size] = client;
+            size++;
+        }
+    }
+
+    /**
+     * Totals of one partition, per-client results indexed by dictionary id and grown as the dictionary grows.
+     */
+    private static final class Totals {
+        private long processed;
+        private long reviewed;
+        private double amount;
+        private double profitLoss;
+        private double[] profits;
+        private double[] losses;
+        private boolean[] won;
+        private boolean[] lost;
+
+        private Totals(int clientCount) {
+            profits = new double[clientCount];
+            losses = new double[clientCount];
+            won = new boolean[clientCount];
+            lost = new boolean[clientCount];
+        }
+
+        private Totals grow(int clientCount) {
+            if (clientCount > profits.length) {
+                profits = Arrays.copyOf(profits, clientCount);
+                losses = Arrays.copyOf(losses, clientCount);
+                won = Arrays.copyOf(won, clientCount);
+                lost = Arrays.copyOf(lost, clientCount);
+            }
+            return this;
+        }
+
+        private void settle(BetStatus status, double betAmount, double odds, int client) {
+            processed++;
+            if (status == BetStatus.WINNER) {
+                double result = betAmount * (odds - 1);
+                profitLoss += result;
+                if (client != StringDictionary.NULL_ID) {
+                    profits[client] += result;
+                    won[client] = true;
+                }
+            } else if (status == BetStatus.LOSER) {
+                profitLoss -= betAmount;
+                if (client != StringDictionary.NULL_ID) {
+                    losses[client] += betAmount;
+                    lost[client] = true;
+                }
+            }
+        }
+
+        private Totals merge(Totals other) {
+            processed += other.processed;
+            reviewed += other.reviewed;
+            amount += other.amount;
+            profitLoss += other.profitLoss;
+            for (int client = 0; client < profits.length; client++) {
+                profits[client] += other.profits[client];
+                losses[client] += other.losses[client];
+                won[client] |= other.won[client];
+                lost[client] |= other.lost[client];
+            }
+            return this;
+        }
+    }
+}
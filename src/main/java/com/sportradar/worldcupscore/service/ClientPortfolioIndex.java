@@ -0,0 +1,142 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.ClientPortfolio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Per-client view of open bets and realised result, kept up to date by {@link BetProcessor#processBet}.
+ * Only the ids are kept per client; the bets themselves are read back from the {@link OpenBetStore}.
+ * Without {@code keepRealised} a client's portfolio is dropped as soon as it has no open bets, so memory follows
+ * the open bets rather than every client ever seen, and the realised result is left to the caller.
+ */
+public class ClientPortfolioIndex {
+
+    private final ConcurrentHashMap<String, Portfolio> portfolios = new ConcurrentHashMap<>();
+    private final OpenBetStore openBets;
+    private final boolean keepRealised;
+
+    public ClientPortfolioIndex(OpenBetStore openBets) {
+        this(openBets, true);
+    }
+
+    public ClientPortfolioIndex(OpenBetStore openBets, boolean keepRealised) {
+        this.openBets = openBets;
+        this.keepRealised = keepRealised;
+    }
+
+    public void open(Bet bet) {
+        if (bet.getClient() == null) {
+            return;
+        }
+        // under the map's lock, so a settlement dropping the portfolio cannot miss this id
+        portfolios.compute(bet.getClient(), (client, portfolio) -> {
+            if (portfolio == null) {
+                portfolio = new Portfolio();
+            }
+            if (portfolio.openIds.add(bet.getId())) {
+                portfolio.openStake.add(bet.getAmount());
+                portfolio.potentialLiability.add(liability(bet));
+            }
+            return portfolio;
+        });
+    }
+
+    /**
+     * Settles a bet; {@code opened} is the bet as it was stored when open, or null if it never was. The bet is
+     * booked to the client it was opened with, whatever client the settlement carries.
+     */
+    public void settle(Bet bet, Bet opened, double result) {
+        String client = opened != null ? opened.getClient() : bet.getClient();
+        if (client == null) {
+            return;
+        }
+        if (!keepRealised) {
+            if (opened != null) {
+                portfolios.computeIfPresent(client, (k, portfolio) -> {
+                    if (portfolio.openIds.remove(opened.getId())) {
+                        portfolio.openStake.add(-opened.getAmount());
+                        portfolio.potentialLiability.add(-liability(opened));
+                    }
+                    return portfolio.openIds.isEmpty() ? null : portfolio;
+                });
+            }
+            return;
+        }
+        Portfolio portfolio = portfolios.computeIfAbsent(client, k -> new Portfolio());
+        if (opened != null && portfolio.openIds.remove(opened.getId())) {
+            portfolio.openStake.add(-opened.getAmount());
+            portfolio.potentialLiability.add(-liability(opened));
+        }
+        portfolio.realisedProfitLoss.add(result);
+    }
+
+    /**
+     * Settles several bets of one client at once, touching the client's adders a single time.
+     * The stake of each bet is taken from the bet passed in, which must carry the amount and odds it opened with.
+     */
+    public void settle(String client, List<Bet> bets, double result) {
+        if (!keepRealised) {
+            portfolios.computeIfPresent(client, (k, portfolio) -> {
+                release(portfolio, bets);
+                return portfolio.openIds.isEmpty() ? null : portfolio;
+            });
+            return;
+        }
+        Portfolio portfolio = portfolios.computeIfAbsent(client, k -> new Portfolio());
+        release(portfolio, bets);
+        portfolio.realisedProfitLoss.add(result);
+    }
+
+    private static void release(Portfolio portfolio, List<Bet> bets) {
+        double stake = 0;
+        double liability = 0;
+        for (Bet bet : bets) {
+            if (portfolio.openIds.remove(bet.getId())) {
+                stake += bet.getAmount();
+                liability += liability(bet);
+            }
+        }
+        portfolio.openStake.add(-stake);
+        portfolio.potentialLiability.add(-liability);
+    }
+
+    /**
+     * The client's portfolio, or null when it is unknown; without {@code keepRealised} also when it has no open
+     * bets, and the realised result is reported as 0.
+     */
+    public ClientPortfolio snapshot(String client) {
+        Portfolio portfolio = portfolios.get(client);
+        if (portfolio == null) {
+            return null;
+        }
+        List<Bet> bets = new ArrayList<>();
+        for (Integer id : portfolio.openIds) {
+            Bet bet = openBets.get(id);
+            // settled between reading the id and the store; the adders below will catch up too
+            if (bet != null && Objects.equals(client, bet.getClient())) {
+                bets.add(bet);
+            }
+        }
+        return new ClientPortfolio(client, bets, portfolio.openStake.sum(),
+                portfolio.potentialLiability.sum(), portfolio.realisedProfitLoss.sum());
+    }
+
+    // what the house pays out on top of the stake if the bet wins
+    private static double liability(Bet bet) {
+        return bet.getAmount() * (bet.getOdds() - 1);
+    }
+
+    private static final class Portfolio {
+        private final Set<Integer> openIds = ConcurrentHashMap.newKeySet();
+        private final DoubleAdder openStake = new DoubleAdder();
+        private final DoubleAdder potentialLiability = new DoubleAdder();
+        private final DoubleAdder realisedProfitLoss = new DoubleAdder();
+    }
+}
@@ -0,0 +1,121 @@
+package com.sportradar.worldcupscore.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets, kept GCRA-style as one "theoretical arrival time" per client and updated with a CAS,
+ * so a check is a hash lookup plus a compare-and-set. Buckets are spread over independent stripes; a sweeper
+ * walks one stripe per run and drops buckets that have been full for the idle time, which loses nothing.
+ */
+public class ClientRateLimiter {
+
+    private static final int STRIPES = 64;
+    // bets without a client share one bucket
+    private static final String NO_CLIENT = "";
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final long idleNanos;
+    private final LongSupplier clock;
+
+    private final List<ConcurrentHashMap<String, AtomicLong>> stripes = new ArrayList<>(STRIPES);
+    private final LongAdder rejected = new LongAdder();
+    private int sweepCursor;
+    private ScheduledExecutorService sweeper;
+
+    public ClientRateLimiter(double perSecond, int burst, long idleMillis) {
+        this(perSecond, burst, idleMillis, System::nanoTime);
+    }
+
+    ClientRateLimiter(double perSecond, int burst, long idleMillis, LongSupplier clock) {
+        if (perSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / perSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.clock = clock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    public void start() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "bet-rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // a full lap over all stripes takes roughly the idle time
+        long period = Math.max(1, idleNanos / STRIPES);
+        sweeper.scheduleAtFixedRate(this::sweep, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * Takes one token from the client's bucket; false when the bucket is empty.
+     */
+    public boolean tryAcquire(String client) {
+        String key = client == null ? NO_CLIENT : client;
+        ConcurrentHashMap<String, AtomicLong> stripe = stripes.get(stripeOf(key));
+        AtomicLong arrival = stripe.get(key);
+        if (arrival == null) {
+            arrival = stripe.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+        }
+        long now = clock.getAsLong();
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            if (next - now > burstNanos) {
+                rejected.increment();
+                return false;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    // only the sweeper thread moves the cursor
+    void sweep() {
+        long cutoff = clock.getAsLong() - idleNanos;
+        stripes.get(sweepCursor).values().removeIf(arrival -> arrival.get() < cutoff);
+        sweepCursor = (sweepCursor + 1) & (STRIPES - 1);
+    }
+
+    void sweepAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            sweep();
+        }
+    }
+
+    private static int stripeOf(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
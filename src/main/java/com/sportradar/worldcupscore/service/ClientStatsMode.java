@@ -0,0 +1,11 @@
+package com.sportradar.worldcupscore.service;
+
+/**
+ * How {@link AggregateLedger} keeps per-client results, selected with {@code bet.processor.client-stats.mode}.
+ */
+public enum ClientStatsMode {
+    // one exact total per client ever seen
+    EXACT,
+    // Count-Min sketches plus a bounded set of heavy hitters, in fixed memory
+    APPROXIMATE;
+}
@@ -0,0 +1,102 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetTracking;
+import com.sportradar.worldcupscore.model.BetUpdateStatus;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Outcome of the most recent submitted updates, in a ring indexed by tracking token. Registering a new update
+ * overwrites the oldest slot, so memory stays bounded; waiters on an overwritten update are released with the
+ * status it had. Each update's first outcome completes a future, so long-polls never hold a thread.
+ */
+public class CompletionRegistry {
+
+    private final AtomicReferenceArray<Tracked> slots;
+    private final AtomicLong lastToken = new AtomicLong();
+    // the latest token per id, for lookups without a token
+    private final ConcurrentHashMap<Integer, Long> latestById = new ConcurrentHashMap<>();
+
+    public CompletionRegistry(int capacity) {
+        this.slots = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    public long register(Bet bet) {
+        long token = lastToken.incrementAndGet();
+        Tracked tracked = new Tracked(bet.getId(), token);
+        Tracked evicted = slots.getAndSet(index(token), tracked);
+        if (evicted != null) {
+            latestById.remove(evicted.id, evicted.token);
+            evicted.completion.complete(evicted.status);
+        }
+        latestById.put(bet.getId(), token);
+        return token;
+    }
+
+    /**
+     * Records the outcome of a tracked update; a later outcome, e.g. resolved from review, replaces the status.
+     */
+    public void complete(Bet bet, BetUpdateStatus status) {
+        long token = bet.getTrackingToken();
+        if (token == 0) {
+            return;
+        }
+        Tracked tracked = slots.get(index(token));
+        if (tracked != null && tracked.token == token) {
+            tracked.status = status;
+            tracked.completion.complete(status);
+        }
+    }
+
+    /**
+     * The update with {@code token}, or the latest one for the id when token is null; null once evicted.
+     */
+    public Tracked find(int id, Long token) {
+        Long wanted = token != null ? token : latestById.get(id);
+        if (wanted == null || wanted <= 0) {
+            return null;
+        }
+        Tracked tracked = slots.get(index(wanted));
+        return tracked != null && tracked.token == wanted && tracked.id == id ? tracked : null;
+    }
+
+    private int index(long token) {
+        return (int) (token % slots.length());
+    }
+
+    public static final class Tracked {
+        private final int id;
+        private final long token;
+        private volatile BetUpdateStatus status = BetUpdateStatus.QUEUED;
+        private final CompletableFuture<BetUpdateStatus> completion = new CompletableFuture<>();
+
+        private Tracked(int id, long token) {
+            this.id = id;
+            this.token = token;
+        }
+
+        public long getToken() {
+            return token;
+        }
+
+        public BetUpdateStatus getStatus() {
+            return status;
+        }
+
+        /**
+         * Completes with the first outcome of the update; read-only for callers.
+         */
+        public CompletionStage<BetUpdateStatus> getCompletion() {
+            return completion.minimalCompletionStage();
+        }
+
+        public BetTracking toTracking() {
+            return new BetTracking(id, token, status);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.sportradar.worldcupscore.service;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+
+/**
+ * Approximate per-key totals in fixed memory: a Count-Min sketch of {@code ceil(e / epsilon)} columns by
+ * {@code ceil(ln(1 / delta))} rows, plus the {@code capacity} keys with the largest estimates. An estimate
+ * never undercounts and, with probability {@code 1 - delta}, overcounts by at most {@code epsilon} times the
+ * total weight added. Only non-negative weights are supported. Not thread-safe.
+ */
+class HeavyHitters {
+
+    private static final Comparator<Map.Entry<String, Double>> BY_VALUE =
+            Map.Entry.<String, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey());
+
+    private final double[][] counts;
+    private final int width;
+    private final int capacity;
+    private double total;
+
+    // Space-Saving style heavy-hitter set: the smallest tracked estimate is evicted by a larger one
+    private final Map<String, Map.Entry<String, Double>> tracked = new HashMap<>();
+    private final TreeSet<Map.Entry<String, Double>> ranking = new TreeSet<>(BY_VALUE);
+
+    HeavyHitters(double epsilon, double delta, int capacity) {
+        if (epsilon <= 0 || delta <= 0 || delta >= 1 || capacity <= 0) {
+            throw new IllegalArgumentException("epsilon and capacity must be positive and delta within (0, 1)");
+        }
+        this.width = (int) Math.ceil(Math.E / epsilon);
+        this.counts = new double[(int) Math.ceil(Math.log(1 / delta))][width];
+        this.capacity = capacity;
+    }
+
+    void add(String key, double weight) {
+        total += weight;
+        double estimate = Double.MAX_VALUE;
+        int h1 = key.hashCode();
+        int h2 = fnv(key);
+        for (int row = 0; row < counts.length; row++) {
+            int column = Math.floorMod(h1 + row * h2, width);
+            counts[row][column] += weight;
+            estimate = Math.min(estimate, counts[row][column]);
+        }
+        Map.Entry<String, Double> current = tracked.get(key);
+        if (current != null) {
+            ranking.remove(current);
+        } else if (tracked.size() == capacity) {
+            if (estimate <= ranking.first().getValue()) {
+                return;
+            }
+            tracked.remove(ranking.pollFirst().getKey());
+        }
+        Map.Entry<String, Double> updated = new AbstractMap.SimpleImmutableEntry<>(key, estimate);
+        tracked.put(key, updated);
+        ranking.add(updated);
+    }
+
+    double estimate(String key) {
+        double estimate = Double.MAX_VALUE;
+        int h1 = key.hashCode();
+        int h2 = fnv(key);
+        for (int row = 0; row < counts.length; row++) {
+            estimate = Math.min(estimate, counts[row][Math.floorMod(h1 + row * h2, width)]);
+        }
+        return estimate;
+    }
+
+    boolean isTracked(String key) {
+        return tracked.containsKey(key);
+    }
+
+    /**
+     * The {@code n} tracked keys with the largest estimates, largest first.
+     */
+    List<Map.Entry<String, Double>> top(int n) {
+        List<Map.Entry<String, Double>> top = new ArrayList<>(Math.min(n, ranking.size()));
+        Iterator<Map.Entry<String, Double>> descending = ranking.descendingIterator();
+        while (top.size() < n && descending.hasNext()) {
+            top.add(descending.next());
+        }
+        return top;
+    }
+
+    void forEachTracked(BiConsumer<String, Double> action) {
+        tracked.values().forEach(entry -> action.accept(entry.getKey(), entry.getValue()));
+    }
+
+    /**
+     * Largest overcount that holds with probability {@code 1 - delta}.
+     */
+    double errorBound() {
+        return Math.E / width * total;
+    }
+
+    // second, independent hash so rows don't collide on equal String.hashCode values
+    private static int fnv(String key) {
+        int hash = 0x811C9DC5;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x01000193;
+        }
+        return hash | 1;
+    }
+}
@@ -0,0 +1,99 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetLagSample;
+import com.sportradar.worldcupscore.model.LagReport;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Queue-wait and processing time per bet, measured from the bet's ingestion stamp. The slowest bets are kept
+ * in a bounded reservoir per time window; the current and previous windows together make up "recent".
+ * Bets faster than the reservoir's minimum are dropped after one volatile read.
+ */
+public class LagTracker {
+
+    private static final Comparator<BetLagSample> BY_TOTAL = Comparator.comparingDouble(BetLagSample::getTotalMillis);
+
+    private final int reservoirSize;
+    private final long windowNanos;
+
+    private volatile long currentLagNanos;
+    private final LongAdder traced = new LongAdder();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    private final LongAdder totalProcessingNanos = new LongAdder();
+
+    // guarded by this
+    private PriorityQueue<BetLagSample> current = new PriorityQueue<>(BY_TOTAL);
+    private PriorityQueue<BetLagSample> previous = new PriorityQueue<>(BY_TOTAL);
+    private volatile long windowStart = System.nanoTime();
+    private volatile double admitMillis;
+
+    public LagTracker(int reservoirSize, long windowMillis) {
+        this.reservoirSize = Math.max(1, reservoirSize);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    }
+
+    /**
+     * A worker took the bet off the queue at {@code now}.
+     */
+    public void dequeued(Bet bet, long now) {
+        currentLagNanos = now - bet.getIngestedAtNanos();
+    }
+
+    public void processed(Bet bet, long dequeuedAt, long finishedAt) {
+        long queueWait = dequeuedAt - bet.getIngestedAtNanos();
+        long processing = finishedAt - dequeuedAt;
+        traced.increment();
+        totalQueueWaitNanos.add(queueWait);
+        totalProcessingNanos.add(processing);
+
+        double totalMillis = toMillis(queueWait + processing);
+        if (totalMillis <= admitMillis && finishedAt - windowStart < windowNanos) {
+            return;
+        }
+        synchronized (this) {
+            if (finishedAt - windowStart >= windowNanos) {
+                previous = current;
+                current = new PriorityQueue<>(BY_TOTAL);
+                windowStart = finishedAt;
+                admitMillis = 0;
+            }
+            current.offer(new BetLagSample(bet.getId(), bet.getStatus(), toMillis(queueWait), toMillis(processing)));
+            if (current.size() > reservoirSize) {
+                current.poll();
+            }
+            if (current.size() == reservoirSize) {
+                admitMillis = current.peek().getTotalMillis();
+            }
+        }
+    }
+
+    /**
+     * Current figures; {@code oldest} is the queued bet ingested first, or null when nothing is queued.
+     */
+    public LagReport report(Bet oldest, int queued, long now) {
+        long count = traced.sum();
+        double oldestAge = oldest == null ? 0 : toMillis(now - oldest.getIngestedAtNanos());
+        return new LagReport(toMillis(currentLagNanos), oldestAge, queued, count,
+                count == 0 ? 0 : toMillis(totalQueueWaitNanos.sum()) / count,
+                count == 0 ? 0 : toMillis(totalProcessingNanos.sum()) / count,
+                slowest());
+    }
+
+    synchronized List<BetLagSample> slowest() {
+        List<BetLagSample> samples = new ArrayList<>(current);
+        samples.addAll(previous);
+        samples.sort(BY_TOTAL.reversed());
+        return samples.size() > reservoirSize ? new ArrayList<>(samples.subList(0, reservoirSize)) : samples;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
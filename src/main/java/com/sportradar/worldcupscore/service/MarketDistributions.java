@@ -0,0 +1,90 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import com.sportradar.worldcupscore.model.DistributionSummary;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Stake, odds and payout distributions per event/market.
+ */
+public class MarketDistributions {
+
+    public static final String AMOUNT = "amount";
+    public static final String ODDS = "odds";
+    public static final String PAYOUT = "payout";
+
+    private final ConcurrentHashMap<String, Sketches> markets = new ConcurrentHashMap<>();
+
+    public void record(Bet bet) {
+        record(bet, markets.computeIfAbsent(key(bet.getEvent(), bet.getMarket()), k -> new Sketches()));
+    }
+
+    /**
+     * Recorder bound to one market, for bulk passes that would otherwise look the market up per bet.
+     */
+    Consumer<Bet> recorder(String event, String market) {
+        Sketches sketches = markets.computeIfAbsent(key(event, market), k -> new Sketches());
+        return bet -> record(bet, sketches);
+    }
+
+    private static void record(Bet bet, Sketches sketches) {
+        if (bet.getStatus() == BetStatus.OPEN) {
+            sketches.amount.record(bet.getAmount());
+            sketches.odds.record(bet.getOdds());
+        } else if (bet.getStatus() == BetStatus.WINNER) {
+            sketches.payout.record(bet.getAmount() * bet.getOdds());
+        }
+    }
+
+    public Map<String, DistributionSummary> summary(String event, String market, double[] quantiles) {
+        Sketches sketches = markets.get(key(event, market));
+        return sketches == null ? null : sketches.summary(quantiles);
+    }
+
+    public Map<String, DistributionSummary> summary(double[] quantiles) {
+        Sketches merged = new Sketches();
+        for (Sketches sketches : markets.values()) {
+            merged.amount.merge(sketches.amount);
+            merged.odds.merge(sketches.odds);
+            merged.payout.merge(sketches.payout);
+        }
+        return merged.summary(quantiles);
+    }
+
+    private static String key(String event, String market) {
+        return event + "/" + market;
+    }
+
+    private static final class Sketches {
+        private final QuantileSketch amount = new QuantileSketch();
+        private final QuantileSketch odds = new QuantileSketch();
+        private final QuantileSketch payout = new QuantileSketch();
+
+        private Map<String, DistributionSummary> summary(double[] quantiles) {
+            Map<String, DistributionSummary> summary = new LinkedHashMap<>();
+            summary.put(AMOUNT, describe(amount, quantiles));
+            summary.put(ODDS, describe(odds, quantiles));
+            summary.put(PAYOUT, describe(payout, quantiles));
+            return summary;
+        }
+
+        private static DistributionSummary describe(QuantileSketch sketch, double[] quantiles) {
+            Map<String, Double> values = new LinkedHashMap<>();
+            for (double q : quantiles) {
+                double value = sketch.quantile(q);
+                values.put(label(q), Double.isNaN(value) ? null : value);
+            }
+            return new DistributionSummary(sketch.getCount(), values);
+        }
+
+        private static String label(double q) {
+            return "p" + BigDecimal.valueOf(q * 100).stripTrailingZeros().toPlainString();
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Open bets kept column-wise in chunks of primitive arrays, with client/event/market/selection dictionary-encoded.
+ * Settling a bet frees its slot for the next one. Each event/market keeps the list of its slots, so settling a
+ * market only touches that market's bets. Bets are spread over stripes by id, each with its own lock, so workers
+ * adding and settling different bets do not queue behind one another. A {@link StripeListener} hears of every
+ * change inside the stripe's lock.
+ */
+public class OpenBetStore {
+
+    static final int STRIPES = 16;
+    private static final int STRIPE_MASK = STRIPES - 1;
+    static final int CHUNK_BITS = 14;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // 0 marks a free slot, otherwise status ordinal + 1
+    private static final byte FREE = 0;
+    private static final BetStatus[] STATUSES = BetStatus.values();
+    // an event id of Integer.MIN_VALUE, which the dictionary never hands out
+    private static final long NO_MARKET = Long.MIN_VALUE;
+
+    private final StringDictionary dictionary = new StringDictionary();
+    private final List<Stripe> stripes = new ArrayList<>(STRIPES);
+    private volatile StripeListener listener = StripeListener.NONE;
+
+    public OpenBetStore() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes.add(new Stripe(i));
+        }
+    }
+
+    public void setListener(StripeListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Stores an open bet; returns false if the id is already held.
+     */
+    public boolean add(Bet bet) {
+        int client = dictionary.encode(bet.getClient());
+        int event = dictionary.encode(bet.getEvent());
+        int market = dictionary.encode(bet.getMarket());
+        int selection = dictionary.encode(bet.getSelection());
+        Stripe stripe = stripeOf(bet.getId());
+        stripe.lock.writeLock().lock();
+        try {
+            if (stripe.slotsById.get(bet.getId()) != IntIntHashMap.MISSING) {
+                return false;
+            }
+            int slot = stripe.allocate();
+            Chunk chunk = stripe.chunks[slot >>> CHUNK_BITS];
+            int i = slot & CHUNK_MASK;
+            chunk.ids[i] = bet.getId();
+            chunk.amounts[i] = bet.getAmount();
+            chunk.odds[i] = bet.getOdds();
+            chunk.clients[i] = client;
+            chunk.events[i] = event;
+            chunk.markets[i] = market;
+            chunk.selections[i] = selection;
+            chunk.statuses[i] = (byte) (bet.getStatus().ordinal() + 1);
+            stripe.slotsById.put(bet.getId(), slot);
+            chunk.marketPositions[i] = stripe.slotsByMarket
+                    .computeIfAbsent(marketKey(event, market), k -> new MarketSlots())
+                    .add(slot);
+            listener.added(stripe.index, bet);
+            return true;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Frees the bet's slot and returns what was stored, or null if the id is not held.
+     */
+    public Bet remove(int id) {
+        Stripe stripe = stripeOf(id);
+        stripe.lock.writeLock().lock();
+        try {
+            return stripe.release(id);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Frees several slots, taking each stripe's lock once for all of its ids.
+     */
+    public void removeAll(int[] ids) {
+        for (int s = 0; s < STRIPES; s++) {
+            Stripe stripe = stripes.get(s);
+            boolean locked = false;
+            try {
+                for (int id : ids) {
+                    if ((id & STRIPE_MASK) != s) {
+                        continue;
+                    }
+                    if (!locked) {
+                        stripe.lock.writeLock().lock();
+                        locked = true;
+                    }
+                    stripe.release(id);
+                }
+            } finally {
+                if (locked) {
+                    stripe.lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    public Bet get(int id) {
+        Stripe stripe = stripeOf(id);
+        stripe.lock.readLock().lock();
+        try {
+            int slot = stripe.slotsById.get(id);
+            return slot == IntIntHashMap.MISSING ? null : stripe.materialize(slot);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                size += stripe.slotsById.size();
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Open bets of one event/market, read through the market's slot list in each stripe.
+     */
+    public List<Bet> findByMarket(String event, String market) {
+        long key = lookupMarket(event, market);
+        if (key == NO_MARKET) {
+            return List.of();
+        }
+        List<Bet> found = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                MarketSlots slots = stripe.slotsByMarket.get(key);
+                if (slots != null) {
+                    for (int k = 0; k < slots.size; k++) {
+                        found.add(stripe.materialize(slots.slots[k]));
+                    }
+                }
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Liability ({@code amount * (odds - 1)}) of the open bets on one selection of an event/market, summed
+     * straight from the columns without building any {@link Bet}.
+     */
+    public double selectionLiability(String event, String market, String selection) {
+        double[] liability = new double[1];
+        selectionLiability(event, market, selection, (stripe, stripeLiability) -> liability[0] += stripeLiability);
+        return liability[0];
+    }
+
+    /**
+     * The same sum stripe by stripe: {@code seed} gets every stripe's share while that stripe's lock is held,
+     * so each change lands either in the share or in a later {@link StripeListener} call, never in both.
+     */
+    public void selectionLiability(String event, String market, String selection, StripeLiability seed) {
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                // looked up under the lock, so strings encoded by an add this stripe has seen are found
+                seed.accept(stripe.index, stripe.liability(lookupMarket(event, market), selection));
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Visits every stored bet, holding one stripe's read lock one chunk at a time.
+     */
+    public void forEach(Consumer<Bet> action) {
+        for (Stripe stripe : stripes) {
+            for (int c = 0; ; c++) {
+                List<Bet> bets = new ArrayList<>();
+                stripe.lock.readLock().lock();
+                try {
+                    if (c >= stripe.chunks.length) {
+                        break;
+                    }
+                    Chunk chunk = stripe.chunks[c];
+                    int end = Math.min(CHUNK_SIZE, stripe.highWater - (c << CHUNK_BITS));
+                    for (int i = 0; i < end; i++) {
+                        if (chunk.statuses[i] != FREE) {
+                            bets.add(stripe.materialize(chunk, i));
+                        }
+                    }
+                } finally {
+                    stripe.lock.readLock().unlock();
+                }
+                bets.forEach(action);
+            }
+        }
+    }
+
+    // slots ever handed out, used or free, over all stripes
+    int capacity() {
+        int capacity = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                capacity += stripe.highWater;
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        return capacity;
+    }
+
+    private Stripe stripeOf(int id) {
+        return stripes.get(id & STRIPE_MASK);
+    }
+
+    // the event/market key, or NO_MARKET when either string was never stored
+    private long lookupMarket(String event, String market) {
+        int eventId = dictionary.lookup(event);
+        int marketId = dictionary.lookup(market);
+        if ((event != null && eventId == StringDictionary.NULL_ID)
+                || (market != null && marketId == StringDictionary.NULL_ID)) {
+            return NO_MARKET;
+        }
+        return marketKey(eventId, marketId);
+    }
+
+    private static long marketKey(int eventId, int marketId) {
+        return ((long) eventId << 32) | (marketId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Told of every stored and freed bet while the stripe that holds it is locked.
+     */
+    public interface StripeListener {
+        StripeListener NONE = new StripeListener() {
+            @Override
+            public void added(int stripe, Bet bet) {
+            }
+
+            @Override
+            public void removed(int stripe, Bet bet) {
+            }
+        };
+
+        void added(int stripe, Bet bet);
+
+        void removed(int stripe, Bet bet);
+    }
+
+    @FunctionalInterface
+    public interface StripeLiability {
+        void accept(int stripe, double liability);
+    }
+
+    /**
+     * One lock's worth of the store: its own chunks, free slots, id index and market slot lists.
+     */
+    private final class Stripe {
+        private final int index;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        // guarded by lock
+        private Chunk[] chunks = new Chunk[0];
+        private int highWater;
+        private int[] freeSlots = new int[64];
+        private int freeCount;
+        private final IntIntHashMap slotsById = new IntIntHashMap(64);
+        private final Map<Long, MarketSlots> slotsByMarket = new HashMap<>();
+
+        private Stripe(int index) {
+            this.index = index;
+        }
+
+        private double liability(long key, String selection) {
+            int selectionId = dictionary.lookup(selection);
+            MarketSlots slots = key == NO_MARKET ? null : slotsByMarket.get(key);
+            if (slots == null || (selection != null && selectionId == StringDictionary.NULL_ID)) {
+                return 0;
+            }
+            double liability = 0;
+            for (int k = 0; k < slots.size; k++) {
+                int slot = slots.slots[k];
+                Chunk chunk = chunks[slot >>> CHUNK_BITS];
+                int i = slot & CHUNK_MASK;
+                if (chunk.selections[i] == selectionId) {
+                    liability += chunk.amounts[i] * (chunk.odds[i] - 1);
+                }
+            }
+            return liability;
+        }
+
+        private Bet release(int id) {
+            int slot = slotsById.remove(id);
+            if (slot == IntIntHashMap.MISSING) {
+                return null;
+            }
+            Bet bet = materialize(slot);
+            Chunk chunk = chunks[slot >>> CHUNK_BITS];
+            int i = slot & CHUNK_MASK;
+            long key = marketKey(chunk.events[i], chunk.markets[i]);
+            MarketSlots market = slotsByMarket.get(key);
+            int moved = market.removeAt(chunk.marketPositions[i]);
+            if (moved != slot) {
+                chunks[moved >>> CHUNK_BITS].marketPositions[moved & CHUNK_MASK] = chunk.marketPositions[i];
+            }
+            if (market.size == 0) {
+                slotsByMarket.remove(key);
+            }
+            chunk.statuses[i] = FREE;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+            listener.removed(index, bet);
+            return bet;
+        }
+
+        private int allocate() {
+            if (freeCount > 0) {
+                return freeSlots[--freeCount];
+            }
+            int slot = highWater++;
+            if (slot >>> CHUNK_BITS == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunks.length + 1);
+                chunks[chunks.length - 1] = new Chunk();
+            }
+            return slot;
+        }
+
+        private Bet materialize(int slot) {
+            return materialize(chunks[slot >>> CHUNK_BITS], slot & CHUNK_MASK);
+        }
+
+        private Bet materialize(Chunk chunk, int i) {
+            return new Bet.BetBuilder()
+                    .id(chunk.ids[i])
+                    .amount(chunk.amounts[i])
+                    .odds(chunk.odds[i])
+                    .client(dictionary.decode(chunk.clients[i]))
+                    .event(dictionary.decode(chunk.events[i]))
+                    .market(dictionary.decode(chunk.markets[i]))
+                    .selection(dictionary.decode(chunk.selections[i]))
+                    .status(STATUSES[chunk.statuses[i] - 1])
+                    .build();
+        }
+    }
+
+    private static final class Chunk {
+        private final int[] ids = new int[CHUNK_SIZE];
+        private final double[] amounts = new double[CHUNK_SIZE];
+        private final double[] odds = new double[CHUNK_SIZE];
+        private final int[] clients = new int[CHUNK_SIZE];
+        private final int[] events = new int[CHUNK_SIZE];
+        private final int[] markets = new int[CHUNK_SIZE];
+        private final int[] selections = new int[CHUNK_SIZE];
+        private final byte[] statuses = new byte[CHUNK_SIZE];
+        // where the slot sits in its market's slot list
+        private final int[] marketPositions = new int[CHUNK_SIZE];
+    }
+
+    /**
+     * Unordered slots of one event/market; removal moves the last slot into the hole.
+     */
+    private static final class MarketSlots {
+        private int[] slots = new int[8];
+        private int size;
+
+        private int add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size] = slot;
+            return size++;
+        }
+
+        // returns the slot that now sits at position, the removed one itself when it was last
+        private int removeAt(int position) {
+            int last = slots[--size];
+            slots[position] = last;
+            return last;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.sportradar.worldcupscore.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One step of the staged pipeline: an input queue drained by its own pool, up to {@code batchSize} items per
+ * call of the handler. Reports queue depth and per-item service time, so I/O-bound and CPU-bound steps can be
+ * sized independently.
+ */
+public class PipelineStage<T> {
+
+    /**
+     * Handles one batch, in queue order.
+     */
+    @FunctionalInterface
+    public interface Handler<T> {
+        void handle(List<T> batch) throws InterruptedException;
+    }
+
+    private final String name;
+    private final int threads;
+    private final int batchSize;
+    private final BlockingQueue<T> queue;
+    private final Handler<T> handler;
+    private final ExecutorService executor;
+    private volatile boolean closed;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder totalServiceNanos = new LongAdder();
+    private final LongAccumulator maxServiceNanos = new LongAccumulator(Math::max, 0);
+
+    public PipelineStage(String name, int threads, int batchSize, Handler<T> handler) {
+        this(name, threads, batchSize, new LinkedBlockingQueue<>(), handler);
+    }
+
+    /**
+     * A stage reading from an existing queue, e.g. the ingestion queue for the first stage.
+     */
+    public PipelineStage(String name, int threads, int batchSize, BlockingQueue<T> queue, Handler<T> handler) {
+        if (threads <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Stage " + name + " needs at least one thread and a positive batch size");
+        }
+        this.name = name;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.queue = queue;
+        this.handler = handler;
+        AtomicLong nextThread = new AtomicLong();
+        this.executor = Executors.newFixedThreadPool(threads,
+                r -> new Thread(r, "bet-stage-" + name + "-" + nextThread.incrementAndGet()));
+    }
+
+    public void start() {
+        for (int i = 0; i < threads; i++) {
+            executor.submit(this::run);
+        }
+    }
+
+    public void submit(T item) {
+        queue.offer(item);
+    }
+
+    /**
+     * Lets the workers finish what is queued, then stops them; upstream stages must be closed first.
+     */
+    public void close() {
+        closed = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public StageStats getStats() {
+        return new StageStats(name, threads, batchSize, queue.size(), inFlight.get(), processed.sum(), batches.sum(),
+                totalServiceNanos.sum(), maxServiceNanos.get());
+    }
+
+    private void run() {
+        List<T> batch = new ArrayList<>(batchSize);
+        try {
+            while (!closed || !queue.isEmpty()) {
+                T first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                inFlight.addAndGet(batch.size());
+                long startedAt = System.nanoTime();
+                try {
+                    handler.handle(batch);
+                } finally {
+                    long perItem = (System.nanoTime() - startedAt) / batch.size();
+                    totalServiceNanos.add(perItem * batch.size());
+                    maxServiceNanos.accumulate(perItem);
+                    processed.add(batch.size());
+                    batches.increment();
+                    inFlight.addAndGet(-batch.size());
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static final class StageStats {
+        private final String stage;
+        private final int threads;
+        private final int batchSize;
+        private final int queued;
+        private final int inFlight;
+        private final long processed;
+        private final long batches;
+        private final long totalServiceNanos;
+        private final long maxServiceNanos;
+
+        StageStats(String stage, int threads, int batchSize, int queued, int inFlight, long processed, long batches,
+                   long totalServiceNanos, long maxServiceNanos) {
+            this.stage = stage;
+            this.threads = threads;
+            this.batchSize = batchSize;
+            this.queued = queued;
+            this.inFlight = inFlight;
+            this.processed = processed;
+            this.batches = batches;
+            this.totalServiceNanos = totalServiceNanos;
+            this.maxServiceNanos = maxServiceNanos;
+        }
+
+        public String getStage() {
+            return stage;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public int getQueued() {
+            return queued;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        public long getProcessed() {
+            return processed;
+        }
+
+        public long getBatches() {
+            return batches;
+        }
+
+        /**
+         * Average time a stage worker spent per item, batches split evenly over their items.
+         */
+        public double getAverageServiceMillis() {
+            return processed == 0 ? 0.0 : totalServiceNanos / (double) processed / 1_000_000;
+        }
+
+        public double getMaxServiceMillis() {
+            return maxServiceNanos / 1_000_000.0;
+        }
+    }
+}
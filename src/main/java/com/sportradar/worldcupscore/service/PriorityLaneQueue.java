@@ -0,0 +1,301 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Blocking queue split into one FIFO lane per {@link BetLane}. Takers pick lanes with smooth weighted
+ * round robin over the non-empty lanes, so a lane with weight w gets w / (sum of busy weights) of the
+ * dispatches and the lowest lane keeps moving during bursts on the others.
+ */
+public class PriorityLaneQueue extends AbstractQueue<Bet> implements BlockingQueue<Bet> {
+
+    private final Function<Bet, BetLane> classifier;
+    private final Lane[] lanes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private int count;
+
+    public PriorityLaneQueue(Function<Bet, BetLane> classifier, int... weights) {
+        if (weights.length != BetLane.values().length) {
+            throw new IllegalArgumentException("One weight per lane is required: " + BetLane.values().length);
+        }
+        this.classifier = classifier;
+        this.lanes = new Lane[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            lanes[i] = new Lane(BetLane.values()[i], Math.max(1, weights[i]));
+        }
+    }
+
+    @Override
+    public boolean offer(Bet bet) {
+        if (bet == null) {
+            throw new NullPointerException();
+        }
+        Lane lane = lanes[classifier.apply(bet).ordinal()];
+        lock.lock();
+        try {
+            lane.entries.addLast(new Entry(bet, System.nanoTime()));
+            count++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    @Override
+    public void put(Bet bet) {
+        offer(bet);
+    }
+
+    @Override
+    public boolean offer(Bet bet, long timeout, TimeUnit unit) {
+        return offer(bet);
+    }
+
+    @Override
+    public Bet poll() {
+        lock.lock();
+        try {
+            return count == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Bet take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Bet poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Bet peek() {
+        lock.lock();
+        try {
+            for (Lane lane : lanes) {
+                Entry entry = lane.entries.peekFirst();
+                if (entry != null) {
+                    return entry.bet;
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The queued bet ingested first, which is not necessarily the next one dispatched.
+     */
+    public Bet oldest() {
+        lock.lock();
+        try {
+            Bet oldest = null;
+            for (Lane lane : lanes) {
+                Entry entry = lane.entries.peekFirst();
+                if (entry != null && (oldest == null || entry.bet.getIngestedAtNanos() - oldest.getIngestedAtNanos() < 0)) {
+                    oldest = entry.bet;
+                }
+            }
+            return oldest;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int drainTo(Collection<? super Bet> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Bet> c, int maxElements) {
+        lock.lock();
+        try {
+            int drained = 0;
+            while (count > 0 && drained < maxElements) {
+                c.add(dequeue());
+                drained++;
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<Bet> iterator() {
+        List<Bet> snapshot = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Lane lane : lanes) {
+                for (Entry entry : lane.entries) {
+                    snapshot.add(entry.bet);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return snapshot.iterator();
+    }
+
+    public List<LaneStats> getLaneStats() {
+        List<LaneStats> stats = new ArrayList<>(lanes.length);
+        lock.lock();
+        try {
+            for (Lane lane : lanes) {
+                stats.add(new LaneStats(lane.lane, lane.weight, lane.entries.size(),
+                        lane.dispatched.sum(), lane.totalWaitNanos.sum(), lane.maxWaitNanos.get()));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return stats;
+    }
+
+    // caller holds the lock and has checked count > 0
+    private Bet dequeue() {
+        int totalWeight = 0;
+        Lane selected = null;
+        for (Lane lane : lanes) {
+            if (lane.entries.isEmpty()) {
+                continue;
+            }
+            lane.currentWeight += lane.weight;
+            totalWeight += lane.weight;
+            if (selected == null || lane.currentWeight > selected.currentWeight) {
+                selected = lane;
+            }
+        }
+        selected.currentWeight -= totalWeight;
+        Entry entry = selected.entries.pollFirst();
+        count--;
+
+        long wait = System.nanoTime() - entry.enqueuedNanos;
+        selected.dispatched.increment();
+        selected.totalWaitNanos.add(wait);
+        selected.maxWaitNanos.accumulateAndGet(wait, Math::max);
+        return entry.bet;
+    }
+
+    private static final class Entry {
+        private final Bet bet;
+        private final long enqueuedNanos;
+
+        private Entry(Bet bet, long enqueuedNanos) {
+            this.bet = bet;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    private static final class Lane {
+        private final BetLane lane;
+        private final int weight;
+        private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+        private int currentWeight;
+        private final LongAdder dispatched = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        private Lane(BetLane lane, int weight) {
+            this.lane = lane;
+            this.weight = weight;
+        }
+    }
+
+    public static final class LaneStats {
+        private final BetLane lane;
+        private final int weight;
+        private final int queued;
+        private final long dispatched;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+
+        LaneStats(BetLane lane, int weight, int queued, long dispatched, long totalWaitNanos, long maxWaitNanos) {
+            this.lane = lane;
+            this.weight = weight;
+            this.queued = queued;
+            this.dispatched = dispatched;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+        }
+
+        public BetLane getLane() {
+            return lane;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public int getQueued() {
+            return queued;
+        }
+
+        public long getDispatched() {
+            return dispatched;
+        }
+
+        public double getAverageWaitMillis() {
+            return dispatched == 0 ? 0.0 : totalWaitNanos / (double) dispatched / 1_000_000;
+        }
+
+        public double getMaxWaitMillis() {
+            return maxWaitNanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.sportradar.worldcupscore.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size streaming quantile sketch with logarithmic buckets (DDSketch/HDR style).
+ * Every value inside [{@link #MIN_VALUE}, {@link #MAX_VALUE}] is answered within 1% relative error,
+ * updates are a single atomic increment and two sketches merge by adding their buckets.
+ */
+public class QuantileSketch {
+
+    static final double RELATIVE_ACCURACY = 0.01;
+    static final double MIN_VALUE = 1e-3;
+    static final double MAX_VALUE = 1e9;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int MIN_INDEX = index(MIN_VALUE);
+    private static final int BUCKETS = index(MAX_VALUE) - MIN_INDEX + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    // values at or below zero carry no magnitude, they are answered as 0
+    private final AtomicLong zeroCount = new AtomicLong();
+    private final AtomicLong count = new AtomicLong();
+
+    public void record(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (value <= 0) {
+            zeroCount.incrementAndGet();
+        } else {
+            int bucket = Math.max(0, Math.min(BUCKETS - 1, index(value) - MIN_INDEX));
+            buckets.incrementAndGet(bucket);
+        }
+        count.incrementAndGet();
+    }
+
+    public void merge(QuantileSketch other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long n = other.buckets.get(i);
+            if (n != 0) {
+                buckets.addAndGet(i, n);
+            }
+        }
+        zeroCount.addAndGet(other.zeroCount.get());
+        count.addAndGet(other.count.get());
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the value at quantile {@code q} (0..1), or {@code NaN} when nothing was recorded.
+     */
+    public double quantile(double q) {
+        long total = count.get();
+        if (total == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.ceil(Math.min(1.0, Math.max(0.0, q)) * total);
+        long seen = zeroCount.get();
+        if (rank <= seen) {
+            return 0.0;
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return value(i + MIN_INDEX);
+            }
+        }
+        // concurrent updates may bump the total past what the bucket walk saw
+        return value(BUCKETS - 1 + MIN_INDEX);
+    }
+
+    private static int index(double value) {
+        return (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+
+    private static double value(int index) {
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+}
@@ -0,0 +1,184 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Holds settlements that arrive before their OPEN for a bounded time window. Deadlines live in a hashed
+ * timer wheel advanced by a single ticker thread, so expiry costs O(expired) per tick instead of a scan.
+ */
+public class ReorderBuffer {
+
+    private final long tickNanos;
+    private final int delayTicks;
+    private final int capacity;
+    private final Consumer<Bet> onExpired;
+
+    private final ConcurrentHashMap<Integer, Held> held = new ConcurrentHashMap<>();
+    private final List<ConcurrentLinkedQueue<Held>> wheel;
+    private final int mask;
+    private final AtomicInteger heldBets = new AtomicInteger();
+    private volatile long currentTick;
+    private ScheduledExecutorService ticker;
+
+    private final LongAdder released = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public ReorderBuffer(long windowMillis, long tickMillis, int capacity, Consumer<Bet> onExpired) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMillis));
+        this.delayTicks = (int) Math.max(1, (TimeUnit.MILLISECONDS.toNanos(windowMillis) + tickNanos - 1) / tickNanos);
+        this.capacity = capacity;
+        this.onExpired = onExpired;
+        // one lap must cover the whole window so every slot only ever holds due entries
+        int size = Integer.highestOneBit(delayTicks + 1) << 1;
+        this.wheel = new ArrayList<>(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            wheel.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "bet-reorder-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Parks {@code bet} until {@link #release} is called for its id or the window expires.
+     * Returns false when the buffer is full and the bet was not taken.
+     */
+    public boolean hold(Bet bet) {
+        if (heldBets.incrementAndGet() > capacity) {
+            heldBets.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        long now = System.nanoTime();
+        held.compute(bet.getId(), (id, existing) -> {
+            if (existing == null) {
+                existing = new Held(id, currentTick + delayTicks);
+                wheel.get((int) (existing.deadlineTick & mask)).offer(existing);
+            }
+            existing.bets.add(bet);
+            existing.arrivals.add(now);
+            return existing;
+        });
+        return true;
+    }
+
+    /**
+     * Removes and returns the bets held for {@code id}, in arrival order.
+     */
+    public List<Bet> release(int id) {
+        Held entry = held.remove(id);
+        if (entry == null) {
+            return Collections.emptyList();
+        }
+        List<Bet> bets = drain(entry);
+        released.add(bets.size());
+        return bets;
+    }
+
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        for (Integer id : new ArrayList<>(held.keySet())) {
+            expire(held.remove(id));
+        }
+    }
+
+    public int size() {
+        return heldBets.get();
+    }
+
+    public long getReleased() {
+        return released.sum();
+    }
+
+    public long getExpired() {
+        return expired.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public double getAverageWaitMillis() {
+        long waited = released.sum() + expired.sum();
+        return waited == 0 ? 0.0 : totalWaitNanos.sum() / (double) waited / 1_000_000;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    void tick() {
+        long tick = currentTick + 1;
+        ConcurrentLinkedQueue<Held> slot = wheel.get((int) (tick & mask));
+        List<Held> notDue = new ArrayList<>();
+        Held entry;
+        while ((entry = slot.poll()) != null) {
+            if (entry.deadlineTick > tick) {
+                notDue.add(entry);
+            } else if (held.remove(entry.id, entry)) {
+                expire(entry);
+            }
+        }
+        slot.addAll(notDue);
+        currentTick = tick;
+    }
+
+    private void expire(Held entry) {
+        if (entry == null) {
+            return;
+        }
+        List<Bet> bets = drain(entry);
+        expired.add(bets.size());
+        bets.forEach(onExpired);
+    }
+
+    private List<Bet> drain(Held entry) {
+        long now = System.nanoTime();
+        // the entry is out of the map, so no hold() can touch it any more
+        List<Bet> bets = entry.bets;
+        for (long arrival : entry.arrivals) {
+            long wait = now - arrival;
+            totalWaitNanos.add(wait);
+            maxWaitNanos.accumulateAndGet(wait, Math::max);
+        }
+        heldBets.addAndGet(-bets.size());
+        return bets;
+    }
+
+    private static final class Held {
+        private final int id;
+        private final long deadlineTick;
+        private final List<Bet> bets = new ArrayList<>(1);
+        private final List<Long> arrivals = new ArrayList<>(1);
+
+        private Held(int id, long deadlineTick) {
+            this.id = id;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
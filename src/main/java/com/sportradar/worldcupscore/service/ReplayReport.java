@@ -0,0 +1,58 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.util.Messages;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a {@link BetReplay}: the merged totals and how many updates went to review.
+ */
+public final class ReplayReport {
+
+    private final AggregateSnapshot totals;
+    private final long reviewed;
+    private final long bets;
+    private final long elapsedNanos;
+
+    ReplayReport(AggregateSnapshot totals, long reviewed, long bets, long elapsedNanos) {
+        this.totals = totals;
+        this.reviewed = reviewed;
+        this.bets = bets;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public AggregateSnapshot getTotals() {
+        return totals;
+    }
+
+    public long getReviewed() {
+        return reviewed;
+    }
+
+    /**
+     * Number of updates read from the file, processed or not.
+     */
+    public long getBets() {
+        return bets;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    public long getBetsPerMinute() {
+        return elapsedNanos == 0 ? bets : (long) (bets * (double) TimeUnit.MINUTES.toNanos(1) / elapsedNanos);
+    }
+
+    /**
+     * Same layout as {@link BetProcessor#getSummary()}.
+     */
+    public String getSummary() {
+        StringBuilder sb = new StringBuilder();
+        BetProcessor.appendTotals(sb, totals);
+        if (reviewed > 0) {
+            sb.append(Messages.SUMMARY_HEADER_REVIEW).append(reviewed).append("\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,133 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded set of bets flagged for review, indexed by bet id. Entries are keyed by an arrival sequence so
+ * removal by id is O(1) per entry, and the oldest entries are evicted once {@code capacity} is reached.
+ * An entry and its index slot only change together, inside a {@code compute} on the bet id. Sequences are taken
+ * and their entries put under {@code sequenceLock}, which eviction holds too, so an evictor never sees a sequence
+ * that is taken but not put yet and skips it for good.
+ */
+public class ReviewRegistry {
+
+    private final int capacity;
+    private final ConcurrentHashMap<Long, Bet> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Set<Long>> sequencesById = new ConcurrentHashMap<>();
+    private final Object sequenceLock = new Object();
+    // guarded by sequenceLock
+    private long nextSequence;
+    private long evictCursor;
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder evicted = new LongAdder();
+
+    public ReviewRegistry(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public void add(Bet bet) {
+        synchronized (sequenceLock) {
+            long sequence = nextSequence++;
+            sequencesById.compute(bet.getId(), (id, sequences) -> {
+                Set<Long> indexed = sequences != null ? sequences : ConcurrentHashMap.newKeySet();
+                indexed.add(sequence);
+                entries.put(sequence, bet);
+                return indexed;
+            });
+        }
+        if (size.incrementAndGet() > capacity) {
+            evictOldest();
+        }
+    }
+
+    public boolean contains(int id) {
+        return sequencesById.containsKey(id);
+    }
+
+    /**
+     * Removes and returns every review entry for {@code id}, oldest first.
+     */
+    public List<Bet> removeAll(int id) {
+        List<Bet> bets = new ArrayList<>();
+        sequencesById.computeIfPresent(id, (k, sequences) -> {
+            List<Long> ordered = new ArrayList<>(sequences);
+            Collections.sort(ordered);
+            for (Long sequence : ordered) {
+                Bet bet = entries.remove(sequence);
+                if (bet != null) {
+                    size.decrementAndGet();
+                    bets.add(bet);
+                }
+            }
+            return null;
+        });
+        return bets;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    public long getEvicted() {
+        return evicted.sum();
+    }
+
+    public List<Bet> toList() {
+        List<Map.Entry<Long, Bet>> snapshot = new ArrayList<>(entries.entrySet());
+        snapshot.sort(Map.Entry.comparingByKey());
+        List<Bet> bets = new ArrayList<>(snapshot.size());
+        for (Map.Entry<Long, Bet> entry : snapshot) {
+            bets.add(entry.getValue());
+        }
+        return bets;
+    }
+
+    /**
+     * Visits the current entries without copying them; concurrent changes may or may not be seen.
+     */
+    public void forEach(Consumer<Bet> action) {
+        entries.values().forEach(action);
+    }
+
+    private void evictOldest() {
+        synchronized (sequenceLock) {
+            // every sequence below nextSequence is put, so a missing one was removed and the cursor can pass it
+            for (; evictCursor < nextSequence; evictCursor++) {
+                Bet bet = entries.get(evictCursor);
+                if (bet != null && evict(bet.getId(), evictCursor)) {
+                    evictCursor++;
+                    size.decrementAndGet();
+                    evicted.increment();
+                    return;
+                }
+            }
+        }
+    }
+
+    // false when removeAll or another evictor got the entry first
+    private boolean evict(int id, long sequence) {
+        boolean[] removed = new boolean[1];
+        sequencesById.computeIfPresent(id, (k, sequences) -> {
+            if (entries.remove(sequence) != null) {
+                removed[0] = true;
+                sequences.remove(sequence);
+            }
+            return sequences.isEmpty() ? null : sequences;
+        });
+        return removed[0];
+    }
+}
@@ -0,0 +1,388 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.ArchiveGroupBy;
+import com.sportradar.worldcupscore.model.ArchiveQuery;
+import com.sportradar.worldcupscore.model.ArchiveReport;
+import com.sportradar.worldcupscore.model.ArchiveTotals;
+import com.sportradar.worldcupscore.model.Bet;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Append-only archive of settled bets in memory-mapped, fixed-size segment files laid out column by column.
+ * Strings go through a dictionary persisted next to the segments. Queries skip segments outside the time range
+ * and scan only the columns they need, in parallel, without materializing bets.
+ */
+public class SettledBetArchive {
+
+    private static final int MAGIC = 0x42455441;
+    // magic, rows, min time, max time, capacity
+    private static final int HEADER_BYTES = 32;
+    private static final int ROWS_OFFSET = 4;
+    private static final int MIN_TIME_OFFSET = 8;
+    private static final int MAX_TIME_OFFSET = 16;
+    private static final int CAPACITY_OFFSET = 24;
+    // id, settled at, amount, odds, result, client, event, market, selection, status
+    private static final int ROW_BYTES = 4 + 8 + 8 + 8 + 8 + 4 + 4 + 4 + 4 + 1;
+    static final int MAX_SEGMENT_ROWS = (Integer.MAX_VALUE - HEADER_BYTES) / ROW_BYTES;
+    private static final int SCAN_RANGE_ROWS = 1 << 16;
+    private static final String DICTIONARY_FILE = "dictionary.bin";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".col";
+    private static final String NO_VALUE = "(none)";
+
+    private final Path directory;
+    private final int segmentRows;
+    private final StringDictionary dictionary = new StringDictionary();
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+    // guarded by this
+    private DataOutputStream dictionaryOut;
+    private int persistedStrings;
+
+    public SettledBetArchive(Path directory, int segmentRows) {
+        if (segmentRows <= 0 || segmentRows > MAX_SEGMENT_ROWS) {
+            throw new IllegalArgumentException("Segment rows must be between 1 and " + MAX_SEGMENT_ROWS);
+        }
+        this.directory = directory;
+        this.segmentRows = segmentRows;
+    }
+
+    /**
+     * Loads the dictionary and maps the segments already on disk, so appends continue where they stopped.
+     */
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        Path dictionaryPath = directory.resolve(DICTIONARY_FILE);
+        if (Files.exists(dictionaryPath)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(dictionaryPath)))) {
+                while (true) {
+                    dictionary.encode(in.readUTF());
+                }
+            } catch (EOFException e) {
+                // a torn last entry is dropped, its rows were never written
+            }
+        }
+        persistedStrings = dictionary.size();
+        // rewrite what was readable, so a torn entry cannot end up in front of new ones
+        Path rewritten = directory.resolve(DICTIONARY_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(rewritten))) {
+            for (int id = 0; id < persistedStrings; id++) {
+                out.writeUTF(dictionary.decode(id));
+            }
+        }
+        Files.move(rewritten, dictionaryPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        dictionaryOut = new DataOutputStream(Files.newOutputStream(dictionaryPath, StandardOpenOption.APPEND));
+
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segmentFiles = files
+                    .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted()
+                    .toList();
+            for (Path file : segmentFiles) {
+                segments.add(Segment.open(file));
+            }
+        }
+    }
+
+    public synchronized void append(Bet bet, double result, long settledAt) {
+        try {
+            int client = encode(bet.getClient());
+            int event = encode(bet.getEvent());
+            int market = encode(bet.getMarket());
+            int selection = encode(bet.getSelection());
+            Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (segment == null || segment.rows == segment.capacity) {
+                segment = Segment.create(directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, segments.size(),
+                        SEGMENT_SUFFIX)), segmentRows);
+                segments.add(segment);
+            }
+            segment.write(bet, result, settledAt, client, event, market, selection);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long size() {
+        long rows = 0;
+        for (Segment segment : segments) {
+            rows += segment.rows;
+        }
+        return rows;
+    }
+
+    public ArchiveReport query(ArchiveQuery query) {
+        int event = dictionary.lookup(query.getEvent());
+        int market = dictionary.lookup(query.getMarket());
+        int client = dictionary.lookup(query.getClient());
+        if ((query.getEvent() != null && event == StringDictionary.NULL_ID)
+                || (query.getMarket() != null && market == StringDictionary.NULL_ID)
+                || (query.getClient() != null && client == StringDictionary.NULL_ID)) {
+            return report(query.getGroupBy(), new ScanResult());
+        }
+        Filter filter = new Filter(query.getEvent() != null, event, query.getMarket() != null, market,
+                query.getClient() != null, client,
+                query.getFrom() == null ? Long.MIN_VALUE : query.getFrom().toEpochMilli(),
+                query.getTo() == null ? Long.MAX_VALUE : query.getTo().toEpochMilli(),
+                query.getGroupBy());
+
+        List<ScanRange> ranges = new ArrayList<>();
+        for (Segment segment : segments) {
+            int rows = segment.rows;
+            // time pushdown: skip whole segments outside the range
+            if (rows == 0 || segment.maxTime < filter.from || segment.minTime >= filter.to) {
+                continue;
+            }
+            boolean checkTime = segment.minTime < filter.from || segment.maxTime >= filter.to;
+            for (int start = 0; start < rows; start += SCAN_RANGE_ROWS) {
+                ranges.add(new ScanRange(segment, start, Math.min(rows, start + SCAN_RANGE_ROWS), checkTime));
+            }
+        }
+        ScanResult result = ranges.parallelStream()
+                .map(range -> range.scan(filter))
+                .reduce(new ScanResult(), ScanResult::merge);
+        return report(query.getGroupBy(), result);
+    }
+
+    public synchronized void close() {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+        if (dictionaryOut != null) {
+            try {
+                dictionaryOut.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private ArchiveReport report(ArchiveGroupBy groupBy, ScanResult result) {
+        Map<String, ArchiveTotals> groups = new TreeMap<>();
+        result.groups.forEach((key, totals) -> {
+            String label = dictionary.decode(key);
+            groups.put(label == null ? NO_VALUE : label, new ArchiveTotals((long) totals[0], totals[1], totals[2]));
+        });
+        return new ArchiveReport(groupBy, new ArchiveTotals(result.count, result.amount, result.profitLoss), groups);
+    }
+
+    // the string is written to disk before any row can reference its id
+    private int encode(String value) throws IOException {
+        int id = dictionary.encode(value);
+        if (id >= persistedStrings) {
+            dictionaryOut.writeUTF(value);
+            dictionaryOut.flush();
+            persistedStrings = id + 1;
+        }
+        return id;
+    }
+
+    private static final class Filter {
+        private final boolean byEvent;
+        private final int event;
+        private final boolean byMarket;
+        private final int market;
+        private final boolean byClient;
+        private final int client;
+        private final long from;
+        private final long to;
+        private final ArchiveGroupBy groupBy;
+
+        private Filter(boolean byEvent, int event, boolean byMarket, int market, boolean byClient, int client,
+                       long from, long to, ArchiveGroupBy groupBy) {
+            this.byEvent = byEvent;
+            this.event = event;
+            this.byMarket = byMarket;
+            this.market = market;
+            this.byClient = byClient;
+            this.client = client;
+            this.from = from;
+            this.to = to;
+            this.groupBy = groupBy;
+        }
+    }
+
+    private static final class ScanRange {
+        private final Segment segment;
+        private final int start;
+        private final int end;
+        private final boolean checkTime;
+
+        private ScanRange(Segment segment, int start, int end, boolean checkTime) {
+            this.segment = segment;
+            this.start = start;
+            this.end = end;
+            this.checkTime = checkTime;
+        }
+
+        private ScanResult scan(Filter filter) {
+            MappedByteBuffer buffer = segment.buffer;
+            int capacity = segment.capacity;
+            int times = HEADER_BYTES + 4 * capacity;
+            int amounts = times + 8 * capacity;
+            int results = amounts + 16 * capacity;
+            int clients = results + 8 * capacity;
+            int events = clients + 4 * capacity;
+            int markets = events + 4 * capacity;
+            int groupColumn = switch (filter.groupBy) {
+                case EVENT -> events;
+                case MARKET -> markets;
+                case CLIENT -> clients;
+                case NONE -> -1;
+            };
+            ScanResult result = new ScanResult();
+            for (int row = start; row < end; row++) {
+                if (filter.byEvent && buffer.getInt(events + 4 * row) != filter.event) {
+                    continue;
+                }
+                if (filter.byMarket && buffer.getInt(markets + 4 * row) != filter.market) {
+                    continue;
+                }
+                if (filter.byClient && buffer.getInt(clients + 4 * row) != filter.client) {
+                    continue;
+                }
+                if (checkTime) {
+                    long time = buffer.getLong(times + 8 * row);
+                    if (time < filter.from || time >= filter.to) {
+                        continue;
+                    }
+                }
+                double amount = buffer.getDouble(amounts + 8 * row);
+                double profitLoss = buffer.getDouble(results + 8 * row);
+                result.count++;
+                result.amount += amount;
+                result.profitLoss += profitLoss;
+                if (groupColumn >= 0) {
+                    double[] group = result.groups.computeIfAbsent(buffer.getInt(groupColumn + 4 * row), k -> new double[3]);
+                    group[0]++;
+                    group[1] += amount;
+                    group[2] += profitLoss;
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class ScanResult {
+        private long count;
+        private double amount;
+        private double profitLoss;
+        // dictionary id -> count, amount, profit/loss
+        private final Map<Integer, double[]> groups = new HashMap<>();
+
+        private ScanResult merge(ScanResult other) {
+            ScanResult merged = new ScanResult();
+            merged.count = count + other.count;
+            merged.amount = amount + other.amount;
+            merged.profitLoss = profitLoss + other.profitLoss;
+            merged.groups.putAll(groups);
+            other.groups.forEach((key, totals) -> merged.groups.merge(key, totals,
+                    (a, b) -> new double[]{a[0] + b[0], a[1] + b[1], a[2] + b[2]}));
+            return merged;
+        }
+    }
+
+    private static final class Segment {
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        // written by the appender after the row, read by queries
+        private volatile int rows;
+        private volatile long minTime = Long.MAX_VALUE;
+        private volatile long maxTime = Long.MIN_VALUE;
+
+        private Segment(FileChannel channel, int capacity) throws IOException {
+            this.channel = channel;
+            this.capacity = capacity;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) ROW_BYTES * capacity);
+        }
+
+        static Segment create(Path file, int capacity) throws IOException {
+            Segment segment = new Segment(FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE), capacity);
+            segment.buffer.putInt(0, MAGIC);
+            segment.buffer.putInt(CAPACITY_OFFSET, capacity);
+            segment.buffer.putLong(MIN_TIME_OFFSET, Long.MAX_VALUE);
+            segment.buffer.putLong(MAX_TIME_OFFSET, Long.MIN_VALUE);
+            return segment;
+        }
+
+        static Segment open(Path file) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt(0) != MAGIC) {
+                channel.close();
+                throw new IOException("Not an archive segment: " + file);
+            }
+            Segment segment = new Segment(channel, header.getInt(CAPACITY_OFFSET));
+            segment.minTime = header.getLong(MIN_TIME_OFFSET);
+            segment.maxTime = header.getLong(MAX_TIME_OFFSET);
+            segment.rows = header.getInt(ROWS_OFFSET);
+            return segment;
+        }
+
+        void write(Bet bet, double result, long settledAt, int client, int event, int market, int selection) {
+            int row = rows;
+            int c = capacity;
+            int offset = HEADER_BYTES;
+            buffer.putInt(offset + 4 * row, bet.getId());
+            offset += 4 * c;
+            buffer.putLong(offset + 8 * row, settledAt);
+            offset += 8 * c;
+            buffer.putDouble(offset + 8 * row, bet.getAmount());
+            offset += 8 * c;
+            buffer.putDouble(offset + 8 * row, bet.getOdds());
+            offset += 8 * c;
+            buffer.putDouble(offset + 8 * row, result);
+            offset += 8 * c;
+            buffer.putInt(offset + 4 * row, client);
+            offset += 4 * c;
+            buffer.putInt(offset + 4 * row, event);
+            offset += 4 * c;
+            buffer.putInt(offset + 4 * row, market);
+            offset += 4 * c;
+            buffer.putInt(offset + 4 * row, selection);
+            offset += 4 * c;
+            buffer.put(offset + row, (byte) bet.getStatus().ordinal());
+
+            if (settledAt < minTime) {
+                minTime = settledAt;
+                buffer.putLong(MIN_TIME_OFFSET, settledAt);
+            }
+            if (settledAt > maxTime) {
+                maxTime = settledAt;
+                buffer.putLong(MAX_TIME_OFFSET, settledAt);
+            }
+            // the row count goes last, so a crash never exposes a half-written row
+            buffer.putInt(ROWS_OFFSET, row + 1);
+            rows = row + 1;
+        }
+
+        void close() {
+            buffer.force();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.sportradar.worldcupscore.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of settled bet ids, split Roaring-style into 2^16 chunks keyed by the high 16 bits.
+ * Sparse chunks are kept as sorted arrays and switch to a 65536-bit bitmap once they pass 4096 entries.
+ */
+public class SettledBetBitmap {
+
+    static final int ARRAY_CONTAINER_MAX = 4096;
+
+    private final ConcurrentHashMap<Integer, Container> containers = new ConcurrentHashMap<>();
+    private final AtomicInteger cardinality = new AtomicInteger();
+
+    public boolean add(int id) {
+        Container container = containers.computeIfAbsent(id >>> 16, k -> new Container());
+        boolean added = container.add((char) id);
+        if (added) {
+            cardinality.incrementAndGet();
+        }
+        return added;
+    }
+
+    public boolean contains(int id) {
+        Container container = containers.get(id >>> 16);
+        return container != null && container.contains((char) id);
+    }
+
+    public int size() {
+        return cardinality.get();
+    }
+
+    public void forEach(IntConsumer action) {
+        containers.forEach((high, container) -> container.forEach(high << 16, action));
+    }
+
+    long sizeInBytes() {
+        long bytes = 0;
+        for (Container container : containers.values()) {
+            bytes += container.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * One 2^16 chunk. Either {@code array} (sorted, {@code size} used slots) or {@code bitmap} is set.
+     */
+    private static final class Container {
+        private char[] array = new char[4];
+        private long[] bitmap;
+        private int size;
+
+        synchronized boolean add(char low) {
+            if (bitmap != null) {
+                long mask = 1L << low;
+                int word = low >>> 6;
+                if ((bitmap[word] & mask) != 0) {
+                    return false;
+                }
+                bitmap[word] |= mask;
+                size++;
+                return true;
+            }
+            int index = Arrays.binarySearch(array, 0, size, low);
+            if (index >= 0) {
+                return false;
+            }
+            if (size == ARRAY_CONTAINER_MAX) {
+                toBitmap();
+                return add(low);
+            }
+            int insertAt = -index - 1;
+            if (size == array.length) {
+                array = Arrays.copyOf(array, Math.min(ARRAY_CONTAINER_MAX, array.length * 2));
+            }
+            System.arraycopy(array, insertAt, array, insertAt + 1, size - insertAt);
+            array[insertAt] = low;
+            size++;
+            return true;
+        }
+
+        synchronized boolean contains(char low) {
+            if (bitmap != null) {
+                return (bitmap[low >>> 6] & (1L << low)) != 0;
+            }
+            return Arrays.binarySearch(array, 0, size, low) >= 0;
+        }
+
+        // copies the chunk under the lock and calls the action outside it, so a slow consumer never blocks adds
+        void forEach(int base, IntConsumer action) {
+            int[] ids;
+            synchronized (this) {
+                ids = new int[size];
+                int next = 0;
+                if (bitmap != null) {
+                    for (int word = 0; word < bitmap.length; word++) {
+                        long bits = bitmap[word];
+                        while (bits != 0) {
+                            ids[next++] = base | (word << 6) | Long.numberOfTrailingZeros(bits);
+                            bits &= bits - 1;
+                        }
+                    }
+                } else {
+                    for (int i = 0; i < size; i++) {
+                        ids[next++] = base | array[i];
+                    }
+                }
+            }
+            for (int id : ids) {
+                action.accept(id);
+            }
+        }
+
+        synchronized long sizeInBytes() {
+            return bitmap != null ? bitmap.length * 8L : array.length * 2L;
+        }
+
+        private void toBitmap() {
+            bitmap = new long[1024];
+            for (int i = 0; i < size; i++) {
+                char low = array[i];
+                bitmap[low >>> 6] |= 1L << low;
+            }
+            array = null;
+        }
+    }
+}
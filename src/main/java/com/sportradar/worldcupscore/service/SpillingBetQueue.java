@@ -0,0 +1,554 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import com.sportradar.worldcupscore.util.Messages;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * FIFO bet queue with an overflow tier on disk. Up to {@code memoryBets} bets are kept on the heap; past that
+ * watermark, and for as long as anything is left on disk, bets are appended to memory-mapped segment files and
+ * read back in order once the heap part drains. A bet read back from disk stays pending until
+ * {@link #acknowledge(Bet)}, and the position of the oldest pending one is persisted, so after a crash every
+ * spilled bet that was not acknowledged is delivered again.
+ */
+public class SpillingBetQueue extends AbstractQueue<Bet> implements BlockingQueue<Bet> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpillingBetQueue.class);
+
+    static final int REFILL_BATCH = 1024;
+    // committed position, segment size
+    private static final int HEAD_BYTES = 12;
+    private static final String HEAD_FILE = "head";
+    private static final String SEGMENT_PREFIX = "spill-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    // every record is prefixed with its length; a zero length ends the segment
+    private static final int LENGTH_BYTES = 4;
+    private static final BetStatus[] STATUSES = BetStatus.values();
+
+    private final Path directory;
+    private final int memoryBets;
+    private int segmentBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    // guarded by lock; positions are global byte offsets, segment * segmentBytes + offset
+    private final ArrayDeque<Entry> memory = new ArrayDeque<>();
+    private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+    private final Map<Bet, Pending> inFlight = new IdentityHashMap<>();
+    private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+    private MappedByteBuffer head;
+    private long writePosition;
+    private long readPosition;
+    private long committedPosition;
+    // records before this position were written by an earlier run
+    private long recoveredEnd;
+    private int onDisk;
+    private long spilled;
+
+    public SpillingBetQueue(Path directory, int memoryBets, int segmentBytes) {
+        if (memoryBets <= 0 || segmentBytes <= LENGTH_BYTES) {
+            throw new IllegalArgumentException("Memory watermark and segment size must be positive");
+        }
+        this.directory = directory;
+        this.memoryBets = memoryBets;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Maps the segments left by an earlier run, so the bets they hold past the committed position are queued again.
+     */
+    public void open() throws IOException {
+        lock.lock();
+        try {
+            Files.createDirectories(directory);
+            Path headPath = directory.resolve(HEAD_FILE);
+            boolean existing = Files.exists(headPath);
+            try (FileChannel channel = FileChannel.open(headPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                head = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEAD_BYTES);
+            }
+            if (existing && head.getInt(8) > 0) {
+                // the files on disk are laid out with the size they were written with
+                segmentBytes = head.getInt(8);
+                committedPosition = head.getLong(0);
+            } else {
+                head.putLong(0, 0);
+                head.putInt(8, segmentBytes);
+            }
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(f -> f.getFileName().toString().startsWith(SEGMENT_PREFIX)).toList()) {
+                    String name = file.getFileName().toString();
+                    long index = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                    if (index < segmentOf(committedPosition)) {
+                        Files.delete(file);
+                    } else {
+                        segments.put(index, map(index));
+                    }
+                }
+            }
+            readPosition = committedPosition;
+            long position = committedPosition;
+            // acknowledgements move the committed position to the end of a record, never past a trailing empty segment
+            long lastRecordEnd = committedPosition;
+            while (segments.containsKey(segmentOf(position))) {
+                int length = lengthAt(position);
+                if (length > 0) {
+                    onDisk++;
+                    position += LENGTH_BYTES + length;
+                    lastRecordEnd = position;
+                } else if (segments.containsKey(segmentOf(position) + 1)) {
+                    position = nextSegment(position);
+                } else {
+                    break;
+                }
+            }
+            writePosition = position;
+            recoveredEnd = lastRecordEnd;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Bet bet) {
+        if (bet == null) {
+            throw new NullPointerException();
+        }
+        lock.lock();
+        try {
+            if (onDisk == 0 && memory.size() < memoryBets) {
+                memory.addLast(new Entry(bet, null));
+            } else {
+                // once anything is on disk everything goes behind it, so order holds across the tiers
+                append(encode(bet));
+                onDisk++;
+                spilled++;
+            }
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    @Override
+    public void put(Bet bet) {
+        offer(bet);
+    }
+
+    @Override
+    public boolean offer(Bet bet, long timeout, TimeUnit unit) {
+        return offer(bet);
+    }
+
+    @Override
+    public Bet poll() {
+        lock.lock();
+        try {
+            return isEmptyLocked() ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Bet take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (isEmptyLocked()) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Bet poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (isEmptyLocked()) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Bet peek() {
+        lock.lock();
+        try {
+            if (memory.isEmpty() && onDisk > 0) {
+                refill();
+            }
+            Entry entry = memory.peekFirst();
+            return entry == null ? null : entry.bet;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks a bet taken from this queue as processed. Bets that came back from disk are only forgotten once
+     * they and every spilled bet before them are acknowledged.
+     */
+    public void acknowledge(Bet bet) {
+        lock.lock();
+        try {
+            Pending done = inFlight.remove(bet);
+            if (done == null) {
+                return;
+            }
+            done.acknowledged = true;
+            long committed = committedPosition;
+            while (!pending.isEmpty() && pending.peekFirst().acknowledged) {
+                committed = pending.pollFirst().end;
+            }
+            if (committed != committedPosition) {
+                commit(committed);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return memory.size() + onDisk;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bets currently in the heap tier, at most the memory watermark plus one refill batch.
+     */
+    public int getInMemory() {
+        lock.lock();
+        try {
+            return memory.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bets currently in the disk tier.
+     */
+    public int getOnDisk() {
+        lock.lock();
+        try {
+            return onDisk;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether every bet recovered from an earlier run has been processed and acknowledged.
+     */
+    public boolean isRecovered() {
+        lock.lock();
+        try {
+            return committedPosition >= recoveredEnd;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bets written to disk since the queue was opened.
+     */
+    public long getSpilled() {
+        lock.lock();
+        try {
+            return spilled;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int drainTo(Collection<? super Bet> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Bet> c, int maxElements) {
+        lock.lock();
+        try {
+            int drained = 0;
+            while (!isEmptyLocked() && drained < maxElements) {
+                c.add(dequeue());
+                drained++;
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Iterates over the bets on the heap only; spilled bets are not read back for it.
+     */
+    @Override
+    public Iterator<Bet> iterator() {
+        List<Bet> snapshot = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Entry entry : memory) {
+                snapshot.add(entry.bet);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return snapshot.iterator();
+    }
+
+    /**
+     * Flushes the committed position and releases the mappings; unacknowledged spilled bets stay on disk.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            if (head != null) {
+                head.force();
+            }
+            segments.values().forEach(MappedByteBuffer::force);
+            segments.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isEmptyLocked() {
+        return memory.isEmpty() && onDisk == 0;
+    }
+
+    private Bet dequeue() {
+        if (memory.isEmpty()) {
+            refill();
+        }
+        Entry entry = memory.pollFirst();
+        if (entry.pending != null) {
+            inFlight.put(entry.bet, entry.pending);
+        }
+        return entry.bet;
+    }
+
+    // moves the next spilled bets back to the heap; only called when the heap part is empty
+    private void refill() {
+        int moved = 0;
+        while (moved < REFILL_BATCH && onDisk > 0) {
+            int length = lengthAt(readPosition);
+            if (length == 0) {
+                readPosition = nextSegment(readPosition);
+                continue;
+            }
+            MappedByteBuffer segment = segments.get(segmentOf(readPosition));
+            ByteBuffer record = segment.slice(offsetOf(readPosition) + LENGTH_BYTES, length);
+            Bet bet = decode(record, readPosition < recoveredEnd);
+            readPosition += LENGTH_BYTES + length;
+            Pending read = new Pending(readPosition);
+            pending.addLast(read);
+            memory.addLast(new Entry(bet, read));
+            onDisk--;
+            moved++;
+        }
+    }
+
+    private void append(byte[] record) {
+        if (LENGTH_BYTES + record.length > segmentBytes) {
+            throw new IllegalArgumentException(String.format(Locale.ROOT, Messages.SPILL_RECORD_TOO_LARGE,
+                    record.length, segmentBytes));
+        }
+        if (offsetOf(writePosition) + LENGTH_BYTES + record.length > segmentBytes) {
+            // the zero length left behind tells readers to move on to the next segment
+            writePosition = nextSegment(writePosition);
+        }
+        MappedByteBuffer segment = segments.get(segmentOf(writePosition));
+        if (segment == null) {
+            try {
+                segment = map(segmentOf(writePosition));
+            } catch (IOException e) {
+                throw new IllegalStateException(String.format(Locale.ROOT, Messages.SPILL_FAILED, e.getMessage()), e);
+            }
+            segments.put(segmentOf(writePosition), segment);
+        }
+        int offset = offsetOf(writePosition);
+        segment.put(offset + LENGTH_BYTES, record);
+        // the length goes last, so a record is never visible half written
+        segment.putInt(offset, record.length);
+        writePosition += LENGTH_BYTES + record.length;
+    }
+
+    private void commit(long position) {
+        committedPosition = position;
+        head.putLong(0, position);
+        Map<Long, MappedByteBuffer> consumed = segments.headMap(segmentOf(position));
+        for (Long index : List.copyOf(consumed.keySet())) {
+            consumed.remove(index);
+            try {
+                Files.deleteIfExists(segmentPath(index));
+            } catch (IOException e) {
+                logger.warn(Messages.SPILL_DELETE_FAILED, index, e.getMessage());
+            }
+        }
+    }
+
+    private int lengthAt(long position) {
+        int offset = offsetOf(position);
+        if (offset + LENGTH_BYTES > segmentBytes) {
+            return 0;
+        }
+        return segments.get(segmentOf(position)).getInt(offset);
+    }
+
+    private MappedByteBuffer map(long index) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format(Locale.ROOT, "%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private long segmentOf(long position) {
+        return position / segmentBytes;
+    }
+
+    private int offsetOf(long position) {
+        return (int) (position % segmentBytes);
+    }
+
+    private long nextSegment(long position) {
+        return (segmentOf(position) + 1) * segmentBytes;
+    }
+
+    // id, amount, odds, status, ingested at, tracking token, then client, event, market, selection
+    static byte[] encode(Bet bet) {
+        byte[][] strings = {utf8(bet.getClient()), utf8(bet.getEvent()), utf8(bet.getMarket()), utf8(bet.getSelection())};
+        int length = 4 + 8 + 8 + 1 + 8 + 8;
+        for (byte[] string : strings) {
+            length += 4 + (string == null ? 0 : string.length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length)
+                .putInt(bet.getId())
+                .putDouble(bet.getAmount())
+                .putDouble(bet.getOdds())
+                .put((byte) (bet.getStatus() == null ? -1 : bet.getStatus().ordinal()))
+                .putLong(bet.getIngestedAtNanos())
+                .putLong(bet.getTrackingToken());
+        for (byte[] string : strings) {
+            if (string == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(string.length).put(string);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Bets from an earlier run lose their tracking token and are stamped now: neither means anything any more.
+     */
+    static Bet decode(ByteBuffer record, boolean recovered) {
+        int id = record.getInt();
+        double amount = record.getDouble();
+        double odds = record.getDouble();
+        byte status = record.get();
+        long ingestedAtNanos = record.getLong();
+        long trackingToken = record.getLong();
+        Bet bet = new Bet.BetBuilder()
+                .id(id)
+                .amount(amount)
+                .odds(odds)
+                .status(status < 0 ? null : STATUSES[status])
+                .client(string(record))
+                .event(string(record))
+                .market(string(record))
+                .selection(string(record))
+                .build();
+        return recovered ? bet.ingested(System.nanoTime(), 0) : bet.ingested(ingestedAtNanos, trackingToken);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer record) {
+        int length = record.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Entry {
+        private final Bet bet;
+        // null for bets that never left the heap
+        private final Pending pending;
+
+        private Entry(Bet bet, Pending pending) {
+            this.bet = bet;
+            this.pending = pending;
+        }
+    }
+
+    /**
+     * A bet read back from disk; {@code end} is the position just past its record.
+     */
+    private static final class Pending {
+        private final long end;
+        private boolean acknowledged;
+
+        private Pending(long end) {
+            this.end = end;
+        }
+    }
+}
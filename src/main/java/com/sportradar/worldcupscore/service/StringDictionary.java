@@ -0,0 +1,59 @@
+package com.sportradar.worldcupscore.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only dictionary encoding strings as dense int ids; {@code null} is encoded as -1.
+ */
+class StringDictionary {
+
+    static final int NULL_ID = -1;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[64];
+    private int size;
+
+    int encode(String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            String[] current = values;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+            }
+            current[size] = value;
+            // publish the array before the id, so whoever sees the id can decode it
+            values = current;
+            ids.put(value, size);
+            return size++;
+        }
+    }
+
+    /**
+     * Returns the id of {@code value} without adding it, or -1 when it was never encoded.
+     */
+    int lookup(String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        return ids.getOrDefault(value, NULL_ID);
+    }
+
+    String decode(int id) {
+        return id == NULL_ID ? null : values[id];
+    }
+
+    int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,79 @@
+package com.sportradar.worldcupscore.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link BetProcessor} per configured tenant (tournament or competition), each with its own queue, state and
+ * aggregates. The default processor serves the un-scoped endpoints. When a thread budget is set, every processor
+ * takes a permit from one {@link ThreadBudget} per bet, granted round-robin across tenants, so a busy tenant
+ * cannot take all processing slots however many workers it has.
+ */
+@Service
+public class TenantRegistry {
+
+    private final AutowireCapableBeanFactory beanFactory;
+    private final BetProcessor defaultProcessor;
+
+    @Value("${bet.processor.tenants.names:}")
+    private String[] tenantNames = {};
+
+    @Value("${bet.processor.tenants.workers:2}")
+    private int tenantWorkers = 2;
+
+    // 0 leaves processing unbudgeted
+    @Value("${bet.processor.tenants.thread-budget:0}")
+    private int threadBudget;
+
+    private final Map<String, BetProcessor> processors = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TenantRegistry(AutowireCapableBeanFactory beanFactory, BetProcessor defaultProcessor) {
+        this.beanFactory = beanFactory;
+        this.defaultProcessor = defaultProcessor;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        ThreadBudget budget = threadBudget > 0 ? new ThreadBudget(threadBudget) : null;
+        defaultProcessor.setThreadBudget(budget);
+        for (String name : tenantNames) {
+            String tenant = name.trim();
+            if (tenant.isEmpty() || processors.containsKey(tenant)) {
+                continue;
+            }
+            BetProcessor processor = new BetProcessor();
+            // @Value settings first, then the tenant's own, then @PostConstruct
+            beanFactory.autowireBean(processor);
+            processor.assignTenant(tenant, tenantWorkers);
+            processor.setThreadBudget(budget);
+            beanFactory.initializeBean(processor, "betProcessor." + tenant);
+            processors.put(tenant, processor);
+        }
+    }
+
+    /**
+     * The tenant's processor, or null when the tenant is not configured.
+     */
+    public BetProcessor get(String tenant) {
+        return processors.get(tenant);
+    }
+
+    public Set<String> getTenants() {
+        return new TreeSet<>(processors.keySet());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        processors.values().forEach(BetProcessor::shutdownSystem);
+    }
+}
@@ -0,0 +1,74 @@
+package com.sportradar.worldcupscore.service;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Processing permits shared by every tenant's processor. When threads are waiting, freed permits go to the
+ * waiting tenants in turn, one permit per tenant per round, so a tenant with many workers waiting gets no
+ * more than a tenant with one.
+ */
+public class ThreadBudget {
+
+    private final int permits;
+    private int available;
+    // waiting threads per tenant; a tenant is in turns once, for as long as it has waiters
+    private final Map<String, Integer> waiting = new HashMap<>();
+    private final ArrayDeque<String> turns = new ArrayDeque<>();
+
+    public ThreadBudget(int permits) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("permits must be at least 1");
+        }
+        this.permits = permits;
+        this.available = permits;
+    }
+
+    public synchronized void acquire(String tenant) throws InterruptedException {
+        if (available > 0 && turns.isEmpty()) {
+            available--;
+            return;
+        }
+        if (waiting.merge(tenant, 1, Integer::sum) == 1) {
+            turns.addLast(tenant);
+        }
+        try {
+            while (available == 0 || !tenant.equals(turns.peekFirst())) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            leave(tenant, false);
+            notifyAll();
+            throw e;
+        }
+        available--;
+        // this tenant's turn is used: it goes to the back if more of its threads are waiting
+        leave(tenant, true);
+        notifyAll();
+    }
+
+    public synchronized void release() {
+        available++;
+        notifyAll();
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public synchronized int getAvailable() {
+        return available;
+    }
+
+    private void leave(String tenant, boolean rotate) {
+        int left = waiting.merge(tenant, -1, Integer::sum);
+        if (left == 0) {
+            waiting.remove(tenant);
+            turns.remove(tenant);
+        } else if (rotate) {
+            turns.remove(tenant);
+            turns.addLast(tenant);
+        }
+    }
+}
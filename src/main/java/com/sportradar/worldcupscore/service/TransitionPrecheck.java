@@ -0,0 +1,118 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import com.sportradar.worldcupscore.util.Messages;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Rejects updates at ingestion that {@code processBet} would only flag for review. Ids with updates still queued
+ * carry the state those updates will leave behind, so a WINNER right behind its OPEN is let through. The entry goes
+ * away once the last queued update for the id has been processed and the real state has caught up.
+ */
+public class TransitionPrecheck {
+
+    private enum Projected {
+        UNKNOWN,
+        OPEN,
+        SETTLED
+    }
+
+    private final IntFunction<BetStatus> openStatus;
+    private final IntPredicate settled;
+    // settlements for unknown ids may still meet their OPEN in the reorder window
+    private final boolean allowEarlySettlement;
+
+    private final ConcurrentHashMap<Integer, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+
+    public TransitionPrecheck(IntFunction<BetStatus> openStatus, IntPredicate settled, boolean allowEarlySettlement) {
+        this.openStatus = openStatus;
+        this.settled = settled;
+        this.allowEarlySettlement = allowEarlySettlement;
+    }
+
+    /**
+     * Admits the update and records it as in flight, or returns why it can never be applied.
+     */
+    public String admit(Bet bet) {
+        String[] reason = new String[1];
+        inFlight.compute(bet.getId(), (id, entry) -> {
+            Projected state = entry != null ? entry.state : current(id);
+            Projected next = transition(bet, state);
+            if (next == null) {
+                reason[0] = reject(bet, state);
+                return entry;
+            }
+            if (entry == null) {
+                entry = new InFlight();
+            }
+            entry.state = next;
+            entry.updates++;
+            return entry;
+        });
+        if (reason[0] != null) {
+            rejected.increment();
+        }
+        return reason[0];
+    }
+
+    /**
+     * An admitted update has been processed, whatever its outcome.
+     */
+    public void done(Bet bet) {
+        inFlight.computeIfPresent(bet.getId(), (id, entry) -> --entry.updates == 0 ? null : entry);
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private Projected current(int id) {
+        BetStatus status = openStatus.apply(id);
+        if (status == BetStatus.OPEN) {
+            return Projected.OPEN;
+        }
+        // a final status in the hot map is a settlement still on its way to the bitmaps
+        return status != null || settled.test(id) ? Projected.SETTLED : Projected.UNKNOWN;
+    }
+
+    private Projected transition(Bet bet, Projected state) {
+        if (bet.getStatus() == null) {
+            return null;
+        }
+        if (bet.getStatus() == BetStatus.OPEN) {
+            return state == Projected.UNKNOWN ? Projected.OPEN : null;
+        }
+        if (state == Projected.OPEN) {
+            return Projected.SETTLED;
+        }
+        // held for its OPEN; the id stays unknown so that OPEN is still admitted
+        return state == Projected.UNKNOWN && allowEarlySettlement ? Projected.UNKNOWN : null;
+    }
+
+    private static String reject(Bet bet, Projected state) {
+        if (bet.getStatus() == null) {
+            return String.format(Locale.ROOT, Messages.PRECHECK_NO_STATUS, bet.getId());
+        }
+        return switch (state) {
+            case SETTLED -> String.format(Locale.ROOT, Messages.PRECHECK_ALREADY_SETTLED, bet.getId());
+            case OPEN -> String.format(Locale.ROOT, Messages.PRECHECK_ALREADY_OPEN, bet.getId());
+            case UNKNOWN -> String.format(Locale.ROOT, Messages.PRECHECK_NOT_OPEN, bet.getId(), bet.getStatus());
+        };
+    }
+
+    private static final class InFlight {
+        private Projected state;
+        private int updates;
+    }
+}
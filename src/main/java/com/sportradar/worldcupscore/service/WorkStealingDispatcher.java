@@ -0,0 +1,181 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Replaces the shared queue with per-worker id groups. Bets are hashed by id into a group owned by one
+ * worker; an idle worker claims any non-empty group, its own first. A group is drained by one thread at a
+ * time and in arrival order, so updates for the same id are never reordered even when the group is stolen.
+ */
+public class WorkStealingDispatcher {
+
+    static final int BATCH_SIZE = 32;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @FunctionalInterface
+    public interface BetHandler {
+        void handle(Bet bet) throws InterruptedException;
+    }
+
+    private final Group[] groups;
+    private final WorkerSlot[] workers;
+    private final int groupsPerWorker;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder stolenGroups = new LongAdder();
+
+    public WorkStealingDispatcher(int numberOfWorkers, int groupsPerWorker) {
+        this.groupsPerWorker = Math.max(1, groupsPerWorker);
+        this.workers = new WorkerSlot[numberOfWorkers];
+        this.groups = new Group[numberOfWorkers * this.groupsPerWorker];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new WorkerSlot();
+        }
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = new Group();
+        }
+    }
+
+    public void submit(Bet bet) {
+        int index = groupOf(bet.getId());
+        groups[index].bets.offer(bet);
+        pending.incrementAndGet();
+
+        WorkerSlot owner = workers[index / groupsPerWorker];
+        if (owner.parked) {
+            LockSupport.unpark(owner.thread);
+            return;
+        }
+        // the owner is busy, hand the group to whoever is idle
+        for (WorkerSlot worker : workers) {
+            if (worker.parked) {
+                LockSupport.unpark(worker.thread);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Worker loop for slot {@code index}. Returns once {@code stopped} is true and nothing is pending.
+     */
+    public void runWorker(int index, BetHandler handler, BooleanSupplier stopped) throws InterruptedException {
+        WorkerSlot self = workers[index];
+        self.thread = Thread.currentThread();
+        while (true) {
+            Group group = claim(index);
+            if (group != null) {
+                drain(group, handler);
+                continue;
+            }
+            if (stopped.getAsBoolean() && pending.get() == 0) {
+                return;
+            }
+            self.parked = true;
+            // scan again after publishing the flag so a concurrent submit either shows up here or unparks us
+            group = claim(index);
+            if (group == null) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            self.parked = false;
+            if (group != null) {
+                // drain checks the interrupt itself, so a group claimed just before it is released again
+                drain(group, handler);
+            } else if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    public void wakeAll() {
+        for (WorkerSlot worker : workers) {
+            Thread thread = worker.thread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    public int size() {
+        return pending.get();
+    }
+
+    /**
+     * The queued bet ingested first, from the heads of all groups; batches already taken by a worker are not seen.
+     */
+    public Bet oldest() {
+        Bet oldest = null;
+        for (Group group : groups) {
+            Bet head = group.bets.peek();
+            if (head != null && (oldest == null || head.getIngestedAtNanos() - oldest.getIngestedAtNanos() < 0)) {
+                oldest = head;
+            }
+        }
+        return oldest;
+    }
+
+    public long getStolenGroups() {
+        return stolenGroups.sum();
+    }
+
+    private Group claim(int index) {
+        int own = index * groupsPerWorker;
+        for (int i = 0; i < groupsPerWorker; i++) {
+            Group group = groups[own + i];
+            if (group.tryClaim()) {
+                return group;
+            }
+        }
+        for (int i = own + groupsPerWorker; i < own + groups.length; i++) {
+            Group group = groups[i % groups.length];
+            if (group.tryClaim()) {
+                stolenGroups.increment();
+                return group;
+            }
+        }
+        return null;
+    }
+
+    private void drain(Group group, BetHandler handler) throws InterruptedException {
+        try {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                Bet bet = group.bets.poll();
+                if (bet == null) {
+                    return;
+                }
+                pending.decrementAndGet();
+                handler.handle(bet);
+            }
+        } finally {
+            group.claimed.set(false);
+        }
+    }
+
+    private int groupOf(int id) {
+        int h = id * 0x9E3779B9;
+        return Math.floorMod(h ^ (h >>> 16), groups.length);
+    }
+
+    private static final class Group {
+        private final ConcurrentLinkedQueue<Bet> bets = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private boolean tryClaim() {
+            return !bets.isEmpty() && !claimed.get() && claimed.compareAndSet(false, true);
+        }
+    }
+
+    private static final class WorkerSlot {
+        private volatile Thread thread;
+        private volatile boolean parked;
+    }
+}
@@ -3,13 +3,48 @@ package com.sportradar.worldcupscore.util;
 public class Messages {
     public static final String SHUTTING_DOWN = "The system is shutting down. New bets are not being accepted.";
     public static final String BET_REVIEW = "Bet {} is flagged for review due to invalid sequence: {}";
+    public static final String BET_HELD = "Bet {} arrived before its OPEN, holding {} in the reorder window.";
+    public static final String BET_RECONCILED = "Bet {} with status {} was resolved from review.";
     public static final String BET_PROCESSED = "Bet with id {} has been processed successfully.";
+    public static final String BET_FAILED = "Bet {} with status {} failed while being applied and is flagged for review.";
+    public static final String MARKET_SETTLED = "Market {}/{} settled in bulk: {} bets, winning selection {}.";
+    public static final String RATE_LIMITED = "Client %s exceeded its rate limit, bet %d was not accepted.";
+    public static final String PRECHECK_NOT_OPEN = "Bet %d cannot be %s: it has not been opened.";
+    public static final String PRECHECK_ALREADY_OPEN = "Bet %d is already open.";
+    public static final String PRECHECK_ALREADY_SETTLED = "Bet %d is already settled.";
+    public static final String PRECHECK_NO_STATUS = "Bet %d has no status.";
+    public static final String ARCHIVE_FAILED = "Bet {} could not be archived: {}";
+    public static final String REPLAY_NO_FILE = "No replay file given, set bet.replay.file.";
+    public static final String REPLAY_FAILED = "Replay of {} failed: {}";
+    public static final String REPLAY_COMPLETED = "Replayed {} bets from {} in {} ms ({} bets/min).";
+    public static final String ALERT_TRIGGERED = "Alert {}: {} {} went {} {} with {} (bet {}).";
+    public static final String ALERT_DELIVERY_FAILED = "Alert of rule {} could not be delivered: {}";
+    public static final String ALERT_KEY_REQUIRED = "Rules on %s need a key.";
+    public static final String ALERT_SELECTION_KEY = "Selection keys have the form event/market/selection, got %s.";
+    public static final String SPILL_RECORD_TOO_LARGE = "A bet of %d bytes does not fit in spill segments of %d bytes.";
+    public static final String SPILL_FAILED = "Bets could not be spilled to disk: %s";
+    public static final String SPILL_DELETE_FAILED = "Spill segment {} could not be deleted: {}";
+    public static final String SPILL_RECOVERED = "{} spilled bets recovered from {}.";
+    public static final String STREAM_LINE_REJECTED = "line %d: %s";
+    public static final String STREAM_LINE_TOO_LONG = "longer than %d bytes";
+    public static final String STREAM_FAILED = "Bet stream failed after {} accepted bets: {}";
+    public static final String STREAM_LINE_FAILED = "Bet stream line {} could not be queued.";
+    public static final String STARTUP_REPORT = "Ready in {} ms (JVM up {} ms), resident set {}, AOT {}, CDS {}.";
+    public static final String WORK_STEALING_IGNORES = "Work stealing is enabled, {} does not apply to it and is ignored.";
     public static final String SHUTDOWN_COMPLETED = "System shutdown completed.";
     public static final String SUMMARY_HEADER_TOTAL_PROCESSED = "Total bets processed: ";
     public static final String SUMMARY_HEADER_TOTAL_AMOUNT = "Total bets amount: ";
     public static final String SUMMARY_HEADER_TOTAL_PROFIT_LOSS = "Total result (profit/loss): ";
     public static final String SUMMARY_HEADER_TOP_WINNERS = "Top 5 customers with the highest winnings: ";
     public static final String SUMMARY_HEADER_TOP_LOSERS = "Top 5 customers with the highest losses: ";
+    public static final String SUMMARY_HEADER_TOP_VOLUME = "Top 5 customers by number of bets: ";
     public static final String SUMMARY_HEADER_REVIEW = "Bets flagged for review: ";
+    public static final String SUMMARY_HEADER_RECONCILED = "Bets resolved from review: ";
+    public static final String SUMMARY_HEADER_RATE_LIMITED = "Bets rejected by rate limit: ";
+    public static final String SUMMARY_HEADER_PRECHECK = "Bets rejected at ingestion: ";
+    public static final String SUMMARY_REORDER = "Reorder window: %d held, %d released, %d expired, %d rejected, avg wait %.2f ms, max wait %.2f ms";
+    public static final String SUMMARY_SPILL = "Spill to disk: %d bets spilled, %d on disk";
+    public static final String SUMMARY_STAGE = "Stage %s (%d threads, batch %d): %d processed, %d queued, avg service %.2f ms, max service %.2f ms";
+    public static final String SUMMARY_LANE = "Lane %s (weight %d): %d dispatched, %d queued, avg wait %.2f ms, max wait %.2f ms";
 
 }
@@ -0,0 +1,23 @@
+package com.sportradar.worldcupscore.actuator;
+
+import com.sportradar.worldcupscore.model.LagReport;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class BetLagEndpointTest {
+
+    @Test
+    void testLag() {
+        BetProcessor betProcessor = mock(BetProcessor.class);
+        LagReport report = new LagReport(1.0, 2.0, 3, 4, 5.0, 6.0, Collections.emptyList());
+        when(betProcessor.getLagReport()).thenReturn(report);
+
+        assertEquals(report, new BetLagEndpoint(betProcessor).lag());
+        verify(betProcessor).getLagReport();
+    }
+}
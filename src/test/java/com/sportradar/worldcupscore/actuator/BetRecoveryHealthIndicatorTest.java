@@ -0,0 +1,34 @@
+package com.sportradar.worldcupscore.actuator;
+
+import com.sportradar.worldcupscore.service.BetProcessor;
+import com.sportradar.worldcupscore.service.TenantRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class BetRecoveryHealthIndicatorTest {
+
+    @Test
+    void testOutOfServiceWhileRecovering() {
+        BetProcessor betProcessor = mock(BetProcessor.class);
+        BetProcessor tenantProcessor = mock(BetProcessor.class);
+        TenantRegistry tenantRegistry = mock(TenantRegistry.class);
+        when(tenantRegistry.getTenants()).thenReturn(Set.of("league"));
+        when(tenantRegistry.get("league")).thenReturn(tenantProcessor);
+        when(betProcessor.isRecovered()).thenReturn(true);
+        when(tenantProcessor.isRecovered()).thenReturn(false, true);
+        BetRecoveryHealthIndicator indicator = new BetRecoveryHealthIndicator(betProcessor, tenantRegistry);
+
+        Health recovering = indicator.health();
+        assertEquals(Status.OUT_OF_SERVICE, recovering.getStatus());
+        assertEquals(List.of("league"), recovering.getDetails().get("recovering"));
+
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+}
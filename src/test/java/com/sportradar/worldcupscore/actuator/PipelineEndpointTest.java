@@ -0,0 +1,21 @@
+package com.sportradar.worldcupscore.actuator;
+
+import com.sportradar.worldcupscore.service.BetProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class PipelineEndpointTest {
+
+    @Test
+    void testStages() {
+        BetProcessor betProcessor = mock(BetProcessor.class);
+        when(betProcessor.getPipelineStats()).thenReturn(List.of());
+
+        assertEquals(List.of(), new PipelineEndpoint(betProcessor).stages());
+        verify(betProcessor).getPipelineStats();
+    }
+}
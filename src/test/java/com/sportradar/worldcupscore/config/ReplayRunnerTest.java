@@ -0,0 +1,54 @@
+package com.sportradar.worldcupscore.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ReplayRunnerTest {
+
+    @TempDir
+    Path directory;
+
+    private ReplayRunner runner(String file) throws Exception {
+        ReplayRunner runner = new ReplayRunner(mock(ApplicationContext.class));
+        Field field = ReplayRunner.class.getDeclaredField("file");
+        field.setAccessible(true);
+        field.set(runner, file);
+        return runner;
+    }
+
+    @Test
+    void testReplayPrintsSummary() throws Exception {
+        Path file = directory.resolve("bets.ndjson");
+        Files.writeString(file, """
+                {"id":1,"amount":10.0,"odds":2.0,"client":"Client1","status":"OPEN"}
+                {"id":1,"amount":10.0,"odds":2.0,"client":"Client1","status":"WINNER"}
+                """);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int exitCode = runner(file.toString()).replay(new PrintStream(out, true, StandardCharsets.UTF_8));
+
+        assertEquals(0, exitCode);
+        String summary = out.toString(StandardCharsets.UTF_8);
+        assertTrue(summary.contains("Total bets processed: 2"));
+        assertTrue(summary.contains("Client1: 10.0"));
+    }
+
+    @Test
+    void testMissingFile() throws Exception {
+        PrintStream out = new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8);
+
+        assertEquals(2, runner("").replay(out));
+        assertEquals(1, runner(directory.resolve("missing.ndjson").toString()).replay(out));
+    }
+}
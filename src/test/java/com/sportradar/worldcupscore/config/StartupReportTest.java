@@ -0,0 +1,29 @@
+package com.sportradar.worldcupscore.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StartupReportTest {
+
+    @Test
+    void testResidentKilobytes(@TempDir Path dir) throws Exception {
+        Path status = dir.resolve("status");
+        Files.writeString(status, "Name:\tjava\nVmPeak:\t  900000 kB\nVmRSS:\t  204800 kB\nThreads:\t40\n");
+
+        assertEquals(204800, StartupReport.residentKilobytes(status));
+    }
+
+    @Test
+    void testResidentKilobytesUnavailable(@TempDir Path dir) throws Exception {
+        Path status = dir.resolve("status");
+        Files.writeString(status, "Name:\tjava\n");
+
+        assertEquals(-1, StartupReport.residentKilobytes(status));
+        assertEquals(-1, StartupReport.residentKilobytes(dir.resolve("missing")));
+    }
+}
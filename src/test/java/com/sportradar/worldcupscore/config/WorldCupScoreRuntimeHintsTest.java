@@ -0,0 +1,26 @@
+package com.sportradar.worldcupscore.config;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.IngestionReport;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorldCupScoreRuntimeHintsTest {
+
+    @Test
+    void testRegistersJsonAndTenantHints() throws Exception {
+        RuntimeHints hints = new RuntimeHints();
+        new WorldCupScoreRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Bet.BetBuilder.class.getMethod("id", int.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Bet.BetBuilder.class.getMethod("build")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(IngestionReport.class.getMethod("getAccepted")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(BetProcessor.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+    }
+}
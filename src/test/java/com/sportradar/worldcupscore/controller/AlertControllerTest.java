@@ -0,0 +1,68 @@
+package com.sportradar.worldcupscore.controller;
+
+import com.sportradar.worldcupscore.model.Alert;
+import com.sportradar.worldcupscore.model.AlertDirection;
+import com.sportradar.worldcupscore.model.AlertRule;
+import com.sportradar.worldcupscore.model.AlertScope;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AlertControllerTest {
+
+    private BetProcessor betProcessor;
+    private AlertController alertController;
+
+    @BeforeEach
+    void setUp() {
+        betProcessor = mock(BetProcessor.class);
+        alertController = new AlertController(betProcessor);
+    }
+
+    @Test
+    void testAddAndListRules() {
+        AlertRule rule = new AlertRule(1, AlertScope.CLIENT_LOSS, "Client1", 500.0, AlertDirection.ABOVE);
+        when(betProcessor.addAlertRule(AlertScope.CLIENT_LOSS, "Client1", 500.0, AlertDirection.ABOVE)).thenReturn(rule);
+        when(betProcessor.getAlertRules()).thenReturn(List.of(rule));
+
+        ResponseEntity<AlertRule> response = alertController.addRule(AlertScope.CLIENT_LOSS, "Client1", 500.0, AlertDirection.ABOVE);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertSame(rule, response.getBody());
+        assertEquals(List.of(rule), alertController.getRules().getBody());
+    }
+
+    @Test
+    void testRemoveRule() {
+        when(betProcessor.removeAlertRule(1)).thenReturn(true);
+
+        assertEquals(HttpStatus.NO_CONTENT, alertController.removeRule(1).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, alertController.removeRule(2).getStatusCode());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamSubscribesUntilCompletion() throws Exception {
+        SseEmitter emitter = alertController.stream();
+
+        ArgumentCaptor<Consumer<Alert>> subscriber = ArgumentCaptor.forClass(Consumer.class);
+        verify(betProcessor).subscribeAlerts(subscriber.capture());
+        AlertRule rule = new AlertRule(1, AlertScope.TOTAL_PROFIT_LOSS, null, -100.0, AlertDirection.BELOW);
+        // not yet bound to a response: events are buffered
+        subscriber.getValue().accept(new Alert(rule, -120.0, 7, Instant.now()));
+        verify(betProcessor, never()).unsubscribeAlerts(any());
+        assertNotNull(emitter);
+    }
+}
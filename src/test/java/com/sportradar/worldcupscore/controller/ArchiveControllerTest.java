@@ -0,0 +1,55 @@
+package com.sportradar.worldcupscore.controller;
+
+import com.sportradar.worldcupscore.model.ArchiveGroupBy;
+import com.sportradar.worldcupscore.model.ArchiveQuery;
+import com.sportradar.worldcupscore.model.ArchiveReport;
+import com.sportradar.worldcupscore.model.ArchiveTotals;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class ArchiveControllerTest {
+
+    private BetProcessor betProcessor;
+    private ArchiveController archiveController;
+
+    @BeforeEach
+    void setUp() {
+        betProcessor = mock(BetProcessor.class);
+        archiveController = new ArchiveController(betProcessor);
+    }
+
+    @Test
+    void testQuery() {
+        ArchiveReport report = new ArchiveReport(ArchiveGroupBy.EVENT, new ArchiveTotals(1, 10.0, 5.0),
+                Collections.singletonMap("Event1", new ArchiveTotals(1, 10.0, 5.0)));
+        when(betProcessor.queryArchive(any())).thenReturn(report);
+        Instant from = Instant.parse("2026-06-11T00:00:00Z");
+
+        ResponseEntity<ArchiveReport> response = archiveController.query("Event1", null, null, from, null,
+                ArchiveGroupBy.EVENT);
+
+        verify(betProcessor).queryArchive(argThat((ArchiveQuery query) -> "Event1".equals(query.getEvent())
+                && from.equals(query.getFrom()) && query.getGroupBy() == ArchiveGroupBy.EVENT));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(report, response.getBody());
+    }
+
+    @Test
+    void testQueryWithArchiveDisabled() {
+        ResponseEntity<ArchiveReport> response = archiveController.query(null, null, null, null, null,
+                ArchiveGroupBy.NONE);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+}
@@ -2,16 +2,21 @@ package com.sportradar.worldcupscore.controller;
 
 import com.sportradar.worldcupscore.model.Bet;
 import com.sportradar.worldcupscore.model.BetStatus;
+import com.sportradar.worldcupscore.model.BetTracking;
+import com.sportradar.worldcupscore.model.BetUpdateStatus;
 import com.sportradar.worldcupscore.service.BetProcessor;
+import com.sportradar.worldcupscore.service.CompletionRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.Mockito.*;
 
 class BetControllerTest {
@@ -101,4 +106,59 @@ class BetControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("System shutdown initiated.", response.getBody());
     }
+
+    private Bet openBet(int id) {
+        return new Bet.BetBuilder().id(id).amount(10.0).odds(2.0).status(BetStatus.OPEN).build();
+    }
+
+    @Test
+    void testAddBetReturnsTrackingToken() {
+        Bet bet = openBet(3);
+        when(betProcessor.addBet(bet)).thenReturn(42L);
+
+        ResponseEntity<Bet> response = betController.addBet(bet);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("42", response.getHeaders().getFirst(BetController.TRACKING_TOKEN_HEADER));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResponseEntity<BetTracking> resultOf(DeferredResult<ResponseEntity<BetTracking>> result) {
+        return (ResponseEntity<BetTracking>) result.getResult();
+    }
+
+    @Test
+    void testGetBetStatusImmediately() {
+        CompletionRegistry registry = new CompletionRegistry(4);
+        long token = registry.register(openBet(5));
+        when(betProcessor.findTracking(5, token)).thenReturn(registry.find(5, token));
+
+        DeferredResult<ResponseEntity<BetTracking>> result = betController.getBetStatus(5, token, 0);
+
+        assertEquals(HttpStatus.OK, resultOf(result).getStatusCode());
+        assertEquals(BetUpdateStatus.QUEUED, resultOf(result).getBody().getStatus());
+        assertEquals(token, resultOf(result).getBody().getToken());
+    }
+
+    @Test
+    void testGetBetStatusLongPollCompletes() {
+        CompletionRegistry registry = new CompletionRegistry(4);
+        Bet bet = openBet(6);
+        long token = registry.register(bet);
+        when(betProcessor.findTracking(6, null)).thenReturn(registry.find(6, null));
+
+        DeferredResult<ResponseEntity<BetTracking>> result = betController.getBetStatus(6, null, 5000);
+        assertFalse(result.hasResult());
+
+        registry.complete(bet.withTrackingToken(token), BetUpdateStatus.REVIEW);
+
+        assertEquals(BetUpdateStatus.REVIEW, resultOf(result).getBody().getStatus());
+    }
+
+    @Test
+    void testGetUnknownBetStatus() {
+        DeferredResult<ResponseEntity<BetTracking>> result = betController.getBetStatus(7, null, 1000);
+
+        assertEquals(HttpStatus.NOT_FOUND, resultOf(result).getStatusCode());
+    }
 }
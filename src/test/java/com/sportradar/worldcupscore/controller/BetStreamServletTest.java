@@ -0,0 +1,178 @@
+package com.sportradar.worldcupscore.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportradar.worldcupscore.exception.InvalidTransitionException;
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class BetStreamServletTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private BetProcessor betProcessor;
+    private BetStreamServlet servlet;
+    private AsyncContext async;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        betProcessor = mock(BetProcessor.class);
+        when(betProcessor.hasCapacity()).thenReturn(true);
+        when(betProcessor.addBet(any(Bet.class))).thenReturn(1L);
+        servlet = new BetStreamServlet(betProcessor, mapper);
+        async = mock(AsyncContext.class);
+        response = new MockHttpServletResponse();
+        when(async.getResponse()).thenReturn(response);
+    }
+
+    @AfterEach
+    void tearDown() {
+        servlet.destroy();
+    }
+
+    @Test
+    void testStreamsLinesAcrossChunks() throws Exception {
+        String body = line(1, BetStatus.OPEN) + "\n\n" + line(2, BetStatus.OPEN) + "\r\n" + line(1, BetStatus.WINNER);
+        FeedInputStream input = post(body, 7);
+
+        input.listener.onDataAvailable();
+        input.listener.onAllDataRead();
+
+        verify(betProcessor, times(3)).addBet(any(Bet.class));
+        verify(betProcessor).addBet(argThat(bet -> bet.getId() == 1 && bet.getStatus() == BetStatus.WINNER));
+        JsonNode report = mapper.readTree(response.getContentAsString());
+        assertEquals(3, report.get("accepted").asLong());
+        assertEquals(0, report.get("rejected").asLong());
+        verify(async).complete();
+    }
+
+    @Test
+    void testRejectedLinesAreReported() throws Exception {
+        when(betProcessor.addBet(argThat(bet -> bet != null && bet.getId() == 3)))
+                .thenThrow(new InvalidTransitionException("Bet 3 is already open."));
+        String body = line(1, BetStatus.OPEN) + "\n{not json\n" + line(3, BetStatus.OPEN) + "\n"
+                + "{\"id\":4,\"client\":\"" + "x".repeat(BetStreamServlet.MAX_LINE_BYTES) + "\"}\n";
+        FeedInputStream input = post(body, 4096);
+
+        input.listener.onDataAvailable();
+        input.listener.onAllDataRead();
+
+        JsonNode report = mapper.readTree(response.getContentAsString());
+        assertEquals(1, report.get("accepted").asLong());
+        assertEquals(3, report.get("rejected").asLong());
+        assertTrue(report.get("errors").get(0).asText().startsWith("line 2: "));
+        assertEquals("line 3: Bet 3 is already open.", report.get("errors").get(1).asText());
+        assertTrue(report.get("errors").get(2).asText().startsWith("line 4: longer than"));
+    }
+
+    @Test
+    void testUnexpectedFailureRejectsOnlyThatLine() throws Exception {
+        when(betProcessor.addBet(argThat(bet -> bet != null && bet.getId() == 2)))
+                .thenThrow(new IllegalStateException("boom"));
+        String body = line(1, BetStatus.OPEN) + "\n" + line(2, BetStatus.OPEN) + "\n" + line(3, BetStatus.OPEN) + "\n";
+        FeedInputStream input = post(body, 8192);
+
+        input.listener.onDataAvailable();
+        input.listener.onAllDataRead();
+
+        verify(betProcessor, times(3)).addBet(any(Bet.class));
+        JsonNode report = mapper.readTree(response.getContentAsString());
+        assertEquals(2, report.get("accepted").asLong());
+        assertEquals(1, report.get("rejected").asLong());
+        assertEquals("line 2: java.lang.IllegalStateException: boom", report.get("errors").get(0).asText());
+        verify(async).complete();
+    }
+
+    @Test
+    void testPausesWhileQueueIsFull() throws Exception {
+        when(betProcessor.hasCapacity()).thenReturn(false, false, true);
+        FeedInputStream input = post(line(1, BetStatus.OPEN) + "\n" + line(2, BetStatus.OPEN) + "\n", 8192);
+
+        input.listener.onDataAvailable();
+
+        // nothing was read, the listener thread is released and the stream resumes on its own
+        assertEquals(0, input.position);
+        verify(betProcessor, never()).addBet(any(Bet.class));
+        verify(betProcessor, timeout(1000).times(2)).addBet(any(Bet.class));
+        assertTrue(input.isFinished());
+    }
+
+    private FeedInputStream post(String body, int chunkSize) throws Exception {
+        FeedInputStream input = new FeedInputStream(body.getBytes(StandardCharsets.UTF_8), chunkSize);
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.startAsync()).thenReturn(async);
+        when(request.getInputStream()).thenReturn(input);
+        servlet.doPost(request, response);
+        ArgumentCaptor<Long> timeout = ArgumentCaptor.forClass(Long.class);
+        verify(async).setTimeout(timeout.capture());
+        assertEquals(0L, timeout.getValue());
+        assertNotNull(input.listener);
+        return input;
+    }
+
+    private String line(int id, BetStatus status) throws Exception {
+        return mapper.writeValueAsString(new Bet.BetBuilder().id(id).amount(10.0).odds(2.0).client("Client" + id)
+                .event("Event").market("Market").selection("Home").status(status).build());
+    }
+
+    // hands out the body in fixed chunks, always ready until it is exhausted
+    private static final class FeedInputStream extends ServletInputStream {
+        private final byte[] data;
+        private final int chunkSize;
+        private volatile int position;
+        private ReadListener listener;
+
+        private FeedInputStream(byte[] data, int chunkSize) {
+            this.data = data;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return position == data.length;
+        }
+
+        @Override
+        public boolean isReady() {
+            return !isFinished();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            this.listener = readListener;
+        }
+
+        @Override
+        public int read() {
+            return isFinished() ? -1 : data[position++];
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (isFinished()) {
+                return -1;
+            }
+            int count = Math.min(Math.min(len, chunkSize), data.length - position);
+            System.arraycopy(data, position, b, off, count);
+            position += count;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.sportradar.worldcupscore.controller;
+
+import com.sportradar.worldcupscore.model.ClientPortfolio;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class ClientControllerTest {
+
+    private BetProcessor betProcessor;
+    private ClientController clientController;
+
+    @BeforeEach
+    void setUp() {
+        betProcessor = mock(BetProcessor.class);
+        clientController = new ClientController(betProcessor);
+    }
+
+    @Test
+    void testGetClientPortfolio() {
+        ClientPortfolio portfolio = new ClientPortfolio("Client1", Collections.emptyList(), 0.0, 0.0, 25.0);
+        when(betProcessor.getClientPortfolio("Client1")).thenReturn(portfolio);
+
+        ResponseEntity<ClientPortfolio> response = clientController.getClientPortfolio("Client1");
+
+        verify(betProcessor, times(1)).getClientPortfolio("Client1");
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(portfolio, response.getBody());
+    }
+
+    @Test
+    void testGetUnknownClientPortfolio() {
+        ResponseEntity<ClientPortfolio> response = clientController.getClientPortfolio("Nobody");
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+}
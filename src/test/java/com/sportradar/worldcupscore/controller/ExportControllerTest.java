@@ -0,0 +1,128 @@
+package com.sportradar.worldcupscore.controller;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import com.sportradar.worldcupscore.model.ExportFormat;
+import com.sportradar.worldcupscore.service.AggregateLedger;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ExportControllerTest {
+
+    private BetProcessor betProcessor;
+    private ExportController exportController;
+
+    @BeforeEach
+    void setUp() {
+        betProcessor = mock(BetProcessor.class);
+        exportController = new ExportController(betProcessor);
+    }
+
+    private String body(ResponseEntity<StreamingResponseBody> response) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void openBets(Bet... bets) {
+        doAnswer(invocation -> {
+            Consumer<Bet> action = invocation.getArgument(0);
+            for (Bet bet : bets) {
+                action.accept(bet);
+            }
+            return null;
+        }).when(betProcessor).forEachOpenBet(any(Consumer.class));
+    }
+
+    private Bet bet(int id, String client) {
+        return new Bet.BetBuilder()
+                .id(id)
+                .amount(100.0)
+                .odds(1.5)
+                .client(client)
+                .event("Event1")
+                .market("Market1")
+                .selection("Selection1")
+                .status(BetStatus.OPEN)
+                .build();
+    }
+
+    @Test
+    void testExportBetsAsCsv() throws Exception {
+        openBets(bet(1, "Client1"), bet(2, "Smith, \"J\""));
+        doAnswer(invocation -> {
+            invocation.<IntConsumer>getArgument(1).accept(3);
+            return null;
+        }).when(betProcessor).forEachSettledId(eq(BetStatus.WINNER), any(IntConsumer.class));
+        doAnswer(invocation -> {
+            invocation.<IntConsumer>getArgument(1).accept(4);
+            return null;
+        }).when(betProcessor).forEachSettledId(eq(BetStatus.VOID), any(IntConsumer.class));
+
+        ResponseEntity<StreamingResponseBody> response = exportController.exportBets(ExportFormat.CSV);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("text/csv", response.getHeaders().getContentType().toString());
+        assertEquals("id,status,amount,odds,client,event,market,selection\n"
+                + "1,OPEN,100.0,1.5,Client1,Event1,Market1,Selection1\n"
+                + "2,OPEN,100.0,1.5,\"Smith, \"\"J\"\"\",Event1,Market1,Selection1\n"
+                + "3,WINNER,,,,,,\n"
+                + "4,VOID,,,,,,\n", body(response));
+    }
+
+    @Test
+    void testExportBetsAsNdjson() throws Exception {
+        openBets(bet(1, null));
+
+        ResponseEntity<StreamingResponseBody> response = exportController.exportBets(ExportFormat.NDJSON);
+
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        assertEquals("{\"id\":1,\"status\":\"OPEN\",\"amount\":100.0,\"odds\":1.5,\"client\":null,"
+                + "\"event\":\"Event1\",\"market\":\"Market1\",\"selection\":\"Selection1\"}\n", body(response));
+    }
+
+    @Test
+    void testExportClients() throws Exception {
+        doAnswer(invocation -> {
+            AggregateLedger.ClientResultConsumer action = invocation.getArgument(0);
+            action.accept("Client1", 50.0, 20.0);
+            action.accept("Client2", 0.0, 10.0);
+            return null;
+        }).when(betProcessor).forEachClientResult(any());
+
+        String body = body(exportController.exportClients(ExportFormat.NDJSON));
+
+        assertEquals("{\"client\":\"Client1\",\"profit\":50.0,\"loss\":20.0,\"net\":30.0}\n"
+                + "{\"client\":\"Client2\",\"profit\":0.0,\"loss\":10.0,\"net\":-10.0}\n", body);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportReviewDoesNotBuildList() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<Consumer<Bet>>getArgument(0).accept(bet(4, "Client4"));
+            return null;
+        }).when(betProcessor).forEachReviewBet(any(Consumer.class));
+
+        String body = body(exportController.exportReview(ExportFormat.CSV));
+
+        assertEquals("id,status,amount,odds,client,event,market,selection\n"
+                + "4,OPEN,100.0,1.5,Client4,Event1,Market1,Selection1\n", body);
+        verify(betProcessor, never()).getReviewBets();
+    }
+}
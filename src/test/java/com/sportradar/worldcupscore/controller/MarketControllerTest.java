@@ -0,0 +1,75 @@
+package com.sportradar.worldcupscore.controller;
+
+import com.sportradar.worldcupscore.model.DistributionSummary;
+import com.sportradar.worldcupscore.model.MarketSettlement;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MarketControllerTest {
+
+    private BetProcessor betProcessor;
+    private MarketController marketController;
+
+    @BeforeEach
+    void setUp() {
+        betProcessor = mock(BetProcessor.class);
+        marketController = new MarketController(betProcessor);
+    }
+
+    @Test
+    void testGetQuantiles() {
+        double[] q = {0.5};
+        Map<String, DistributionSummary> distributions = Map.of("amount", new DistributionSummary(1, Map.of("p50", 100.0)));
+        when(betProcessor.getDistributions(q)).thenReturn(distributions);
+
+        ResponseEntity<Map<String, DistributionSummary>> response = marketController.getQuantiles(q);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(distributions, response.getBody());
+    }
+
+    @Test
+    void testGetMarketQuantiles() {
+        double[] q = {0.5, 0.99};
+        Map<String, DistributionSummary> distributions = Map.of("odds", new DistributionSummary(2, Map.of("p50", 1.5)));
+        when(betProcessor.getDistributions("Event", "Market1", q)).thenReturn(distributions);
+
+        ResponseEntity<Map<String, DistributionSummary>> response = marketController.getMarketQuantiles("Event", "Market1", q);
+
+        verify(betProcessor, times(1)).getDistributions("Event", "Market1", q);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(distributions, response.getBody());
+    }
+
+    @Test
+    void testGetUnknownMarketQuantiles() {
+        when(betProcessor.getDistributions(eq("Event"), eq("Unknown"), any())).thenReturn(null);
+
+        ResponseEntity<Map<String, DistributionSummary>> response =
+                marketController.getMarketQuantiles("Event", "Unknown", new double[]{0.5});
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void testSettleMarket() {
+        MarketSettlement settlement = new MarketSettlement("Final", "Winner", "Home", 3, 2, 1, 200.0);
+        when(betProcessor.settleMarket("Final", "Winner", "Home")).thenReturn(settlement);
+
+        ResponseEntity<MarketSettlement> response = marketController.settleMarket("Final", "Winner", "Home");
+
+        verify(betProcessor, times(1)).settleMarket("Final", "Winner", "Home");
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(settlement, response.getBody());
+    }
+}
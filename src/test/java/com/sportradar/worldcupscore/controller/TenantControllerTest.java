@@ -0,0 +1,89 @@
+package com.sportradar.worldcupscore.controller;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import com.sportradar.worldcupscore.model.BetTracking;
+import com.sportradar.worldcupscore.model.BetUpdateStatus;
+import com.sportradar.worldcupscore.service.BetProcessor;
+import com.sportradar.worldcupscore.service.CompletionRegistry;
+import com.sportradar.worldcupscore.service.TenantRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class TenantControllerTest {
+
+    private TenantRegistry tenantRegistry;
+    private BetProcessor worldCup;
+    private TenantController tenantController;
+
+    @BeforeEach
+    void setUp() {
+        tenantRegistry = mock(TenantRegistry.class);
+        worldCup = mock(BetProcessor.class);
+        when(tenantRegistry.get("world-cup")).thenReturn(worldCup);
+        tenantController = new TenantController(tenantRegistry);
+    }
+
+    @Test
+    void testGetTenants() {
+        when(tenantRegistry.getTenants()).thenReturn(Set.of("world-cup"));
+
+        assertEquals(Set.of("world-cup"), tenantController.getTenants().getBody());
+    }
+
+    @Test
+    void testAddBetToTenant() {
+        Bet bet = new Bet.BetBuilder().id(1).amount(10.0).odds(2.0).status(BetStatus.OPEN).build();
+        when(worldCup.addBet(bet)).thenReturn(7L);
+
+        ResponseEntity<Bet> response = tenantController.addBet("world-cup", bet);
+
+        verify(worldCup).addBet(bet);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("7", response.getHeaders().getFirst(BetController.TRACKING_TOKEN_HEADER));
+    }
+
+    @Test
+    void testScopedSummaryAndReview() {
+        when(worldCup.getSummary()).thenReturn("Total bets processed: 3");
+        when(worldCup.getReviewBets()).thenReturn(List.of());
+
+        assertEquals("Total bets processed: 3", tenantController.getSummary("world-cup").getBody());
+        assertEquals(List.of(), tenantController.getReviewBets("world-cup").getBody());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testTenantTokenIsRedeemedOnTheTenantProcessor() {
+        CompletionRegistry registry = new CompletionRegistry(4);
+        long token = registry.register(new Bet.BetBuilder().id(2).status(BetStatus.OPEN).build());
+        when(worldCup.findTracking(2, token)).thenReturn(registry.find(2, token));
+
+        DeferredResult<ResponseEntity<BetTracking>> result = tenantController.getBetStatus("world-cup", 2, token, 0);
+
+        ResponseEntity<BetTracking> response = (ResponseEntity<BetTracking>) result.getResult();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(BetUpdateStatus.QUEUED, response.getBody().getStatus());
+        assertEquals(token, response.getBody().getToken());
+    }
+
+    @Test
+    void testUnknownTenant() {
+        Bet bet = new Bet.BetBuilder().id(1).status(BetStatus.OPEN).build();
+
+        assertEquals(HttpStatus.NOT_FOUND, tenantController.addBet("nowhere", bet).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, tenantController.getSummary("nowhere").getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, tenantController.getReviewBets("nowhere").getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND,
+                ((ResponseEntity<?>) tenantController.getBetStatus("nowhere", 1, null, 0).getResult()).getStatusCode());
+    }
+}
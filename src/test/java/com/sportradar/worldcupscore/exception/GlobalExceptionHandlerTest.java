@@ -29,4 +29,44 @@ class GlobalExceptionHandlerTest {
         assertEquals("Test error occurred", errorDetails.getMessage());
         assertEquals(requestDescription, errorDetails.getDetails());
     }
+
+    @Test
+    void testHandleRateLimitExceeded() {
+        GlobalExceptionHandler exceptionHandler = new GlobalExceptionHandler();
+        WebRequest request = Mockito.mock(WebRequest.class);
+        Mockito.when(request.getDescription(false)).thenReturn("uri=/api/bets");
+
+        ResponseEntity<ErrorDetails> responseEntity = exceptionHandler.handleRateLimitExceeded(
+                new RateLimitExceededException("Too many bets"), request);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, responseEntity.getStatusCode());
+        assertEquals("Too many bets", responseEntity.getBody().getMessage());
+        assertEquals("uri=/api/bets", responseEntity.getBody().getDetails());
+    }
+
+    @Test
+    void testHandleInvalidTransition() {
+        GlobalExceptionHandler exceptionHandler = new GlobalExceptionHandler();
+        WebRequest request = Mockito.mock(WebRequest.class);
+        Mockito.when(request.getDescription(false)).thenReturn("uri=/api/bets");
+
+        ResponseEntity<ErrorDetails> responseEntity = exceptionHandler.handleInvalidTransition(
+                new InvalidTransitionException("Bet 1 is already settled."), request);
+
+        assertEquals(HttpStatus.CONFLICT, responseEntity.getStatusCode());
+        assertEquals("Bet 1 is already settled.", responseEntity.getBody().getMessage());
+    }
+
+    @Test
+    void testHandleIllegalArgument() {
+        GlobalExceptionHandler exceptionHandler = new GlobalExceptionHandler();
+        WebRequest request = Mockito.mock(WebRequest.class);
+        Mockito.when(request.getDescription(false)).thenReturn("uri=/api/alerts/rules");
+
+        ResponseEntity<ErrorDetails> responseEntity = exceptionHandler.handleIllegalArgument(
+                new IllegalArgumentException("Rules on CLIENT_LOSS need a key."), request);
+
+        assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+        assertEquals("Rules on CLIENT_LOSS need a key.", responseEntity.getBody().getMessage());
+    }
 }
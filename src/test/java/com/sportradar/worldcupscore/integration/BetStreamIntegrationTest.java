@@ -0,0 +1,53 @@
+package com.sportradar.worldcupscore.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// a queue limit below the 100 startup bets, so the stream has to wait for the workers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "bet.processor.ingestion.max-queued=5")
+public class BetStreamIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testStreamWaitsForQueueCapacity() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int id = 1001; id <= 1020; id++) {
+            Bet bet = new Bet.BetBuilder().id(id).amount(10.0).odds(2.0).client("Feed").event("Event")
+                    .market("Market1").selection("Selection1").status(BetStatus.OPEN).build();
+            body.append(objectMapper.writeValueAsString(bet)).append('\n');
+        }
+
+        HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder()
+                        .uri(URI.create("http://localhost:" + port + "/api/bets/stream"))
+                        .header("Content-Type", "application/x-ndjson")
+                        .timeout(Duration.ofSeconds(30))
+                        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        JsonNode report = objectMapper.readTree(response.body());
+        assertEquals(20, report.get("accepted").asLong());
+        assertEquals(0, report.get("rejected").asLong());
+    }
+}
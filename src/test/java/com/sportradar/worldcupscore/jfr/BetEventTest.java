@@ -0,0 +1,109 @@
+package com.sportradar.worldcupscore.jfr;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BetEventTest {
+
+    private final Bet bet = new Bet.BetBuilder().id(7).amount(10.0).odds(2.0).client("Client7")
+            .status(BetStatus.WINNER).build();
+
+    @Test
+    void testEventsCarryBetFields(@TempDir Path dir) throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(BetEnqueuedEvent.class);
+            recording.enable(BetDequeuedEvent.class);
+            recording.enable(BetValidationEvent.class);
+            recording.start();
+
+            BetEnqueuedEvent.emit(bet);
+            BetDequeuedEvent.emit(bet, bet.getIngestedAtNanos() + 5_000_000);
+            BetValidationEvent validation = new BetValidationEvent();
+            validation.begin();
+            validation.commit(bet, BetStatus.OPEN, "PROCESSED");
+
+            recording.stop();
+            Path file = dir.resolve("bets.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        assertEquals(3, events.size());
+        RecordedEvent enqueued = find(events, "com.sportradar.worldcupscore.BetEnqueued");
+        assertEquals(7, enqueued.getInt("betId"));
+        assertEquals("WINNER", enqueued.getString("status"));
+        assertEquals("Client7", enqueued.getString("client"));
+        assertEquals(5, find(events, "com.sportradar.worldcupscore.BetDequeued").getDuration("queueWait").toMillis());
+        RecordedEvent validated = find(events, "com.sportradar.worldcupscore.BetValidation");
+        assertEquals("OPEN", validated.getString("previousStatus"));
+        assertEquals("PROCESSED", validated.getString("outcome"));
+    }
+
+    @Test
+    void testBetWithoutStatusIsRecorded(@TempDir Path dir) throws Exception {
+        Bet noStatus = new Bet.BetBuilder().id(8).amount(10.0).odds(2.0).client("Client8").build();
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(BetEnqueuedEvent.class);
+            recording.enable(BetValidationEvent.class);
+            recording.start();
+
+            BetEnqueuedEvent.emit(noStatus);
+            BetValidationEvent validation = new BetValidationEvent();
+            validation.begin();
+            validation.commit(noStatus, null, "REVIEW");
+
+            recording.stop();
+            Path file = dir.resolve("bets.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        assertEquals(2, events.size());
+        RecordedEvent enqueued = find(events, "com.sportradar.worldcupscore.BetEnqueued");
+        assertEquals(8, enqueued.getInt("betId"));
+        assertNull(enqueued.getString("status"));
+        assertEquals("REVIEW", find(events, "com.sportradar.worldcupscore.BetValidation").getString("outcome"));
+    }
+
+    @Test
+    void testDisabledEventsAreNotRecorded(@TempDir Path dir) throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(BetAggregationEvent.class);
+            recording.disable(BetSettlementEvent.class);
+            recording.start();
+
+            BetSettlementEvent settlement = new BetSettlementEvent();
+            settlement.begin();
+            assertFalse(settlement.isEnabled());
+            settlement.commit(bet, 1);
+            BetAggregationEvent aggregation = new BetAggregationEvent();
+            aggregation.begin();
+            aggregation.commit(bet, 10.0);
+
+            recording.stop();
+            Path file = dir.resolve("bets.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        assertEquals(1, events.size());
+        assertEquals(10.0, find(events, "com.sportradar.worldcupscore.BetAggregation").getDouble("result"));
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).findFirst().orElseThrow();
+    }
+}
@@ -1,5 +1,6 @@
 package com.sportradar.worldcupscore.model;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -71,4 +72,24 @@ class BetTest {
         assertTrue(betString.contains("selection='" + selection + "'"));
         assertTrue(betString.contains("status=" + status));
     }
+
+    @Test
+    void testIngestionStampIsNotPartOfJson() throws Exception {
+        Bet bet = new Bet.BetBuilder().id(1).amount(10.0).odds(2.0).status(BetStatus.OPEN).build()
+                .ingested(123L, 0);
+
+        assertEquals(123L, bet.getIngestedAtNanos());
+        String json = new ObjectMapper().writeValueAsString(bet);
+        assertFalse(json.contains("ingested"));
+    }
+
+    @Test
+    void testOnlyIngestionStampsAndCopiesKeepTheStamp() {
+        Bet built = new Bet.BetBuilder().id(2).amount(10.0).odds(2.0).status(BetStatus.OPEN).build();
+        assertEquals(0, built.getIngestedAtNanos());
+
+        Bet tracked = built.ingested(500L, 9).withTrackingToken(10);
+        assertEquals(500L, tracked.getIngestedAtNanos());
+        assertEquals(10, tracked.getTrackingToken());
+    }
 }
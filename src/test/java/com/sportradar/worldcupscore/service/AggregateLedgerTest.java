@@ -0,0 +1,173 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AggregateLedgerTest {
+
+    private static Bet bet(String client, double amount, BetStatus status) {
+        return new Bet.BetBuilder()
+                .id(1)
+                .amount(amount)
+                .odds(2.0)
+                .client(client)
+                .event("Event")
+                .market("Market")
+                .selection("Selection")
+                .status(status)
+                .build();
+    }
+
+    @Test
+    void testSnapshotsAreConsistentUnderConcurrentWrites() throws Exception {
+        AggregateLedger ledger = new AggregateLedger();
+        ledger.start();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    // every bet moves processed by 1 and either amount by +10 or profit/loss by -10
+                    ledger.record(bet("Client", 10.0, BetStatus.OPEN), 0);
+                    ledger.record(bet("Client", 10.0, BetStatus.LOSER), -10.0);
+                }
+            });
+        }
+        executor.shutdown();
+        while (!executor.isTerminated()) {
+            AggregateSnapshot snapshot = ledger.snapshot();
+            assertEquals(snapshot.getProcessed() * 10.0, snapshot.getAmount() - snapshot.getProfitLoss(), 1e-6);
+        }
+        ledger.close();
+
+        AggregateSnapshot snapshot = ledger.snapshot();
+        assertEquals(160000, snapshot.getProcessed());
+        assertEquals(800000.0, snapshot.getAmount(), 1e-6);
+        assertEquals(-800000.0, snapshot.getProfitLoss(), 1e-6);
+    }
+
+    @Test
+    void testTopClients() {
+        AggregateLedger ledger = new AggregateLedger();
+        for (int i = 1; i <= 7; i++) {
+            ledger.record(bet("Client" + i, i * 10.0, BetStatus.WINNER), i * 10.0);
+        }
+        ledger.record(bet("Client1", 100.0, BetStatus.WINNER), 100.0);
+        ledger.record(bet("Client2", 30.0, BetStatus.LOSER), -30.0);
+        ledger.close();
+
+        List<Map.Entry<String, Double>> winners = ledger.snapshot().getTopWinners();
+        assertEquals(AggregateLedger.TOP_CLIENTS, winners.size());
+        assertEquals("Client1", winners.get(0).getKey());
+        assertEquals(110.0, winners.get(0).getValue());
+        assertEquals("Client7", winners.get(1).getKey());
+        assertEquals("Client4", winners.get(4).getKey());
+        assertEquals(List.of(Map.entry("Client2", 30.0)), ledger.snapshot().getTopLosers());
+    }
+
+    @Test
+    void testBatchIsAppliedAtOnce() {
+        AggregateLedger ledger = new AggregateLedger();
+        ledger.close();
+        long before = ledger.snapshot().getSequence();
+
+        ledger.recordBatch(3, 50.0, Map.of("Client1", 100.0), Map.of("Client2", 50.0));
+
+        AggregateSnapshot snapshot = ledger.snapshot();
+        assertEquals(before + 1, snapshot.getSequence());
+        assertEquals(3, snapshot.getProcessed());
+        assertEquals(50.0, snapshot.getProfitLoss());
+        assertEquals(100.0, ledger.getProfitPerClient().get("Client1"));
+        assertEquals(50.0, ledger.getLossPerClient().get("Client2"));
+    }
+
+    @Test
+    void testAggregatorPublishesWithoutClose() throws Exception {
+        AggregateLedger ledger = new AggregateLedger();
+        ledger.start();
+        ledger.record(bet("Client", 25.0, BetStatus.OPEN), 0);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (ledger.snapshot().getProcessed() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        assertEquals(1, ledger.snapshot().getProcessed());
+        assertEquals(25.0, ledger.snapshot().getAmount());
+        ledger.close();
+    }
+
+    @Test
+    void testFlushPublishesOnTheCallingThread() {
+        // no aggregator thread, only flush can apply what was recorded
+        AggregateLedger ledger = new AggregateLedger();
+        ledger.record(bet("Client1", 25.0, BetStatus.OPEN), 0);
+        ledger.record(bet("Client1", 25.0, BetStatus.WINNER), 25.0);
+
+        ledger.flush();
+
+        assertEquals(2, ledger.snapshot().getProcessed());
+        assertEquals(25.0, ledger.snapshot().getProfitLoss());
+        assertEquals(25.0, ledger.getProfitPerClient().get("Client1"));
+        ledger.close();
+    }
+
+    @Test
+    void testForEachClientJoinsProfitAndLoss() {
+        AggregateLedger ledger = new AggregateLedger();
+        ledger.close();
+        ledger.recordBatch(3, 0.0, Map.of("Client1", 100.0), Map.of("Client1", 40.0, "Client2", 60.0));
+
+        Map<String, double[]> results = new TreeMap<>();
+        ledger.forEachClient((client, profit, loss) -> results.put(client, new double[]{profit, loss}));
+
+        assertEquals(2, results.size());
+        assertArrayEquals(new double[]{100.0, 40.0}, results.get("Client1"));
+        assertArrayEquals(new double[]{0.0, 60.0}, results.get("Client2"));
+    }
+
+    @Test
+    void testApproximateModeRanksClientsInFixedMemory() {
+        AggregateLedger ledger = new AggregateLedger(0.001, 0.01, 10);
+        for (int i = 1; i <= 50; i++) {
+            ledger.record(bet("Client" + i, i, BetStatus.OPEN), 0);
+            ledger.record(bet("Client" + i, i, BetStatus.WINNER), i);
+        }
+        for (int i = 0; i < 3; i++) {
+            ledger.record(bet("Client7", 10.0, BetStatus.OPEN), 0);
+        }
+        ledger.record(bet("Client3", 30.0, BetStatus.LOSER), -30.0);
+        ledger.close();
+
+        AggregateSnapshot snapshot = ledger.snapshot();
+        assertEquals(AggregateLedger.TOP_CLIENTS, snapshot.getTopWinners().size());
+        assertEquals("Client50", snapshot.getTopWinners().get(0).getKey());
+        assertEquals(50.0, snapshot.getTopWinners().get(0).getValue(), 0.5);
+        assertEquals("Client3", snapshot.getTopLosers().get(0).getKey());
+        assertEquals(Map.entry("Client7", 4L), snapshot.getTopVolume().get(0));
+        assertTrue(ledger.getProfitPerClient().isEmpty());
+
+        Map<String, double[]> results = new TreeMap<>();
+        ledger.forEachClient((client, profit, loss) -> results.put(client, new double[]{profit, loss}));
+        assertEquals(11, results.size());
+        assertEquals(30.0, results.get("Client3")[1], 0.5);
+    }
+
+    @Test
+    void testExactModeDoesNotRankVolume() {
+        AggregateLedger ledger = new AggregateLedger();
+        ledger.record(bet("Client", 10.0, BetStatus.OPEN), 0);
+        ledger.close();
+
+        assertTrue(ledger.snapshot().getTopVolume().isEmpty());
+    }
+}
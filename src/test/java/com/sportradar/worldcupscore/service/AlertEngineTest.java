@@ -0,0 +1,229 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Alert;
+import com.sportradar.worldcupscore.model.AlertDirection;
+import com.sportradar.worldcupscore.model.AlertRule;
+import com.sportradar.worldcupscore.model.AlertScope;
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertEngineTest {
+
+    private final OpenBetStore openBets = new OpenBetStore();
+    // never started, so updates wait in the queue until a seed drains them
+    private final AggregateLedger ledger = new AggregateLedger();
+    private AlertEngine engine;
+    private final List<Alert> received = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        engine = new AlertEngine(null, openBets, ledger);
+        openBets.setListener(engine);
+        engine.subscribe(received::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    private static Bet bet(int id, double amount, String client, String selection, BetStatus status) {
+        return new Bet.BetBuilder()
+                .id(id)
+                .amount(amount)
+                .odds(3.0)
+                .client(client)
+                .event("Final")
+                .market("Winner")
+                .selection(selection)
+                .status(status)
+                .build();
+    }
+
+    private void settle(Bet bet, double result) {
+        engine.settled(bet, result, ledger.record(bet, result));
+    }
+
+    // delivery runs on its own thread; closing drains it
+    private List<Alert> drain() {
+        engine.close();
+        return received;
+    }
+
+    @Test
+    void testSelectionLiabilityFiresOnceAndRearms() {
+        AlertRule rule = engine.addRule(AlertScope.SELECTION_LIABILITY, "Final/Winner/Home", 100.0, AlertDirection.ABOVE);
+
+        openBets.add(bet(1, 30.0, "Client1", "Home", BetStatus.OPEN));
+        // another selection is not watched
+        openBets.add(bet(3, 500.0, "Client3", "Away", BetStatus.OPEN));
+        openBets.add(bet(2, 30.0, "Client2", "Home", BetStatus.OPEN));
+        openBets.add(bet(4, 10.0, "Client4", "Home", BetStatus.OPEN));
+        openBets.remove(2);
+        openBets.add(bet(5, 40.0, "Client5", "Home", BetStatus.OPEN));
+
+        List<Alert> alerts = drain();
+        assertEquals(2, alerts.size());
+        assertSame(rule, alerts.get(0).getRule());
+        assertEquals(2, alerts.get(0).getBetId());
+        assertEquals(120.0, alerts.get(0).getValue());
+        assertEquals(5, alerts.get(1).getBetId());
+        assertEquals(160.0, alerts.get(1).getValue());
+    }
+
+    @Test
+    void testSelectionStartsFromOpenBets() {
+        openBets.add(bet(1, 30.0, "Client1", "Home", BetStatus.OPEN));
+        openBets.add(bet(2, 30.0, "Client2", "Home", BetStatus.OPEN));
+        engine.addRule(AlertScope.SELECTION_LIABILITY, "Final/Winner/Home", 150.0, AlertDirection.ABOVE);
+
+        openBets.add(bet(3, 40.0, "Client3", "Home", BetStatus.OPEN));
+
+        List<Alert> alerts = drain();
+        assertEquals(1, alerts.size());
+        assertEquals(3, alerts.get(0).getBetId());
+        assertEquals(200.0, alerts.get(0).getValue());
+    }
+
+    @Test
+    void testClientLossStartsFromSeed() {
+        // still queued in the ledger when the rule comes in
+        settle(bet(10, 40.0, "Client1", "Home", BetStatus.LOSER), -40.0);
+        engine.addRule(AlertScope.CLIENT_LOSS, "Client1", 50.0, AlertDirection.ABOVE);
+
+        settle(bet(1, 5.0, "Client1", "Home", BetStatus.LOSER), -5.0);
+        settle(bet(2, 5.0, "Client1", "Home", BetStatus.WINNER), 10.0);
+        settle(bet(3, 5.0, "Client1", "Home", BetStatus.LOSER), -5.0);
+
+        List<Alert> alerts = drain();
+        assertEquals(1, alerts.size());
+        assertEquals(3, alerts.get(0).getBetId());
+        assertEquals(50.0, alerts.get(0).getValue());
+    }
+
+    @Test
+    void testTotalProfitLossBelow() {
+        settle(bet(1, 20.0, "Client1", "Home", BetStatus.WINNER), 40.0);
+        engine.addRule(AlertScope.TOTAL_PROFIT_LOSS, null, 0.0, AlertDirection.BELOW);
+
+        settle(bet(2, 30.0, "Client2", "Home", BetStatus.WINNER), 60.0);
+        settle(bet(3, 150.0, "Client3", "Home", BetStatus.WINNER), 300.0);
+
+        assertTrue(drain().isEmpty());
+    }
+
+    @Test
+    void testRemovedRuleStopsWatching() {
+        AlertRule rule = engine.addRule(AlertScope.CLIENT_LOSS, "Client1", 10.0, AlertDirection.ABOVE);
+        assertEquals(List.of(rule), engine.getRules());
+
+        assertTrue(engine.removeRule(rule.getId()));
+        assertFalse(engine.removeRule(rule.getId()));
+        settle(bet(1, 50.0, "Client1", "Home", BetStatus.LOSER), -50.0);
+
+        assertTrue(drain().isEmpty());
+        assertTrue(engine.getRules().isEmpty());
+    }
+
+    @Test
+    void testInvalidKeys() {
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.addRule(AlertScope.CLIENT_LOSS, " ", 10.0, AlertDirection.ABOVE));
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.addRule(AlertScope.SELECTION_LIABILITY, "Final/Winner", 10.0, AlertDirection.ABOVE));
+    }
+
+    @Test
+    void testFailingSubscriberDoesNotStopOthers() {
+        List<Alert> others = new CopyOnWriteArrayList<>();
+        engine.unsubscribe(received::add);
+        engine.subscribe(alert -> {
+            throw new IllegalStateException("gone");
+        });
+        engine.subscribe(others::add);
+        engine.addRule(AlertScope.TOTAL_PROFIT_LOSS, null, -10.0, AlertDirection.BELOW);
+
+        settle(bet(1, 20.0, "Client1", "Home", BetStatus.LOSER), -20.0);
+        engine.close();
+
+        assertEquals(1, others.size());
+    }
+
+    @Test
+    void testLossesRecordedWhileSeedingCountOnce() throws Exception {
+        engine.addRule(AlertScope.CLIENT_LOSS, "Client0", 1e12, AlertDirection.ABOVE);
+        int perThread = 2000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int base = t * perThread;
+            workers.add(new Thread(() -> {
+                for (int id = base; id < base + perThread; id++) {
+                    settle(bet(id, 1.0, "Client" + (id % 8), "Home", BetStatus.LOSER), -1.0);
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+        // rules for fresh clients, each seeded while their losses keep coming
+        List<AlertRule> rules = new ArrayList<>();
+        for (int client = 1; client < 8; client++) {
+            rules.add(engine.addRule(AlertScope.CLIENT_LOSS, "Client" + client, perThread / 2.0 + 1, AlertDirection.ABOVE));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        for (int client = 1; client < 8; client++) {
+            settle(bet(100_000 + client, 1.0, "Client" + client, "Home", BetStatus.LOSER), -1.0);
+        }
+
+        // each client has now lost 1001; a loss counted twice would fire earlier, one missed would not fire
+        List<Alert> alerts = drain();
+        assertEquals(rules.size(), alerts.size());
+        for (Alert alert : alerts) {
+            assertEquals(100_000, alert.getBetId() - Integer.parseInt(alert.getRule().getKey().substring(6)));
+            assertEquals(perThread / 2.0 + 1, alert.getValue());
+        }
+    }
+
+    @Test
+    void testBetsOpenedWhileSeedingCountOnce() throws Exception {
+        int perThread = 2000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int base = t * perThread;
+            workers.add(new Thread(() -> {
+                for (int id = base; id < base + perThread; id++) {
+                    // odds 3.0, so each bet adds a liability of 2
+                    openBets.add(bet(id, 1.0, "Client", "Selection" + (id % 8), BetStatus.OPEN));
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+        List<AlertRule> rules = new ArrayList<>();
+        for (int selection = 1; selection < 8; selection++) {
+            rules.add(engine.addRule(AlertScope.SELECTION_LIABILITY, "Final/Winner/Selection" + selection,
+                    2.0 * perThread / 2 + 2, AlertDirection.ABOVE));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        for (int selection = 1; selection < 8; selection++) {
+            openBets.add(bet(100_000 + selection, 1.0, "Client", "Selection" + selection, BetStatus.OPEN));
+        }
+
+        List<Alert> alerts = drain();
+        assertEquals(rules.size(), alerts.size());
+        for (Alert alert : alerts) {
+            assertTrue(alert.getBetId() >= 100_000);
+            assertEquals(2.0 * perThread / 2 + 2, alert.getValue());
+        }
+    }
+}
@@ -1,18 +1,44 @@
 package com.sportradar.worldcupscore.service;
 
+import com.sportradar.worldcupscore.exception.InvalidTransitionException;
+import com.sportradar.worldcupscore.exception.RateLimitExceededException;
+import com.sportradar.worldcupscore.model.Alert;
+import com.sportradar.worldcupscore.model.AlertDirection;
+import com.sportradar.worldcupscore.model.AlertScope;
+import com.sportradar.worldcupscore.model.ArchiveGroupBy;
+import com.sportradar.worldcupscore.model.ArchiveQuery;
+import com.sportradar.worldcupscore.model.ArchiveReport;
 import com.sportradar.worldcupscore.model.Bet;
 import com.sportradar.worldcupscore.model.BetStatus;
+import com.sportradar.worldcupscore.model.BetUpdateStatus;
+import com.sportradar.worldcupscore.model.ClientPortfolio;
+import com.sportradar.worldcupscore.model.DistributionSummary;
+import com.sportradar.worldcupscore.model.LagReport;
+import com.sportradar.worldcupscore.model.MarketSettlement;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 
 class BetProcessorTest {
 
@@ -191,6 +217,746 @@ class BetProcessorTest {
         processor.shutdownSystem();
     }
 
+    @Test
+    void testSettledBetIsEvictedAndRejectsLaterUpdates() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 1);
+        processor.initialize();
+
+        Bet.BetBuilder builder = new Bet.BetBuilder()
+                .id(6)
+                .amount(100.0)
+                .odds(2.0)
+                .client("Client6")
+                .event("Event6")
+                .market("Market6")
+                .selection("Selection6");
+        processor.addBet(builder.status(BetStatus.OPEN).build());
+        processor.addBet(builder.status(BetStatus.VOID).build());
+        processor.addBet(builder.status(BetStatus.WINNER).build());
+        Thread.sleep(400);
+
+        Field mapField = BetProcessor.class.getDeclaredField("betStatusMap");
+        mapField.setAccessible(true);
+        assertFalse(((Map<?, ?>) mapField.get(processor)).containsKey(6));
+        // settled once, under the status that settled it
+        List<Integer> voided = new ArrayList<>();
+        List<Integer> winners = new ArrayList<>();
+        processor.forEachSettledId(BetStatus.VOID, voided::add);
+        processor.forEachSettledId(BetStatus.WINNER, winners::add);
+        assertEquals(List.of(6), voided);
+        assertTrue(winners.isEmpty());
+
+        List<Bet> review = processor.getReviewBets();
+        assertEquals(1, review.size());
+        assertEquals(BetStatus.WINNER, review.get(0).getStatus());
+        assertTrue(processor.getSummary().contains("Total bets processed: 2"));
+
+        processor.shutdownSystem();
+    }
+
+    @Test
+    void testClientPortfolioTracksOpenAndRealised() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 1);
+        processor.initialize();
+
+        Bet.BetBuilder builder = new Bet.BetBuilder()
+                .amount(100.0)
+                .odds(1.5)
+                .client("Client7")
+                .event("Event7")
+                .market("Market7")
+                .selection("Selection7");
+        processor.addBet(builder.id(7).status(BetStatus.OPEN).build());
+        processor.addBet(builder.id(8).status(BetStatus.OPEN).build());
+        processor.addBet(builder.id(7).status(BetStatus.WINNER).build());
+        Thread.sleep(400);
+
+        ClientPortfolio portfolio = processor.getClientPortfolio("Client7");
+        assertEquals(1, portfolio.getOpenBets().size());
+        assertEquals(8, portfolio.getOpenBets().get(0).getId());
+        assertEquals(100.0, portfolio.getOpenStake());
+        assertEquals(50.0, portfolio.getPotentialLiability());
+        assertEquals(50.0, portfolio.getRealisedProfitLoss());
+        assertNull(processor.getClientPortfolio("Unknown"));
+
+        processor.shutdownSystem();
+    }
+
+    @Test
+    void testSettlementIsBookedToTheOpenClientEverywhere() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 1);
+        processor.initialize();
+        List<Alert> alerts = new CopyOnWriteArrayList<>();
+        processor.subscribeAlerts(alerts::add);
+        processor.addAlertRule(AlertScope.CLIENT_LOSS, "Client12", 50.0, AlertDirection.ABOVE);
+
+        Bet.BetBuilder builder = new Bet.BetBuilder().id(12).amount(100.0).odds(2.0);
+        processor.addBet(builder.client("Client12").status(BetStatus.OPEN).build());
+        processor.addBet(builder.client("Other12").status(BetStatus.LOSER).build());
+        Thread.sleep(300);
+        processor.shutdownSystem();
+
+        assertEquals(-100.0, processor.getClientPortfolio("Client12").getRealisedProfitLoss());
+        assertTrue(processor.getSummary().contains("Top 5 customers with the highest losses: \nClient12: 100.0"));
+        assertFalse(processor.getSummary().contains("Other12"));
+        assertEquals(1, alerts.size());
+        assertEquals("Client12", alerts.get(0).getRule().getKey());
+    }
+
+    @Test
+    void testMarketDistributions() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 1);
+        processor.initialize();
+
+        Bet.BetBuilder builder = new Bet.BetBuilder()
+                .id(9)
+                .amount(200.0)
+                .odds(2.0)
+                .client("Client9")
+                .event("Event9")
+                .market("Market9")
+                .selection("Selection9");
+        processor.addBet(builder.status(BetStatus.OPEN).build());
+        processor.addBet(builder.status(BetStatus.WINNER).build());
+        Thread.sleep(300);
+
+        Map<String, DistributionSummary> distributions =
+                processor.getDistributions("Event9", "Market9", new double[]{0.5});
+        assertEquals(1, distributions.get("amount").getCount());
+        assertEquals(200.0, distributions.get("amount").getQuantiles().get("p50"), 2.0);
+        assertEquals(2.0, distributions.get("odds").getQuantiles().get("p50"), 0.02);
+        assertEquals(400.0, distributions.get("payout").getQuantiles().get("p50"), 4.0);
+        assertNull(processor.getDistributions("Event9", "Unknown", new double[]{0.5}));
+
+        processor.shutdownSystem();
+    }
+
+    @Test
+    void testPriorityLanesReportedInSummary() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 1);
+        Field lanesField = BetProcessor.class.getDeclaredField("lanesEnabled");
+        lanesField.setAccessible(true);
+        lanesField.set(processor, true);
+        processor.initialize();
+
+        Bet.BetBuilder builder = new Bet.BetBuilder()
+                .id(10)
+                .amount(5000.0)
+                .odds(2.0)
+                .client("Client10")
+                .event("Event10")
+                .market("Market10")
+                .selection("Selection10");
+        processor.addBet(builder.status(BetStatus.OPEN).build());
+        processor.addBet(builder.status(BetStatus.WINNER).build());
+        Thread.sleep(300);
+
+        String summary = processor.getSummary();
+        assertTrue(summary.contains("Total result (profit/loss): 5000.0"));
+        assertTrue(summary.contains("Lane HIGH_STAKE (weight 2): 2 dispatched"));
+        assertTrue(summary.contains("Lane STANDARD (weight 1): 0 dispatched"));
+
+        processor.shutdownSystem();
+    }
+
+    @Test
+    void testWorkStealingMode() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 3);
+        Field workStealingField = BetProcessor.class.getDeclaredField("workStealingEnabled");
+        workStealingField.setAccessible(true);
+        workStealingField.set(processor, true);
+        processor.initialize();
+
+        for (int id = 20; id < 26; id++) {
+            Bet.BetBuilder builder = new Bet.BetBuilder()
+                    .id(id)
+                    .amount(100.0)
+                    .odds(2.0)
+                    .client("Client" + id)
+                    .event("Event")
+                    .market("Market")
+                    .selection("Selection");
+            processor.addBet(builder.status(BetStatus.OPEN).build());
+            processor.addBet(builder.status(BetStatus.LOSER).build());
+        }
+        processor.shutdownSystem();
+
+        String summary = processor.getSummary();
+        assertTrue(summary.contains("Total bets processed: 12"));
+        assertTrue(summary.contains("Total result (profit/loss): -600.0"));
+        assertEquals(0, processor.getReviewBets().size());
+    }
+
+    @Test
+    void testEarlySettlementWaitsForOpen() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 1);
+        Field windowField = BetProcessor.class.getDeclaredField("reorderWindowMillis");
+        windowField.setAccessible(true);
+        windowField.set(processor, 500L);
+        processor.initialize();
+
+        Bet.BetBuilder builder = new Bet.BetBuilder()
+                .id(30)
+                .amount(100.0)
+                .odds(3.0)
+                .client("Client30")
+                .event("Event30")
+                .market("Market30")
+                .selection("Selection30");
+        processor.addBet(builder.status(BetStatus.WINNER).build());
+        processor.addBet(builder.status(BetStatus.OPEN).build());
+        // settlement for a bet that never opens
+        processor.addBet(builder.id(31).status(BetStatus.LOSER).build());
+        Thread.sleep(300);
+
+        String summary = processor.getSummary();
+        assertTrue(summary.contains("Total bets processed: 2"));
+        assertTrue(summary.contains("Total result (profit/loss): 200.0"));
+        assertTrue(summary.contains("Reorder window: 1 held, 1 released, 0 expired"));
+        assertEquals(0, processor.getReviewBets().size());
+
+        Thread.sleep(600);
+        List<Bet> review = processor.getReviewBets();
+        assertEquals(1, review.size());
+        assertEquals(31, review.get(0).getId());
+
+        processor.shutdownSystem();
+    }
+
+    @Test
+    void testReviewBetIsReconciledWhenOpenArrives() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 1);
+        processor.initialize();
+
+        Bet.BetBuilder builder = new Bet.BetBuilder()
+                .id(40)
+                .amount(100.0)
+                .odds(1.5)
+                .client("Client40")
+                .event("Event40")
+                .market("Market40")
+                .selection("Selection40");
+        processor.addBet(builder.status(BetStatus.WINNER).build());
+        Thread.sleep(200);
+        assertEquals(1, processor.getReviewBets().size());
+
+        processor.addBet(builder.status(BetStatus.OPEN).build());
+        Thread.sleep(200);
+
+        assertEquals(0, processor.getReviewBets().size());
+        String summary = processor.getSummary();
+        assertTrue(summary.contains("Total bets processed: 2"));
+        assertTrue(summary.contains("Total result (profit/loss): 50.0"));
+        assertTrue(summary.contains("Bets resolved from review: 1"));
+
+        processor.shutdownSystem();
+    }
+
+    @Test
+    void testReviewBetFlaggedAfterItsOpenIsReconciled() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 1);
+        processor.initialize();
+
+        Bet.BetBuilder builder = new Bet.BetBuilder().id(41).amount(100.0).odds(1.5).client("Client41");
+        processor.addBet(builder.status(BetStatus.OPEN).build());
+        Thread.sleep(200);
+
+        // a settlement that failed its check just before the OPEN was applied, and is only flagged now
+        Method flagForReview = BetProcessor.class.getDeclaredMethod("flagForReview", Bet.class);
+        flagForReview.setAccessible(true);
+        flagForReview.invoke(processor, builder.status(BetStatus.WINNER).build());
+        Thread.sleep(200);
+
+        assertTrue(processor.getReviewBets().isEmpty());
+        assertTrue(processor.getSummary().contains("Bets resolved from review: 1"));
+        processor.shutdownSystem();
+    }
+
+    @Test
+    void testSettleMarketInBulk() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 3);
+        processor.initialize();
+
+        Bet.BetBuilder builder = new Bet.BetBuilder()
+                .amount(100.0)
+                .odds(2.5)
+                .event("Final")
+                .market("Winner")
+                .status(BetStatus.OPEN);
+        processor.addBet(builder.id(50).client("Client50").selection("Home").build());
+        processor.addBet(builder.id(51).client("Client51").selection("Home").build());
+        processor.addBet(builder.id(52).client("Client52").selection("Away").build());
+        processor.addBet(builder.id(53).client("Client53").market("Scorer").selection("Home").build());
+        Thread.sleep(300);
+
+        MarketSettlement settlement = processor.settleMarket("Final", "Winner", "Home");
+
+        assertEquals(3, settlement.getSettled());
+        assertEquals(2, settlement.getWinners());
+        assertEquals(1, settlement.getLosers());
+        // 2 * 100 * 1.5 - 100
+        assertEquals(200.0, settlement.getProfitLoss());
+        String summary = processor.getSummary();
+        assertTrue(summary.contains("Total bets processed: 7"));
+        assertTrue(summary.contains("Total result (profit/loss): 200.0"));
+        assertTrue(summary.contains("Client52: 100.0"));
+        assertEquals(150.0, processor.getClientPortfolio("Client50").getRealisedProfitLoss());
+        assertTrue(processor.getClientPortfolio("Client50").getOpenBets().isEmpty());
+
+        // a late queued settlement for a bulk-settled bet is rejected, and a second pass finds nothing open
+        processor.addBet(builder.id(50).client("Client50").selection("Home").status(BetStatus.LOSER).build());
+        Thread.sleep(200);
+        assertEquals(1, processor.getReviewBets().size());
+        assertEquals(0, processor.settleMarket("Final", "Winner", "Home").getSettled());
+
+        // the rejected late LOSER does not change the final status of bet 50
+        List<Integer> winners = new ArrayList<>();
+        List<Integer> losers = new ArrayList<>();
+        processor.forEachSettledId(BetStatus.WINNER, winners::add);
+        processor.forEachSettledId(BetStatus.LOSER, losers::add);
+        assertEquals(List.of(50, 51), winners);
+        assertEquals(List.of(52), losers);
+
+        processor.shutdownSystem();
+    }
+
+    @Test
+    void testSettledBetsAreArchived(@TempDir Path archiveDir) throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 1);
+        Field dirField = BetProcessor.class.getDeclaredField("archiveDir");
+        dirField.setAccessible(true);
+        dirField.set(processor, archiveDir.toString());
+        processor.initialize();
+
+        Bet.BetBuilder builder = new Bet.BetBuilder()
+                .amount(100.0)
+                .odds(2.0)
+                .client("Client60")
+                .event("Group A")
+                .selection("Home")
+                .status(BetStatus.OPEN);
+        processor.addBet(builder.id(60).market("Winner").build());
+        processor.addBet(builder.id(61).market("Scorer").build());
+        processor.addBet(builder.id(60).market("Winner").status(BetStatus.WINNER).build());
+        Thread.sleep(400);
+        processor.settleMarket("Group A", "Scorer", "Away");
+
+        ArchiveReport report = processor.queryArchive(new ArchiveQuery("Group A", null, null, null, null,
+                ArchiveGroupBy.MARKET));
+        assertEquals(2, report.getTotals().getCount());
+        assertEquals(0.0, report.getTotals().getProfitLoss());
+        assertEquals(100.0, report.getGroups().get("Winner").getProfitLoss());
+        assertEquals(-100.0, report.getGroups().get("Scorer").getProfitLoss());
+
+        processor.shutdownSystem();
+    }
+
+    @Test
+    void testArchiveDisabledByDefault() {
+        BetProcessor processor = new BetProcessor();
+        assertNull(processor.queryArchive(new ArchiveQuery(null, null, null, null, null, null)));
+    }
+
+    private void setField(BetProcessor processor, String name, Object value) throws Exception {
+        Field field = BetProcessor.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(processor, value);
+    }
+
+    @Test
+    void testRateLimitRejectsFloodingClient() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 1);
+        setField(processor, "rateLimitEnabled", true);
+        setField(processor, "rateLimitBurst", 2);
+        setField(processor, "rateLimitPerSecond", 0.01);
+        processor.initialize();
+
+        Bet.BetBuilder builder = new Bet.BetBuilder().amount(10.0).odds(2.0).status(BetStatus.OPEN);
+        processor.addBet(builder.id(70).client("Flooder").build());
+        processor.addBet(builder.id(71).client("Flooder").build());
+        assertThrows(RateLimitExceededException.class, () -> processor.addBet(builder.id(72).client("Flooder").build()));
+        processor.addBet(builder.id(73).client("Quiet").build());
+        Thread.sleep(300);
+
+        String summary = processor.getSummary();
+        assertTrue(summary.contains("Total bets processed: 3"));
+        assertTrue(summary.contains("Bets rejected by rate limit: 1"));
+        processor.shutdownSystem();
+    }
+
+    @Test
+    void testApproximateClientStats() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 2);
+        setField(processor, "clientStatsMode", ClientStatsMode.APPROXIMATE);
+        setField(processor, "heavyHitters", 4);
+        processor.initialize();
+
+        Bet.BetBuilder builder = new Bet.BetBuilder().amount(10.0).odds(3.0);
+        processor.addBet(builder.id(80).client("Regular").status(BetStatus.OPEN).build());
+        processor.addBet(builder.id(81).client("Regular").status(BetStatus.OPEN).build());
+        processor.addBet(builder.id(82).client("Casual").status(BetStatus.OPEN).build());
+        Thread.sleep(200);
+        processor.addBet(builder.id(80).client("Regular").status(BetStatus.WINNER).build());
+        processor.addBet(builder.id(82).client("Casual").status(BetStatus.LOSER).build());
+        Thread.sleep(200);
+
+        String summary = processor.getSummary();
+        assertTrue(summary.contains("Total bets processed: 5"));
+        assertTrue(summary.contains("Top 5 customers with the highest winnings: \nRegular: 20.0"));
+        assertTrue(summary.contains("Top 5 customers with the highest losses: \nCasual: 10.0"));
+        assertTrue(summary.contains("Top 5 customers by number of bets: \nRegular: 2\nCasual: 1"));
+        // portfolios only live while bets are open; the realised result is the ledger's estimate
+        assertNull(processor.getClientPortfolio("Casual"));
+        ClientPortfolio regular = processor.getClientPortfolio("Regular");
+        assertEquals(10.0, regular.getOpenStake());
+        assertTrue(regular.getRealisedProfitLoss() >= 20.0);
+        processor.shutdownSystem();
+    }
+
+    @Test
+    void testAlertsOnLiabilityAndLoss() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 2);
+        processor.initialize();
+        List<Alert> alerts = new CopyOnWriteArrayList<>();
+        processor.subscribeAlerts(alerts::add);
+
+        Bet.BetBuilder builder = new Bet.BetBuilder().amount(100.0).odds(2.0).client("Client90")
+                .event("Final").market("Winner").selection("Home");
+        processor.addBet(builder.id(90).status(BetStatus.OPEN).build());
+        Thread.sleep(200);
+        // seeded with the 100 already open on the selection
+        processor.addAlertRule(AlertScope.SELECTION_LIABILITY, "Final/Winner/Home", 150.0, AlertDirection.ABOVE);
+        processor.addAlertRule(AlertScope.CLIENT_LOSS, "Client90", 100.0, AlertDirection.ABOVE);
+        processor.addBet(builder.id(91).status(BetStatus.OPEN).build());
+        Thread.sleep(200);
+        processor.addBet(builder.id(90).status(BetStatus.LOSER).build());
+        Thread.sleep(200);
+        processor.shutdownSystem();
+
+        assertEquals(2, processor.getAlertRules().size());
+        assertEquals(2, alerts.size());
+        assertEquals(AlertScope.SELECTION_LIABILITY, alerts.get(0).getRule().getScope());
+        assertEquals(91, alerts.get(0).getBetId());
+        assertEquals(AlertScope.CLIENT_LOSS, alerts.get(1).getRule().getScope());
+        assertEquals(100.0, alerts.get(1).getValue());
+    }
+
+    @Test
+    void testAlertSeededWhileBetsOpenCountsEachBetOnce() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 4);
+        processor.initialize();
+        List<Alert> alerts = new CopyOnWriteArrayList<>();
+        processor.subscribeAlerts(alerts::add);
+
+        // liability 1.0 each, 40 in total
+        Bet.BetBuilder builder = new Bet.BetBuilder().amount(1.0).odds(2.0).client("Client70")
+                .event("Final").market("Winner").selection("Away").status(BetStatus.OPEN);
+        for (int id = 700; id < 740; id++) {
+            processor.addBet(builder.id(id).build());
+        }
+        Thread.sleep(250);
+        processor.addAlertRule(AlertScope.SELECTION_LIABILITY, "Final/Winner/Away", 39.5, AlertDirection.ABOVE);
+        processor.addAlertRule(AlertScope.SELECTION_LIABILITY, "Final/Winner/Away", 40.5, AlertDirection.ABOVE);
+        Thread.sleep(600);
+        processor.shutdownSystem();
+
+        assertEquals(1, alerts.size());
+        assertEquals(40.0, alerts.get(0).getValue());
+    }
+
+    @Test
+    void testApproximateClientLossRuleIsSeeded() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 1);
+        setField(processor, "clientStatsMode", ClientStatsMode.APPROXIMATE);
+        processor.initialize();
+        List<Alert> alerts = new CopyOnWriteArrayList<>();
+        processor.subscribeAlerts(alerts::add);
+
+        Bet.BetBuilder builder = new Bet.BetBuilder().amount(100.0).odds(2.0).client("Client71");
+        processor.addBet(builder.id(710).status(BetStatus.OPEN).build());
+        processor.addBet(builder.id(711).status(BetStatus.OPEN).build());
+        processor.addBet(builder.id(710).status(BetStatus.LOSER).build());
+        Thread.sleep(250);
+        // seeded with the estimated 100 already lost, so the second loss crosses 150
+        processor.addAlertRule(AlertScope.CLIENT_LOSS, "Client71", 150.0, AlertDirection.ABOVE);
+        processor.addBet(builder.id(711).status(BetStatus.LOSER).build());
+        Thread.sleep(200);
+        processor.shutdownSystem();
+
+        assertEquals(1, alerts.size());
+        assertTrue(alerts.get(0).getValue() >= 200.0);
+    }
+
+    @Test
+    void testBurstSpillsToDisk(@TempDir Path spillDir) throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 1);
+        setField(processor, "spillDir", spillDir.toString());
+        setField(processor, "spillMemoryBets", 2);
+        setField(processor, "ingestionMaxQueued", 3);
+        processor.initialize();
+
+        Bet.BetBuilder builder = new Bet.BetBuilder().amount(10.0).odds(2.0).client("Client95").status(BetStatus.OPEN);
+        for (int id = 95; id < 101; id++) {
+            processor.addBet(builder.id(id).build());
+        }
+        // more than max-queued are waiting, but only the two in memory count for backpressure
+        assertTrue(processor.getQueuedCount() > 3);
+        assertTrue(processor.hasCapacity());
+        Thread.sleep(500);
+
+        String summary = processor.getSummary();
+        assertTrue(summary.contains("Total bets processed: 6"));
+        // the worker may take the first bet before the rest arrive, so 3 or 4 of them go to disk
+        assertTrue(summary.matches("(?s).*Spill to disk: [34] bets spilled, 0 on disk.*"));
+        processor.shutdownSystem();
+    }
+
+    @Test
+    void testHeldSpilledBetIsAcknowledgedOnlyOnceResolved(@TempDir Path spillDir) throws Exception {
+        SpillingBetQueue earlierRun = new SpillingBetQueue(spillDir, 1, 1 << 16);
+        earlierRun.open();
+        Bet.BetBuilder builder = new Bet.BetBuilder().amount(10.0).odds(2.0).client("Client400").status(BetStatus.OPEN);
+        // the first bet stays in memory and is lost with the earlier run, the rest are on disk
+        earlierRun.offer(builder.id(399).build());
+        earlierRun.offer(builder.id(400).status(BetStatus.WINNER).build());
+        earlierRun.offer(builder.id(401).status(BetStatus.OPEN).build());
+        earlierRun.close();
+
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 1);
+        setField(processor, "spillDir", spillDir.toString());
+        setField(processor, "spillMemoryBets", 1);
+        setField(processor, "reorderWindowMillis", 1000L);
+        processor.initialize();
+        Thread.sleep(400);
+
+        // the WINNER waits for its OPEN in the reorder window, so the recovered backlog is not done yet
+        assertFalse(processor.isRecovered());
+        Thread.sleep(1200);
+        assertTrue(processor.isRecovered());
+        assertEquals(400, processor.getReviewBets().get(0).getId());
+        processor.shutdownSystem();
+    }
+
+    @Test
+    void testFailingBetGoesToReviewAndWorkerKeepsRunning() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 1);
+        processor.initialize();
+        ClientPortfolioIndex failing = mock(ClientPortfolioIndex.class);
+        doThrow(new IllegalStateException("index unavailable")).when(failing).open(argThat(bet -> bet.getId() == 410));
+        setField(processor, "clientPortfolios", failing);
+
+        Bet.BetBuilder builder = new Bet.BetBuilder().amount(10.0).odds(2.0).client("Client410").status(BetStatus.OPEN);
+        processor.addBet(builder.id(410).build());
+        processor.addBet(builder.id(411).build());
+        processor.addBet(builder.id(411).status(BetStatus.WINNER).build());
+        Thread.sleep(400);
+
+        List<Bet> review = processor.getReviewBets();
+        assertEquals(1, review.size());
+        assertEquals(410, review.get(0).getId());
+        assertTrue(processor.getSummary().contains("Total bets processed: 3"));
+        processor.shutdownSystem();
+    }
+
+    @Test
+    void testStagedPipeline(@TempDir Path archiveDir) throws Exception {
+        BetProcessor processor = new BetProcessor();
+        // the stages run on their own threads, so no worker pool is needed
+        setNumberOfWorkers(processor, 0);
+        setField(processor, "pipelineEnabled", true);
+        setField(processor, "settleThreads", 2);
+        setField(processor, "settleBatchSize", 4);
+        setField(processor, "archiveDir", archiveDir.toString());
+        processor.initialize();
+
+        Bet.BetBuilder builder = new Bet.BetBuilder().amount(10.0).odds(2.0).client("Client85");
+        for (int id = 85; id < 89; id++) {
+            processor.addBet(builder.id(id).status(BetStatus.OPEN).build());
+        }
+        Thread.sleep(200);
+        processor.addBet(builder.id(85).status(BetStatus.WINNER).build());
+        processor.shutdownSystem();
+
+        List<PipelineStage.StageStats> stages = processor.getPipelineStats();
+        assertEquals(List.of("settle", "apply", "audit"), stages.stream().map(PipelineStage.StageStats::getStage).toList());
+        assertEquals(5, stages.get(0).getProcessed());
+        // one simulated settlement call per batch
+        assertTrue(stages.get(0).getBatches() < 5);
+        assertEquals(5, stages.get(1).getProcessed());
+        assertEquals(1, stages.get(2).getProcessed());
+        String summary = processor.getSummary();
+        assertTrue(summary.contains("Total bets processed: 5"));
+        assertTrue(summary.contains("Stage settle (2 threads, batch 4): 5 processed, 0 queued"));
+    }
+
+    @Test
+    void testLifecycleEventsRecorded(@TempDir Path dir) throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 1);
+        processor.initialize();
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("BetEnqueued", "BetDequeued", "BetSettlement", "BetValidation", "BetAggregation")) {
+                recording.enable("com.sportradar.worldcupscore." + name);
+            }
+            recording.start();
+            Bet.BetBuilder builder = new Bet.BetBuilder().id(9048).amount(10.0).odds(2.0).client("Client48");
+            processor.addBet(builder.status(BetStatus.OPEN).build());
+            processor.addBet(builder.status(BetStatus.OPEN).build());
+            processor.shutdownSystem();
+            recording.stop();
+            Path file = dir.resolve("bets.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        List<String> lifecycle = events.stream()
+                .filter(e -> e.getInt("betId") == 9048)
+                .map(e -> e.getEventType().getName().substring("com.sportradar.worldcupscore.".length())
+                        + (e.hasField("outcome") ? ":" + e.getString("outcome") : ""))
+                .toList();
+        assertEquals(2, Collections.frequency(lifecycle, "BetEnqueued"));
+        assertEquals(2, Collections.frequency(lifecycle, "BetDequeued"));
+        assertEquals(2, Collections.frequency(lifecycle, "BetSettlement"));
+        assertTrue(lifecycle.contains("BetValidation:PROCESSED"));
+        assertTrue(lifecycle.contains("BetValidation:REVIEW"));
+        assertEquals(1, Collections.frequency(lifecycle, "BetAggregation"));
+    }
+
+    @Test
+    void testWorkStealingIgnoresLanesAndSpill(@TempDir Path spillDir) throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 2);
+        setField(processor, "workStealingEnabled", true);
+        setField(processor, "lanesEnabled", true);
+        setField(processor, "spillDir", spillDir.toString());
+        processor.initialize();
+
+        processor.addBet(new Bet.BetBuilder().id(1).amount(10.0).odds(2.0).client("Client1").status(BetStatus.OPEN).build());
+        processor.shutdownSystem();
+
+        String summary = processor.getSummary();
+        assertTrue(summary.contains("Total bets processed: 1"));
+        assertFalse(summary.contains("Lane "));
+        assertFalse(summary.contains("Spill to disk"));
+        try (Stream<Path> files = Files.list(spillDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testLagReport() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 1);
+        processor.initialize();
+
+        Bet.BetBuilder builder = new Bet.BetBuilder().amount(10.0).odds(2.0).client("Client80").status(BetStatus.OPEN);
+        for (int id = 80; id < 85; id++) {
+            processor.addBet(builder.id(id).build());
+        }
+        Thread.sleep(120);
+
+        LagReport busy = processor.getLagReport();
+        assertTrue(busy.getQueued() > 0);
+        assertTrue(busy.getOldestQueuedAgeMillis() >= 50);
+
+        Thread.sleep(300);
+        LagReport idle = processor.getLagReport();
+        assertEquals(0, idle.getQueued());
+        assertEquals(5, idle.getTraced());
+        // one worker at 50 ms per bet: the last bet waited for the four ahead of it
+        assertTrue(idle.getCurrentLagMillis() >= 150);
+        assertTrue(idle.getAverageProcessingMillis() >= 50);
+        assertEquals(5, idle.getSlowest().size());
+        processor.shutdownSystem();
+    }
+
+    @Test
+    void testPrecheckRejectsImpossibleTransitions() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 1);
+        setField(processor, "precheckEnabled", true);
+        processor.initialize();
+
+        Bet.BetBuilder builder = new Bet.BetBuilder().id(90).amount(10.0).odds(2.0).client("Client90");
+        InvalidTransitionException unknown = assertThrows(InvalidTransitionException.class,
+                () -> processor.addBet(builder.status(BetStatus.WINNER).build()));
+        assertEquals("Bet 90 cannot be WINNER: it has not been opened.", unknown.getMessage());
+
+        // both are queued together, the settlement is judged against the OPEN ahead of it
+        processor.addBet(builder.status(BetStatus.OPEN).build());
+        processor.addBet(builder.status(BetStatus.WINNER).build());
+        Thread.sleep(300);
+        assertThrows(InvalidTransitionException.class, () -> processor.addBet(builder.status(BetStatus.OPEN).build()));
+
+        assertTrue(processor.getReviewBets().isEmpty());
+        String summary = processor.getSummary();
+        assertTrue(summary.contains("Total bets processed: 2"));
+        assertTrue(summary.contains("Bets rejected at ingestion: 2"));
+        processor.shutdownSystem();
+    }
+
+    @Test
+    void testCompletionTracking() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 1);
+        processor.initialize();
+
+        Bet.BetBuilder builder = new Bet.BetBuilder().id(95).amount(10.0).odds(2.0).client("Client95");
+        long opened = processor.addBet(builder.status(BetStatus.OPEN).build());
+        long reopened = processor.addBet(builder.status(BetStatus.OPEN).build());
+        assertTrue(reopened > opened);
+        assertEquals(BetUpdateStatus.QUEUED, processor.findTracking(95, opened).getStatus());
+
+        assertEquals(BetUpdateStatus.REVIEW, processor.findTracking(95, null).getCompletion()
+                .toCompletableFuture().get(1, TimeUnit.SECONDS));
+        assertEquals(BetUpdateStatus.PROCESSED, processor.findTracking(95, opened).getStatus());
+
+        processor.shutdownSystem();
+        assertEquals(0, processor.addBet(builder.status(BetStatus.WINNER).build()));
+    }
+
+    @Test
+    void testThreadBudgetBoundsConcurrentProcessing() throws Exception {
+        BetProcessor processor = new BetProcessor();
+        setNumberOfWorkers(processor, 4);
+        ThreadBudget budget = new ThreadBudget(1);
+        processor.setThreadBudget(budget);
+        processor.initialize();
+
+        Bet.BetBuilder builder = new Bet.BetBuilder().amount(10.0).odds(2.0).client("Client99").status(BetStatus.OPEN);
+        for (int id = 100; id < 104; id++) {
+            processor.addBet(builder.id(id).build());
+        }
+        // four workers, but one permit: 4 x 50 ms one after another
+        Thread.sleep(120);
+        assertFalse(processor.getSummary().contains("Total bets processed: 4"));
+        Thread.sleep(300);
+        assertTrue(processor.getSummary().contains("Total bets processed: 4"));
+        assertEquals(1, budget.getAvailable());
+        processor.shutdownSystem();
+    }
+
     @Test
     void testAddBetAfterShutdown() throws Exception {
         BetProcessor processor = new BetProcessor();
@@ -0,0 +1,152 @@
+package com.sportradar.worldcupscore.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BetReplayTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private Bet bet(int id, double amount, double odds, String client, BetStatus status) {
+        return new Bet.BetBuilder()
+                .id(id)
+                .amount(amount)
+                .odds(odds)
+                .client(client)
+                .event("Final")
+                .market("Winner")
+                .selection("Home")
+                .status(status)
+                .build();
+    }
+
+    private Path write(List<Bet> bets) throws IOException {
+        Path file = directory.resolve("bets.ndjson");
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            for (Bet bet : bets) {
+                writer.write(mapper.writeValueAsString(bet));
+                writer.write('\n');
+            }
+        }
+        return file;
+    }
+
+    @Test
+    void testReplayPrintsTheLiveSummary() throws Exception {
+        List<Bet> bets = List.of(
+                bet(1, 100.0, 2.0, "Client1", BetStatus.OPEN),
+                bet(2, 50.0, 3.0, "Client2", BetStatus.OPEN),
+                bet(3, 20.0, 1.5, "Client3", BetStatus.OPEN),
+                bet(4, 10.0, 2.0, null, BetStatus.OPEN),
+                bet(1, 100.0, 2.0, "Client1", BetStatus.WINNER),
+                bet(2, 50.0, 3.0, "Client2", BetStatus.LOSER),
+                bet(3, 20.0, 1.5, "Client3", BetStatus.VOID),
+                bet(4, 10.0, 2.0, null, BetStatus.WINNER),
+                // already open, already settled, never opened
+                bet(3, 20.0, 1.5, "Client3", BetStatus.OPEN),
+                bet(1, 100.0, 2.0, "Client1", BetStatus.LOSER),
+                bet(9, 5.0, 2.0, "Client9", BetStatus.WINNER));
+
+        ReplayReport report = new BetReplay(2).replay(write(bets));
+
+        BetProcessor processor = new BetProcessor();
+        Field workers = BetProcessor.class.getDeclaredField("numberOfWorkers");
+        workers.setAccessible(true);
+        workers.set(processor, 1);
+        processor.initialize();
+        bets.forEach(processor::addBet);
+        processor.shutdownSystem();
+
+        assertEquals(8, report.getTotals().getProcessed());
+        assertEquals(3, report.getReviewed());
+        assertEquals(11, report.getBets());
+        assertEquals(processor.getSummary(), report.getSummary());
+    }
+
+    @Test
+    void testReplaySpansWindowsAndSlices() throws Exception {
+        StringBuilder lines = new StringBuilder();
+        int count = 20_000;
+        for (int id = 0; id < count; id++) {
+            lines.append(mapper.writeValueAsString(bet(id, 10.0, 2.0, "Client" + (id % 7), BetStatus.OPEN))).append('\n');
+        }
+        for (int id = 0; id < count; id++) {
+            BetStatus status = id % 2 == 0 ? BetStatus.WINNER : BetStatus.LOSER;
+            lines.append(mapper.writeValueAsString(bet(id, 10.0, 2.0, "Client" + (id % 7), status))).append('\n');
+        }
+        Path file = directory.resolve("matchday.ndjson");
+        Files.writeString(file, lines);
+
+        // several windows, each cut into several slices
+        ReplayReport report = new BetReplay(4, 4 * BetReplay.MIN_SLICE_BYTES + 123).replay(file);
+
+        assertEquals(2L * count, report.getTotals().getProcessed());
+        assertEquals(0, report.getReviewed());
+        assertEquals(10.0 * count, report.getTotals().getAmount());
+        assertEquals(0.0, report.getTotals().getProfitLoss());
+        assertEquals(5, report.getTotals().getTopWinners().size());
+        assertEquals(5, report.getTotals().getTopLosers().size());
+    }
+
+    @Test
+    void testClientsFirstSeenInLaterWindows() throws Exception {
+        StringBuilder lines = new StringBuilder();
+        int count = 4_000;
+        for (int id = 0; id < count; id++) {
+            lines.append(mapper.writeValueAsString(bet(id, 10.0, 2.0, "Early", BetStatus.OPEN))).append('\n');
+        }
+        // settled by clients the earlier windows never saw
+        for (int id = 0; id < count; id++) {
+            String client = id < 10 ? "Late" + id : "Early";
+            lines.append(mapper.writeValueAsString(bet(id, 10.0, 2.0, client, BetStatus.WINNER))).append('\n');
+        }
+        Path file = directory.resolve("late.ndjson");
+        Files.writeString(file, lines);
+
+        ReplayReport report = new BetReplay(2, BetReplay.MIN_SLICE_BYTES).replay(file);
+
+        assertEquals(2L * count, report.getTotals().getProcessed());
+        assertEquals(10.0 * count, report.getTotals().getProfitLoss());
+        List<String> winners = report.getTotals().getTopWinners().stream().map(e -> e.getKey()).toList();
+        assertEquals("Early", winners.get(0));
+        assertTrue(winners.get(1).startsWith("Late"));
+    }
+
+    @Test
+    void testLineLongerThanTheWindowFails() throws Exception {
+        Path file = write(List.of(bet(1, 10.0, 2.0, "Client1", BetStatus.OPEN), bet(2, 10.0, 2.0, "Client1", BetStatus.OPEN)));
+
+        assertThrows(IOException.class, () -> new BetReplay(1, 16).replay(file));
+    }
+
+    @Test
+    void testMalformedLineFails() throws Exception {
+        Path file = directory.resolve("broken.ndjson");
+        Files.writeString(file, "{\"id\":1,\"status\":\"OPEN\"}\n{\"id\":2,\"status\":\"CANCELLED\"}\n");
+
+        assertThrows(IOException.class, () -> new BetReplay(1).replay(file));
+    }
+
+    @Test
+    void testEmptyFile() throws Exception {
+        ReplayReport report = new BetReplay(1).replay(write(List.of()));
+
+        assertEquals(0, report.getBets());
+        assertFalse(report.getSummary().contains("review"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import com.sportradar.worldcupscore.model.ClientPortfolio;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientPortfolioIndexTest {
+
+    private Bet bet(int id, double amount, double odds, BetStatus status) {
+        return new Bet.BetBuilder()
+                .id(id)
+                .amount(amount)
+                .odds(odds)
+                .client("Client1")
+                .event("Event1")
+                .market("Market1")
+                .selection("Selection1")
+                .status(status)
+                .build();
+    }
+
+    @Test
+    void testUnknownClient() {
+        assertNull(new ClientPortfolioIndex(new OpenBetStore()).snapshot("Nobody"));
+    }
+
+    private void open(OpenBetStore store, ClientPortfolioIndex index, Bet bet) {
+        store.add(bet);
+        index.open(bet);
+    }
+
+    @Test
+    void testOpenAndSettle() {
+        OpenBetStore store = new OpenBetStore();
+        ClientPortfolioIndex index = new ClientPortfolioIndex(store);
+        open(store, index, bet(1, 100.0, 1.5, BetStatus.OPEN));
+        open(store, index, bet(2, 50.0, 3.0, BetStatus.OPEN));
+
+        ClientPortfolio portfolio = index.snapshot("Client1");
+        assertEquals(2, portfolio.getOpenBets().size());
+        assertEquals(150.0, portfolio.getOpenStake());
+        // 100 * 0.5 + 50 * 2.0
+        assertEquals(150.0, portfolio.getPotentialLiability());
+        assertEquals(0.0, portfolio.getRealisedProfitLoss());
+
+        index.settle(bet(1, 100.0, 1.5, BetStatus.WINNER), store.remove(1), 50.0);
+        index.settle(bet(2, 50.0, 3.0, BetStatus.LOSER), store.remove(2), -50.0);
+
+        portfolio = index.snapshot("Client1");
+        assertTrue(portfolio.getOpenBets().isEmpty());
+        assertEquals(0.0, portfolio.getOpenStake());
+        assertEquals(0.0, portfolio.getPotentialLiability());
+        assertEquals(0.0, portfolio.getRealisedProfitLoss());
+    }
+
+    @Test
+    void testDuplicateOpenCountedOnce() {
+        OpenBetStore store = new OpenBetStore();
+        ClientPortfolioIndex index = new ClientPortfolioIndex(store);
+        open(store, index, bet(1, 100.0, 2.0, BetStatus.OPEN));
+        open(store, index, bet(1, 100.0, 2.0, BetStatus.OPEN));
+
+        assertEquals(100.0, index.snapshot("Client1").getOpenStake());
+    }
+
+    @Test
+    void testSettlementWithOtherClientReleasesOpenClient() {
+        OpenBetStore store = new OpenBetStore();
+        ClientPortfolioIndex index = new ClientPortfolioIndex(store);
+        open(store, index, bet(1, 100.0, 2.0, BetStatus.OPEN));
+        open(store, index, bet(2, 40.0, 2.0, BetStatus.OPEN));
+
+        Bet otherClient = new Bet.BetBuilder().id(1).amount(100.0).odds(2.0).client("Client2").status(BetStatus.LOSER).build();
+        Bet noClient = new Bet.BetBuilder().id(2).amount(40.0).odds(2.0).status(BetStatus.WINNER).build();
+        index.settle(otherClient, store.remove(1), -100.0);
+        index.settle(noClient, store.remove(2), 40.0);
+
+        ClientPortfolio portfolio = index.snapshot("Client1");
+        assertEquals(0.0, portfolio.getOpenStake());
+        assertEquals(0.0, portfolio.getPotentialLiability());
+        assertEquals(-60.0, portfolio.getRealisedProfitLoss());
+        assertNull(index.snapshot("Client2"));
+    }
+
+    @Test
+    void testPortfolioWithoutRealisedIsDroppedOnceNothingIsOpen() {
+        OpenBetStore store = new OpenBetStore();
+        ClientPortfolioIndex index = new ClientPortfolioIndex(store, false);
+        open(store, index, bet(1, 100.0, 2.0, BetStatus.OPEN));
+        open(store, index, bet(2, 40.0, 2.0, BetStatus.OPEN));
+
+        index.settle(bet(1, 100.0, 2.0, BetStatus.WINNER), store.remove(1), 100.0);
+        ClientPortfolio portfolio = index.snapshot("Client1");
+        assertEquals(40.0, portfolio.getOpenStake());
+        assertEquals(0.0, portfolio.getRealisedProfitLoss());
+
+        index.settle("Client1", List.of(store.remove(2)), -40.0);
+        assertNull(index.snapshot("Client1"));
+        // a settlement without an open bet creates nothing
+        index.settle(bet(3, 10.0, 2.0, BetStatus.LOSER), null, -10.0);
+        assertNull(index.snapshot("Client1"));
+    }
+}
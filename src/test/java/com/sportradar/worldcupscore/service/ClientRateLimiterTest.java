@@ -0,0 +1,66 @@
+package com.sportradar.worldcupscore.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+
+    private ClientRateLimiter limiter(double perSecond, int burst) {
+        return new ClientRateLimiter(perSecond, burst, 1000, now::get);
+    }
+
+    @Test
+    void testBurstThenRefill() {
+        ClientRateLimiter limiter = limiter(10, 3);
+        assertTrue(limiter.tryAcquire("Client1"));
+        assertTrue(limiter.tryAcquire("Client1"));
+        assertTrue(limiter.tryAcquire("Client1"));
+        assertFalse(limiter.tryAcquire("Client1"));
+        assertEquals(1, limiter.getRejected());
+
+        // one token every 100 ms
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(limiter.tryAcquire("Client1"));
+        assertFalse(limiter.tryAcquire("Client1"));
+    }
+
+    @Test
+    void testClientsAreIndependent() {
+        ClientRateLimiter limiter = limiter(1, 1);
+        assertTrue(limiter.tryAcquire("Client1"));
+        assertFalse(limiter.tryAcquire("Client1"));
+        assertTrue(limiter.tryAcquire("Client2"));
+        assertTrue(limiter.tryAcquire(null));
+        assertFalse(limiter.tryAcquire(null));
+    }
+
+    @Test
+    void testIdleBucketsAreEvicted() {
+        ClientRateLimiter limiter = limiter(10, 2);
+        limiter.tryAcquire("Client1");
+        limiter.tryAcquire("Client2");
+        assertEquals(2, limiter.size());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        limiter.tryAcquire("Client2");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(700));
+        limiter.sweepAll();
+
+        assertEquals(1, limiter.size());
+        // an evicted client starts again with a full bucket
+        assertTrue(limiter.tryAcquire("Client1"));
+        assertTrue(limiter.tryAcquire("Client1"));
+    }
+
+    @Test
+    void testInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new ClientRateLimiter(0, 1, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new ClientRateLimiter(1, 0, 1000));
+    }
+}
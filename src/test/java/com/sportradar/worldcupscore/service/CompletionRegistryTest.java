@@ -0,0 +1,67 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import com.sportradar.worldcupscore.model.BetUpdateStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompletionRegistryTest {
+
+    private Bet bet(int id) {
+        return new Bet.BetBuilder().id(id).amount(10.0).odds(2.0).status(BetStatus.OPEN).build();
+    }
+
+    @Test
+    void testCompleteResolvesWaiters() throws Exception {
+        CompletionRegistry registry = new CompletionRegistry(8);
+        Bet bet = bet(1);
+        long token = registry.register(bet);
+        CompletionRegistry.Tracked tracked = registry.find(1, token);
+        assertEquals(BetUpdateStatus.QUEUED, tracked.getStatus());
+
+        registry.complete(bet.withTrackingToken(token), BetUpdateStatus.REVIEW);
+        assertEquals(BetUpdateStatus.REVIEW, tracked.getCompletion().toCompletableFuture().get(1, TimeUnit.SECONDS));
+
+        // resolved from review later: the status moves on, the first outcome stays
+        registry.complete(bet.withTrackingToken(token), BetUpdateStatus.PROCESSED);
+        assertEquals(BetUpdateStatus.PROCESSED, tracked.getStatus());
+    }
+
+    @Test
+    void testLatestTokenPerId() {
+        CompletionRegistry registry = new CompletionRegistry(8);
+        long first = registry.register(bet(2));
+        long second = registry.register(bet(2));
+
+        assertEquals(second, registry.find(2, null).getToken());
+        assertEquals(first, registry.find(2, first).getToken());
+        assertNull(registry.find(3, first));
+        assertNull(registry.find(4, null));
+    }
+
+    @Test
+    void testUntrackedBetsAreIgnored() {
+        CompletionRegistry registry = new CompletionRegistry(8);
+        long token = registry.register(bet(5));
+        registry.complete(bet(5), BetUpdateStatus.PROCESSED);
+
+        assertEquals(BetUpdateStatus.QUEUED, registry.find(5, token).getStatus());
+    }
+
+    @Test
+    void testOldestIsEvictedAndReleased() {
+        CompletionRegistry registry = new CompletionRegistry(2);
+        long token = registry.register(bet(1));
+        CompletionRegistry.Tracked tracked = registry.find(1, token);
+        registry.register(bet(2));
+        registry.register(bet(3));
+
+        assertNull(registry.find(1, token));
+        assertNull(registry.find(1, null));
+        assertTrue(tracked.getCompletion().toCompletableFuture().isDone());
+    }
+}
@@ -0,0 +1,59 @@
+package com.sportradar.worldcupscore.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHittersTest {
+
+    @Test
+    void testFindsHeavyHittersAmongManyClients() {
+        HeavyHitters hitters = new HeavyHitters(0.001, 0.01, 20);
+        // 20000 small clients interleaved with 5 big ones
+        for (int i = 0; i < 20000; i++) {
+            hitters.add("Client" + i, 1.0);
+            if (i % 100 == 0) {
+                hitters.add("Whale" + (i / 100) % 5, 50.0);
+            }
+        }
+
+        List<Map.Entry<String, Double>> top = hitters.top(5);
+        assertEquals(Set.of("Whale0", "Whale1", "Whale2", "Whale3", "Whale4"),
+                top.stream().map(Map.Entry::getKey).collect(Collectors.toSet()));
+        for (Map.Entry<String, Double> entry : top) {
+            // each whale got 40 x 50
+            assertTrue(entry.getValue() >= 2000.0);
+            assertTrue(entry.getValue() <= 2000.0 + hitters.errorBound());
+        }
+        assertTrue(top.get(0).getValue() >= top.get(4).getValue());
+    }
+
+    @Test
+    void testEstimatesNeverUndercount() {
+        HeavyHitters hitters = new HeavyHitters(0.01, 0.01, 4);
+        for (int i = 0; i < 1000; i++) {
+            hitters.add("Client" + (i % 300), i % 300);
+        }
+
+        for (int client = 0; client < 300; client++) {
+            double estimate = hitters.estimate("Client" + client);
+            // added 3 or 4 times
+            double exact = client * (client < 100 ? 4 : 3);
+            assertTrue(estimate >= exact);
+            assertTrue(estimate <= exact + hitters.errorBound());
+        }
+        assertEquals(4, hitters.top(10).size());
+    }
+
+    @Test
+    void testInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new HeavyHitters(0, 0.01, 10));
+        assertThrows(IllegalArgumentException.class, () -> new HeavyHitters(0.01, 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> new HeavyHitters(0.01, 0.01, 0));
+    }
+}
@@ -0,0 +1,50 @@
+package com.sportradar.worldcupscore.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIntHashMapTest {
+
+    @Test
+    void testPutGetRemove() {
+        IntIntHashMap map = new IntIntHashMap(4);
+        map.put(1, 10);
+        map.put(-5, 0);
+        map.put(1, 11);
+
+        assertEquals(11, map.get(1));
+        assertEquals(0, map.get(-5));
+        assertEquals(IntIntHashMap.MISSING, map.get(2));
+        assertEquals(2, map.size());
+
+        assertEquals(11, map.remove(1));
+        assertEquals(IntIntHashMap.MISSING, map.remove(1));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void testMatchesHashMapUnderChurn() {
+        IntIntHashMap map = new IntIntHashMap(16);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(5_000);
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, i);
+            } else {
+                assertEquals(expected.getOrDefault(key, IntIntHashMap.MISSING), map.remove(key));
+                expected.remove(key);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = 0; key < 5_000; key++) {
+            assertEquals(expected.getOrDefault(key, IntIntHashMap.MISSING), map.get(key));
+        }
+    }
+}
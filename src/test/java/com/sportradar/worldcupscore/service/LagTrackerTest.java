@@ -0,0 +1,85 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetLagSample;
+import com.sportradar.worldcupscore.model.BetStatus;
+import com.sportradar.worldcupscore.model.LagReport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LagTrackerTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private Bet bet(int id) {
+        return new Bet.BetBuilder().id(id).amount(10.0).odds(2.0).status(BetStatus.OPEN).build();
+    }
+
+    @Test
+    void testQueueWaitAndProcessingAreSplit() {
+        LagTracker tracker = new LagTracker(5, 60_000);
+        Bet bet = bet(1);
+        long ingested = bet.getIngestedAtNanos();
+        tracker.dequeued(bet, ingested + 30 * MS);
+        tracker.processed(bet, ingested + 30 * MS, ingested + 80 * MS);
+
+        Bet queued = bet(2);
+        LagReport report = tracker.report(queued, 1, queued.getIngestedAtNanos() + 12 * MS);
+        assertEquals(30.0, report.getCurrentLagMillis(), 1e-9);
+        assertEquals(12.0, report.getOldestQueuedAgeMillis(), 1e-9);
+        assertEquals(1, report.getQueued());
+        assertEquals(1, report.getTraced());
+        assertEquals(30.0, report.getAverageQueueWaitMillis(), 1e-9);
+        assertEquals(50.0, report.getAverageProcessingMillis(), 1e-9);
+
+        BetLagSample sample = report.getSlowest().get(0);
+        assertEquals(1, sample.getId());
+        assertEquals(80.0, sample.getTotalMillis(), 1e-9);
+    }
+
+    @Test
+    void testReservoirKeepsSlowest() {
+        LagTracker tracker = new LagTracker(3, 60_000);
+        for (int i = 1; i <= 10; i++) {
+            Bet bet = bet(i);
+            long ingested = bet.getIngestedAtNanos();
+            tracker.processed(bet, ingested, ingested + ((i * 7) % 10 + 1) * MS);
+        }
+
+        List<BetLagSample> slowest = tracker.slowest();
+        assertEquals(3, slowest.size());
+        // durations (i * 7 % 10) + 1: the top three are 10, 9 and 8 ms
+        assertEquals(10.0, slowest.get(0).getTotalMillis(), 1e-9);
+        assertEquals(9.0, slowest.get(1).getTotalMillis(), 1e-9);
+        assertEquals(8.0, slowest.get(2).getTotalMillis(), 1e-9);
+    }
+
+    @Test
+    void testOldWindowsAgeOut() {
+        LagTracker tracker = new LagTracker(2, 100);
+        Bet slow = bet(1);
+        long start = slow.getIngestedAtNanos();
+        tracker.processed(slow, start, start + 90 * MS);
+        // next window: the slow bet is still recent
+        Bet fast = bet(2);
+        tracker.processed(fast, start + 150 * MS, start + 151 * MS);
+        assertEquals(2, tracker.slowest().size());
+        // two windows later it is gone
+        Bet later = bet(3);
+        tracker.processed(later, start + 300 * MS, start + 301 * MS);
+
+        assertTrue(tracker.slowest().stream().noneMatch(sample -> sample.getId() == 1));
+    }
+
+    @Test
+    void testEmptyReport() {
+        LagReport report = new LagTracker(5, 1000).report(null, 0, System.nanoTime());
+        assertEquals(0, report.getTraced());
+        assertEquals(0.0, report.getOldestQueuedAgeMillis());
+        assertTrue(report.getSlowest().isEmpty());
+    }
+}
@@ -0,0 +1,168 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenBetStoreTest {
+
+    private Bet bet(int id, String market) {
+        return new Bet.BetBuilder()
+                .id(id)
+                .amount(id * 10.0)
+                .odds(1.5)
+                .client("Client" + (id % 3))
+                .event("Event1")
+                .market(market)
+                .selection("Selection1")
+                .status(BetStatus.OPEN)
+                .build();
+    }
+
+    @Test
+    void testAddGetAndRemove() {
+        OpenBetStore store = new OpenBetStore();
+        assertTrue(store.add(bet(7, "Market1")));
+        assertFalse(store.add(bet(7, "Market1")));
+
+        Bet stored = store.get(7);
+        assertEquals(70.0, stored.getAmount());
+        assertEquals(1.5, stored.getOdds());
+        assertEquals("Client1", stored.getClient());
+        assertEquals("Market1", stored.getMarket());
+        assertEquals(BetStatus.OPEN, stored.getStatus());
+
+        assertEquals(7, store.remove(7).getId());
+        assertNull(store.get(7));
+        assertNull(store.remove(7));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testNullStringsRoundTrip() {
+        OpenBetStore store = new OpenBetStore();
+        store.add(new Bet.BetBuilder().id(1).amount(5.0).odds(2.0).status(BetStatus.OPEN).build());
+
+        Bet stored = store.get(1);
+        assertNull(stored.getClient());
+        assertNull(stored.getSelection());
+    }
+
+    @Test
+    void testFreedSlotsAreReused() {
+        OpenBetStore store = new OpenBetStore();
+        for (int id = 1; id <= 100; id++) {
+            store.add(bet(id, "Market1"));
+        }
+        for (int id = 1; id <= 50; id++) {
+            store.remove(id);
+        }
+        // same stripes as the removed ids, so each takes a freed slot
+        int offset = 10 * OpenBetStore.STRIPES;
+        for (int id = 1 + offset; id <= 50 + offset; id++) {
+            store.add(bet(id, "Market1"));
+        }
+
+        assertEquals(100, store.size());
+        assertEquals(100, store.capacity());
+        assertEquals((1 + offset) * 10.0, store.get(1 + offset).getAmount());
+    }
+
+    @Test
+    void testFindByMarketAcrossChunks() {
+        OpenBetStore store = new OpenBetStore();
+        int total = OpenBetStore.CHUNK_SIZE * 2 + 10;
+        for (int id = 0; id < total; id++) {
+            store.add(bet(id, id % 2 == 0 ? "Even" : "Odd"));
+        }
+        store.remove(0);
+
+        assertEquals(total / 2 - 1, store.findByMarket("Event1", "Even").size());
+        assertEquals(total / 2, store.findByMarket("Event1", "Odd").size());
+        assertTrue(store.findByMarket("Event1", "Unknown").isEmpty());
+        assertTrue(store.findByMarket("Event2", "Even").isEmpty());
+    }
+
+    @Test
+    void testMarketIndexFollowsRemovalsAndReusedSlots() {
+        OpenBetStore store = new OpenBetStore();
+        for (int id = 0; id < 6; id++) {
+            store.add(bet(id, "Home"));
+        }
+        store.remove(1);
+        store.removeAll(new int[]{4, 0});
+        // the freed slots of ids 1 and 4 go to another market
+        store.add(bet(1 + OpenBetStore.STRIPES, "Away"));
+        store.add(bet(4 + OpenBetStore.STRIPES, "Away"));
+
+        List<Integer> home = new ArrayList<>();
+        store.findByMarket("Event1", "Home").forEach(bet -> home.add(bet.getId()));
+        home.sort(null);
+        assertEquals(List.of(2, 3, 5), home);
+        assertEquals(2, store.findByMarket("Event1", "Away").size());
+
+        store.removeAll(new int[]{2, 3, 5});
+        assertTrue(store.findByMarket("Event1", "Home").isEmpty());
+        assertEquals(6, store.capacity());
+    }
+
+    @Test
+    void testForEachVisitsOpenBets() {
+        OpenBetStore store = new OpenBetStore();
+        for (int id = 1; id <= 10; id++) {
+            store.add(bet(id, "Market1"));
+        }
+        store.remove(3);
+
+        List<Integer> ids = new ArrayList<>();
+        store.forEach(bet -> ids.add(bet.getId()));
+        assertEquals(9, ids.size());
+        assertFalse(ids.contains(3));
+    }
+
+    @Test
+    void testSelectionLiabilityReadsColumns() {
+        OpenBetStore store = new OpenBetStore();
+        for (int id = 1; id <= 40; id++) {
+            store.add(new Bet.BetBuilder().id(id).amount(10.0).odds(3.0).client("Client").event("Event1")
+                    .market("Market1").selection(id % 2 == 0 ? "Home" : "Away").status(BetStatus.OPEN).build());
+        }
+        store.remove(2);
+
+        // 19 open Home bets, each liable for 10 * (3 - 1)
+        assertEquals(380.0, store.selectionLiability("Event1", "Market1", "Home"), 1e-9);
+        assertEquals(400.0, store.selectionLiability("Event1", "Market1", "Away"), 1e-9);
+        assertEquals(0.0, store.selectionLiability("Event1", "Market1", "Draw"));
+        assertEquals(0.0, store.selectionLiability("Event2", "Market1", "Home"));
+    }
+
+    @Test
+    void testConcurrentAddAndRemoveAcrossStripes() throws Exception {
+        OpenBetStore store = new OpenBetStore();
+        int perThread = 5000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int base = t * perThread;
+            workers.add(new Thread(() -> {
+                for (int id = base; id < base + perThread; id++) {
+                    store.add(bet(id, "Market1"));
+                    if (id % 2 == 0) {
+                        store.remove(id);
+                    }
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(2 * perThread, store.size());
+        assertEquals(2 * perThread, store.findByMarket("Event1", "Market1").size());
+    }
+}
@@ -0,0 +1,74 @@
+package com.sportradar.worldcupscore.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineStageTest {
+
+    @Test
+    void testStagesHandOverInBatches() {
+        List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        PipelineStage<Integer> sink = new PipelineStage<>("sink", 1, 4, batch -> {
+            batchSizes.add(batch.size());
+            results.addAll(batch);
+        });
+        PipelineStage<Integer> doubler = new PipelineStage<>("double", 2, 1, batch -> batch.forEach(i -> sink.submit(i * 2)));
+        for (int i = 0; i < 20; i++) {
+            doubler.submit(i);
+        }
+        sink.start();
+        doubler.start();
+
+        doubler.close();
+        sink.close();
+
+        assertEquals(20, results.size());
+        assertTrue(results.containsAll(List.of(0, 2, 38)));
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 4));
+        PipelineStage.StageStats stats = sink.getStats();
+        assertEquals("sink", stats.getStage());
+        assertEquals(20, stats.getProcessed());
+        assertEquals(batchSizes.size(), stats.getBatches());
+        assertEquals(0, stats.getQueued());
+        assertEquals(20, doubler.getStats().getProcessed());
+    }
+
+    @Test
+    void testReportsDepthAndServiceTime() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PipelineStage<Integer> slow = new PipelineStage<>("slow", 1, 1, batch -> {
+            release.await(2, TimeUnit.SECONDS);
+            Thread.sleep(20);
+        });
+        slow.start();
+        for (int i = 0; i < 3; i++) {
+            slow.submit(i);
+        }
+        Thread.sleep(150);
+
+        PipelineStage.StageStats busy = slow.getStats();
+        assertEquals(1, busy.getInFlight());
+        assertEquals(2, busy.getQueued());
+
+        release.countDown();
+        slow.close();
+        PipelineStage.StageStats done = slow.getStats();
+        assertEquals(3, done.getProcessed());
+        assertTrue(done.getAverageServiceMillis() >= 20.0);
+        assertTrue(done.getMaxServiceMillis() >= done.getAverageServiceMillis());
+    }
+
+    @Test
+    void testInvalidSizing() {
+        assertThrows(IllegalArgumentException.class, () -> new PipelineStage<Integer>("none", 0, 1, batch -> { }));
+        assertThrows(IllegalArgumentException.class, () -> new PipelineStage<Integer>("none", 1, 0, batch -> { }));
+    }
+}
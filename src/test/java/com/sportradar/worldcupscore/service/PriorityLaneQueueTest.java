@@ -0,0 +1,109 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriorityLaneQueueTest {
+
+    private static Bet bet(int id, double amount, BetStatus status) {
+        return new Bet.BetBuilder()
+                .id(id)
+                .amount(amount)
+                .odds(2.0)
+                .client("Client")
+                .event("Event")
+                .market("Market")
+                .selection("Selection")
+                .status(status)
+                .build();
+    }
+
+    private static BetLane classify(Bet bet) {
+        if (bet.getStatus() != BetStatus.OPEN) {
+            return BetLane.SETTLEMENT;
+        }
+        return bet.getAmount() >= 1000 ? BetLane.HIGH_STAKE : BetLane.STANDARD;
+    }
+
+    @Test
+    void testWeightedFairDispatch() {
+        PriorityLaneQueue queue = new PriorityLaneQueue(PriorityLaneQueueTest::classify, 4, 2, 1);
+        for (int i = 0; i < 70; i++) {
+            queue.offer(bet(i, 10.0, BetStatus.OPEN));
+            queue.offer(bet(1000 + i, 5000.0, BetStatus.OPEN));
+            queue.offer(bet(2000 + i, 10.0, BetStatus.WINNER));
+        }
+
+        int[] perLane = new int[3];
+        for (int i = 0; i < 70; i++) {
+            perLane[classify(queue.poll()).ordinal()]++;
+        }
+
+        assertEquals(40, perLane[BetLane.SETTLEMENT.ordinal()]);
+        assertEquals(20, perLane[BetLane.HIGH_STAKE.ordinal()]);
+        // the lowest lane still gets its share while the others are busy
+        assertEquals(10, perLane[BetLane.STANDARD.ordinal()]);
+    }
+
+    @Test
+    void testFifoWithinLane() {
+        PriorityLaneQueue queue = new PriorityLaneQueue(PriorityLaneQueueTest::classify, 4, 2, 1);
+        queue.offer(bet(1, 10.0, BetStatus.OPEN));
+        queue.offer(bet(2, 10.0, BetStatus.OPEN));
+        queue.offer(bet(3, 10.0, BetStatus.OPEN));
+
+        List<Bet> drained = new ArrayList<>();
+        assertEquals(3, queue.drainTo(drained));
+        assertEquals(List.of(1, 2, 3), drained.stream().map(Bet::getId).toList());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void testPollTimesOutWhenEmpty() throws Exception {
+        PriorityLaneQueue queue = new PriorityLaneQueue(PriorityLaneQueueTest::classify, 4, 2, 1);
+
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        assertNull(queue.peek());
+    }
+
+    @Test
+    void testLaneStats() throws Exception {
+        PriorityLaneQueue queue = new PriorityLaneQueue(PriorityLaneQueueTest::classify, 4, 2, 1);
+        queue.offer(bet(1, 10.0, BetStatus.LOSER));
+        queue.offer(bet(2, 10.0, BetStatus.OPEN));
+        Thread.sleep(5);
+        queue.take();
+
+        List<PriorityLaneQueue.LaneStats> stats = queue.getLaneStats();
+        PriorityLaneQueue.LaneStats settlement = stats.get(BetLane.SETTLEMENT.ordinal());
+        assertEquals(1, settlement.getDispatched());
+        assertTrue(settlement.getMaxWaitMillis() >= 5.0);
+        assertEquals(1, stats.get(BetLane.STANDARD.ordinal()).getQueued());
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    void testOldestAcrossLanes() {
+        PriorityLaneQueue queue = new PriorityLaneQueue(PriorityLaneQueueTest::classify, 4, 2, 1);
+        assertNull(queue.oldest());
+        Bet first = bet(1, 10.0, BetStatus.OPEN).ingested(100L, 0);
+        queue.offer(bet(2, 5000.0, BetStatus.OPEN).ingested(200L, 0));
+        queue.offer(first);
+
+        // the high-stake bet is dispatched first, but the standard one was ingested earlier
+        assertEquals(2, queue.peek().getId());
+        assertEquals(first, queue.oldest());
+    }
+
+    @Test
+    void testInvalidWeights() {
+        assertThrows(IllegalArgumentException.class, () -> new PriorityLaneQueue(PriorityLaneQueueTest::classify, 1, 1));
+    }
+}
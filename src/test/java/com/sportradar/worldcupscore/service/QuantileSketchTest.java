@@ -0,0 +1,87 @@
+package com.sportradar.worldcupscore.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantileSketchTest {
+
+    private static void assertWithinAccuracy(double expected, double actual) {
+        assertEquals(expected, actual, expected * QuantileSketch.RELATIVE_ACCURACY);
+    }
+
+    @Test
+    void testEmptySketch() {
+        QuantileSketch sketch = new QuantileSketch();
+
+        assertEquals(0, sketch.getCount());
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+    }
+
+    @Test
+    void testQuantilesWithinRelativeAccuracy() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 1; i <= 10000; i++) {
+            sketch.record(i);
+        }
+
+        assertEquals(10000, sketch.getCount());
+        assertWithinAccuracy(5000, sketch.quantile(0.5));
+        assertWithinAccuracy(9500, sketch.quantile(0.95));
+        assertWithinAccuracy(9900, sketch.quantile(0.99));
+        assertWithinAccuracy(10000, sketch.quantile(1.0));
+    }
+
+    @Test
+    void testZeroAndOutOfRangeValues() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.record(0.0);
+        sketch.record(-5.0);
+        sketch.record(Double.NaN);
+        sketch.record(1e12);
+
+        assertEquals(3, sketch.getCount());
+        assertEquals(0.0, sketch.quantile(0.5));
+        assertWithinAccuracy(QuantileSketch.MAX_VALUE, sketch.quantile(1.0));
+    }
+
+    @Test
+    void testMerge() {
+        QuantileSketch low = new QuantileSketch();
+        QuantileSketch high = new QuantileSketch();
+        for (int i = 1; i <= 500; i++) {
+            low.record(i);
+            high.record(i + 500);
+        }
+
+        QuantileSketch merged = new QuantileSketch();
+        merged.merge(low);
+        merged.merge(high);
+
+        assertEquals(1000, merged.getCount());
+        assertWithinAccuracy(500, merged.quantile(0.5));
+        assertWithinAccuracy(990, merged.quantile(0.99));
+    }
+
+    @Test
+    void testConcurrentRecording() throws Exception {
+        QuantileSketch sketch = new QuantileSketch();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 25000; i++) {
+                    sketch.record(2.0);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100000, sketch.getCount());
+        assertWithinAccuracy(2.0, sketch.quantile(0.5));
+    }
+}
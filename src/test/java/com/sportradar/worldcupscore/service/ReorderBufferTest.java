@@ -0,0 +1,97 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReorderBufferTest {
+
+    private static Bet bet(int id, BetStatus status) {
+        return new Bet.BetBuilder()
+                .id(id)
+                .amount(100.0)
+                .odds(2.0)
+                .client("Client")
+                .event("Event")
+                .market("Market")
+                .selection("Selection")
+                .status(status)
+                .build();
+    }
+
+    @Test
+    void testReleaseReturnsHeldBetsInOrder() {
+        ReorderBuffer buffer = new ReorderBuffer(100, 10, 10, bet -> fail("nothing should expire"));
+        Bet winner = bet(1, BetStatus.WINNER);
+        Bet voided = bet(1, BetStatus.VOID);
+
+        assertTrue(buffer.hold(winner));
+        assertTrue(buffer.hold(voided));
+        assertEquals(2, buffer.size());
+
+        assertEquals(List.of(winner, voided), buffer.release(1));
+        assertTrue(buffer.release(1).isEmpty());
+        assertEquals(0, buffer.size());
+        assertEquals(2, buffer.getReleased());
+    }
+
+    @Test
+    void testExpiryAfterWindow() {
+        List<Bet> expired = new CopyOnWriteArrayList<>();
+        // 30 ms window with 10 ms ticks: due on the third tick
+        ReorderBuffer buffer = new ReorderBuffer(30, 10, 10, expired::add);
+        Bet winner = bet(2, BetStatus.WINNER);
+        buffer.hold(winner);
+
+        buffer.tick();
+        buffer.tick();
+        assertTrue(expired.isEmpty());
+        buffer.tick();
+
+        assertEquals(List.of(winner), expired);
+        assertEquals(1, buffer.getExpired());
+        assertTrue(buffer.release(2).isEmpty());
+    }
+
+    @Test
+    void testReleasedBetDoesNotExpire() {
+        List<Bet> expired = new CopyOnWriteArrayList<>();
+        ReorderBuffer buffer = new ReorderBuffer(10, 10, 10, expired::add);
+        buffer.hold(bet(3, BetStatus.LOSER));
+        buffer.release(3);
+
+        for (int i = 0; i < 8; i++) {
+            buffer.tick();
+        }
+
+        assertTrue(expired.isEmpty());
+    }
+
+    @Test
+    void testCapacityIsBounded() {
+        ReorderBuffer buffer = new ReorderBuffer(100, 10, 1, bet -> { });
+
+        assertTrue(buffer.hold(bet(4, BetStatus.WINNER)));
+        assertFalse(buffer.hold(bet(5, BetStatus.WINNER)));
+        assertEquals(1, buffer.getRejected());
+        assertEquals(1, buffer.size());
+    }
+
+    @Test
+    void testStopExpiresEverything() {
+        List<Bet> expired = new CopyOnWriteArrayList<>();
+        ReorderBuffer buffer = new ReorderBuffer(10000, 10, 10, expired::add);
+        buffer.start();
+        buffer.hold(bet(6, BetStatus.WINNER));
+
+        buffer.stop();
+
+        assertEquals(1, expired.size());
+        assertEquals(0, buffer.size());
+    }
+}
@@ -0,0 +1,129 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReviewRegistryTest {
+
+    private static Bet bet(int id, BetStatus status) {
+        return new Bet.BetBuilder()
+                .id(id)
+                .amount(100.0)
+                .odds(2.0)
+                .client("Client")
+                .event("Event")
+                .market("Market")
+                .selection("Selection")
+                .status(status)
+                .build();
+    }
+
+    @Test
+    void testAddAndListInArrivalOrder() {
+        ReviewRegistry registry = new ReviewRegistry(10);
+        Bet first = bet(1, BetStatus.WINNER);
+        Bet second = bet(2, BetStatus.LOSER);
+        Bet third = bet(1, BetStatus.VOID);
+        registry.add(first);
+        registry.add(second);
+        registry.add(third);
+
+        assertEquals(List.of(first, second, third), registry.toList());
+        assertEquals(3, registry.size());
+        assertTrue(registry.contains(1));
+        assertFalse(registry.contains(3));
+    }
+
+    @Test
+    void testRemoveAllById() {
+        ReviewRegistry registry = new ReviewRegistry(10);
+        Bet first = bet(1, BetStatus.WINNER);
+        Bet second = bet(2, BetStatus.LOSER);
+        Bet third = bet(1, BetStatus.VOID);
+        registry.add(first);
+        registry.add(second);
+        registry.add(third);
+
+        assertEquals(List.of(first, third), registry.removeAll(1));
+        assertFalse(registry.contains(1));
+        assertTrue(registry.removeAll(1).isEmpty());
+        assertEquals(List.of(second), registry.toList());
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void testOldestEntriesAreEvictedAtCapacity() {
+        ReviewRegistry registry = new ReviewRegistry(2);
+        registry.add(bet(1, BetStatus.WINNER));
+        registry.add(bet(2, BetStatus.WINNER));
+        registry.removeAll(2);
+        registry.add(bet(3, BetStatus.WINNER));
+        registry.add(bet(4, BetStatus.WINNER));
+
+        assertEquals(2, registry.size());
+        assertEquals(1, registry.getEvicted());
+        assertFalse(registry.contains(1));
+        List<Integer> ids = new ArrayList<>();
+        registry.forEach(bet -> ids.add(bet.getId()));
+        assertTrue(ids.containsAll(List.of(3, 4)));
+    }
+
+    @Test
+    void testConcurrentAddAndRemoveLeaveNoOrphans() throws Exception {
+        ReviewRegistry registry = new ReviewRegistry(1000);
+        int rounds = 10000;
+        Thread adder = new Thread(() -> {
+            for (int i = 0; i < rounds; i++) {
+                registry.add(bet(i % 8, BetStatus.WINNER));
+            }
+        });
+        List<Bet> removed = new ArrayList<>();
+        Thread remover = new Thread(() -> {
+            for (int i = 0; i < rounds; i++) {
+                removed.addAll(registry.removeAll(i % 8));
+            }
+        });
+        adder.start();
+        remover.start();
+        adder.join();
+        remover.join();
+
+        for (int id = 0; id < 8; id++) {
+            removed.addAll(registry.removeAll(id));
+        }
+        // every entry was still reachable through its id
+        assertEquals(rounds, removed.size() + registry.getEvicted());
+        assertTrue(registry.toList().isEmpty());
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void testConcurrentAddsStayWithinCapacity() throws Exception {
+        ReviewRegistry registry = new ReviewRegistry(16);
+        int perThread = 5000;
+        List<Thread> adders = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int base = t * perThread;
+            adders.add(new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    registry.add(bet(base + i, BetStatus.WINNER));
+                }
+            }));
+        }
+        adders.forEach(Thread::start);
+        for (Thread adder : adders) {
+            adder.join();
+        }
+
+        // no sequence was skipped while its entry was still being put
+        assertEquals(16, registry.size());
+        assertEquals(16, registry.toList().size());
+        assertEquals(4L * perThread - 16, registry.getEvicted());
+    }
+}
@@ -0,0 +1,104 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.ArchiveGroupBy;
+import com.sportradar.worldcupscore.model.ArchiveQuery;
+import com.sportradar.worldcupscore.model.ArchiveReport;
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettledBetArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private Bet bet(int id, String client, String event, BetStatus status) {
+        return new Bet.BetBuilder()
+                .id(id)
+                .amount(10.0)
+                .odds(2.0)
+                .client(client)
+                .event(event)
+                .market("Winner")
+                .selection("Home")
+                .status(status)
+                .build();
+    }
+
+    private ArchiveQuery query(String event, String client, Long from, Long to, ArchiveGroupBy groupBy) {
+        return new ArchiveQuery(event, null, client, from == null ? null : Instant.ofEpochMilli(from),
+                to == null ? null : Instant.ofEpochMilli(to), groupBy);
+    }
+
+    @Test
+    void testQueryFiltersAndGroups() throws Exception {
+        SettledBetArchive archive = new SettledBetArchive(directory, 4);
+        archive.open();
+        // 10 rows over three segments: even ids win 10, odd ids lose 10
+        for (int id = 0; id < 10; id++) {
+            BetStatus status = id % 2 == 0 ? BetStatus.WINNER : BetStatus.LOSER;
+            archive.append(bet(id, "Client" + (id % 3), id < 6 ? "Group" : "Final", status),
+                    status == BetStatus.WINNER ? 10.0 : -10.0, 1000L + id);
+        }
+
+        ArchiveReport all = archive.query(query(null, null, null, null, ArchiveGroupBy.EVENT));
+        assertEquals(10, all.getTotals().getCount());
+        assertEquals(100.0, all.getTotals().getAmount());
+        assertEquals(0.0, all.getTotals().getProfitLoss());
+        assertEquals(6, all.getGroups().get("Group").getCount());
+        assertEquals(0.0, all.getGroups().get("Final").getProfitLoss());
+
+        ArchiveReport group = archive.query(query("Group", "Client0", null, null, ArchiveGroupBy.NONE));
+        // ids 0 and 3
+        assertEquals(2, group.getTotals().getCount());
+        assertEquals(0.0, group.getTotals().getProfitLoss());
+        assertTrue(group.getGroups().isEmpty());
+
+        // ids 2..6, the from bound is inclusive and the to bound exclusive
+        ArchiveReport window = archive.query(query(null, null, 1002L, 1007L, ArchiveGroupBy.CLIENT));
+        assertEquals(5, window.getTotals().getCount());
+        assertEquals(10.0, window.getTotals().getProfitLoss());
+        assertEquals(3, window.getGroups().size());
+
+        assertEquals(0, archive.query(query("Unknown", null, null, null, ArchiveGroupBy.NONE)).getTotals().getCount());
+        archive.close();
+    }
+
+    @Test
+    void testReopenContinuesAppending() throws Exception {
+        SettledBetArchive archive = new SettledBetArchive(directory, 4);
+        archive.open();
+        for (int id = 0; id < 5; id++) {
+            archive.append(bet(id, "Client1", "Group", BetStatus.LOSER), -10.0, 1000L);
+        }
+        archive.close();
+
+        SettledBetArchive reopened = new SettledBetArchive(directory, 4);
+        reopened.open();
+        assertEquals(5, reopened.size());
+        reopened.append(bet(5, "Client2", "Final", BetStatus.WINNER), 10.0, 2000L);
+
+        ArchiveReport report = reopened.query(query(null, null, null, null, ArchiveGroupBy.CLIENT));
+        assertEquals(6, report.getTotals().getCount());
+        assertEquals(-50.0, report.getGroups().get("Client1").getProfitLoss());
+        assertEquals(10.0, report.getGroups().get("Client2").getProfitLoss());
+        reopened.close();
+    }
+
+    @Test
+    void testNullStringsAreGroupedTogether() throws Exception {
+        SettledBetArchive archive = new SettledBetArchive(directory, 16);
+        archive.open();
+        archive.append(bet(1, null, "Group", BetStatus.VOID), 0.0, 1000L);
+
+        ArchiveReport report = archive.query(query(null, null, null, null, ArchiveGroupBy.CLIENT));
+        assertEquals(1, report.getGroups().get("(none)").getCount());
+        archive.close();
+    }
+}
@@ -0,0 +1,59 @@
+package com.sportradar.worldcupscore.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettledBetBitmapTest {
+
+    @Test
+    void testAddAndContains() {
+        SettledBetBitmap bitmap = new SettledBetBitmap();
+
+        assertTrue(bitmap.add(42));
+        assertFalse(bitmap.add(42));
+        assertTrue(bitmap.add(70000));
+        assertTrue(bitmap.add(-1));
+
+        assertTrue(bitmap.contains(42));
+        assertTrue(bitmap.contains(70000));
+        assertTrue(bitmap.contains(-1));
+        assertFalse(bitmap.contains(43));
+        assertFalse(bitmap.contains(4464));
+        assertEquals(3, bitmap.size());
+    }
+
+    @Test
+    void testDenseChunkSwitchesToBitmap() {
+        SettledBetBitmap bitmap = new SettledBetBitmap();
+        int count = SettledBetBitmap.ARRAY_CONTAINER_MAX + 100;
+        for (int i = 0; i < count; i++) {
+            bitmap.add(i * 3);
+        }
+
+        assertEquals(count, bitmap.size());
+        for (int i = 0; i < count; i++) {
+            assertTrue(bitmap.contains(i * 3));
+            assertFalse(bitmap.contains(i * 3 + 1));
+        }
+        // a full bitmap container is 8KB, far below one boxed map entry per id
+        assertEquals(8192, bitmap.sizeInBytes());
+    }
+
+    @Test
+    void testForEachVisitsEveryId() {
+        SettledBetBitmap bitmap = new SettledBetBitmap();
+        bitmap.add(5);
+        bitmap.add(1);
+        bitmap.add(65536 + 7);
+
+        List<Integer> ids = new ArrayList<>();
+        bitmap.forEach(ids::add);
+
+        assertEquals(3, ids.size());
+        assertTrue(ids.containsAll(List.of(1, 5, 65543)));
+    }
+}
@@ -0,0 +1,173 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpillingBetQueueTest {
+
+    @TempDir
+    Path directory;
+
+    private static Bet bet(int id) {
+        return new Bet.BetBuilder()
+                .id(id)
+                .amount(10.0)
+                .odds(2.0)
+                .client("Client" + id)
+                .event("Final")
+                .market("Winner")
+                .selection("Home")
+                .status(BetStatus.OPEN)
+                .build();
+    }
+
+    private SpillingBetQueue open(int memoryBets, int segmentBytes) throws Exception {
+        SpillingBetQueue queue = new SpillingBetQueue(directory, memoryBets, segmentBytes);
+        queue.open();
+        return queue;
+    }
+
+    private List<Integer> drain(SpillingBetQueue queue) {
+        List<Integer> ids = new ArrayList<>();
+        Bet bet;
+        while ((bet = queue.poll()) != null) {
+            ids.add(bet.getId());
+            queue.acknowledge(bet);
+        }
+        return ids;
+    }
+
+    private long segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.getFileName().toString().startsWith("spill-")).count();
+        }
+    }
+
+    @Test
+    void testOrderHoldsAcrossTiers() throws Exception {
+        SpillingBetQueue queue = open(3, 1 << 16);
+        for (int id = 0; id < 6; id++) {
+            queue.offer(bet(id));
+        }
+        assertEquals(6, queue.size());
+        assertEquals(3, queue.getOnDisk());
+
+        assertEquals(0, queue.poll().getId());
+        assertEquals(1, queue.poll().getId());
+        // room on the heap again, but bets still on disk are ahead
+        queue.offer(bet(6));
+        queue.offer(bet(7));
+
+        assertEquals(List.of(2, 3, 4, 5, 6, 7), drain(queue));
+        assertEquals(5, queue.getSpilled());
+        assertEquals(0, queue.getOnDisk());
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        queue.close();
+    }
+
+    @Test
+    void testRoundTripKeepsEveryField() {
+        Bet original = new Bet.BetBuilder().id(7).amount(12.5).odds(3.25).client("Client7").event(null)
+                .market("Winner").selection("Draw").status(BetStatus.VOID).build().withTrackingToken(42);
+
+        Bet copy = SpillingBetQueue.decode(ByteBuffer.wrap(SpillingBetQueue.encode(original)), false);
+
+        assertEquals(7, copy.getId());
+        assertEquals(12.5, copy.getAmount());
+        assertEquals(3.25, copy.getOdds());
+        assertEquals("Client7", copy.getClient());
+        assertNull(copy.getEvent());
+        assertEquals("Draw", copy.getSelection());
+        assertEquals(BetStatus.VOID, copy.getStatus());
+        assertEquals(42, copy.getTrackingToken());
+        assertEquals(original.getIngestedAtNanos(), copy.getIngestedAtNanos());
+        assertEquals(0, SpillingBetQueue.decode(ByteBuffer.wrap(SpillingBetQueue.encode(original)), true).getTrackingToken());
+    }
+
+    @Test
+    void testUnacknowledgedBetsAreRedeliveredAfterRestart() throws Exception {
+        SpillingBetQueue queue = open(1, 1 << 16);
+        assertTrue(queue.isRecovered());
+        for (int id = 0; id < 5; id++) {
+            queue.offer(bet(id));
+        }
+        Bet first = queue.poll();
+        Bet second = queue.poll();
+        Bet third = queue.poll();
+        queue.acknowledge(first);
+        queue.acknowledge(third);
+        queue.close();
+
+        // 1 was never acknowledged, so 1 and everything after it comes back
+        SpillingBetQueue reopened = open(1, 1 << 16);
+        assertEquals(4, reopened.size());
+        assertFalse(reopened.isRecovered());
+        assertEquals(List.of(1, 2, 3, 4), drain(reopened));
+        assertTrue(reopened.isRecovered());
+        reopened.close();
+        assertEquals(0, open(1, 1 << 16).size());
+        assertNotNull(second);
+    }
+
+    @Test
+    void testRecoveryEndsAtLastRecordBeforeTrailingEmptySegment() throws Exception {
+        SpillingBetQueue queue = open(1, 256);
+        for (int id = 0; id < 3; id++) {
+            queue.offer(bet(id));
+        }
+        queue.close();
+        // a segment mapped just before the process stopped, nothing written to it yet
+        long last;
+        try (Stream<Path> files = Files.list(directory)) {
+            last = files.map(f -> f.getFileName().toString())
+                    .filter(name -> name.startsWith("spill-"))
+                    .mapToLong(name -> Long.parseLong(name.substring("spill-".length(), name.length() - ".seg".length())))
+                    .max().orElseThrow();
+        }
+        Files.write(directory.resolve(String.format(Locale.ROOT, "spill-%08d.seg", last + 1)), new byte[256]);
+
+        SpillingBetQueue reopened = open(1, 256);
+        assertFalse(reopened.isRecovered());
+        assertEquals(List.of(1, 2), drain(reopened));
+        assertTrue(reopened.isRecovered());
+        reopened.close();
+    }
+
+    @Test
+    void testConsumedSegmentsAreDeleted() throws Exception {
+        SpillingBetQueue queue = open(1, 256);
+        for (int id = 0; id < 50; id++) {
+            queue.offer(bet(id));
+        }
+        assertTrue(segmentFiles() > 5);
+
+        List<Integer> ids = drain(queue);
+
+        assertEquals(50, ids.size());
+        assertEquals(49, ids.get(49));
+        assertEquals(1, segmentFiles());
+        queue.close();
+    }
+
+    @Test
+    void testBetLargerThanSegmentIsRejected() throws Exception {
+        SpillingBetQueue queue = open(1, 64);
+        queue.offer(bet(1));
+
+        assertThrows(IllegalArgumentException.class, () -> queue.offer(bet(2)));
+        assertEquals(1, queue.size());
+    }
+}
@@ -0,0 +1,78 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+
+import java.lang.reflect.Field;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TenantRegistryTest {
+
+    private void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private Object getField(Object target, String name) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(target);
+    }
+
+    private TenantRegistry registry(BetProcessor defaultProcessor, int threadBudget) throws Exception {
+        AutowireCapableBeanFactory beanFactory = mock(AutowireCapableBeanFactory.class);
+        // stands in for the @PostConstruct call the real factory makes
+        when(beanFactory.initializeBean(any(), anyString())).thenAnswer(invocation -> {
+            BetProcessor processor = invocation.getArgument(0);
+            processor.initialize();
+            return processor;
+        });
+        TenantRegistry registry = new TenantRegistry(beanFactory, defaultProcessor);
+        setField(registry, "tenantNames", new String[]{"world-cup", " copa ", "", "world-cup"});
+        setField(registry, "tenantWorkers", 1);
+        setField(registry, "threadBudget", threadBudget);
+        registry.initialize();
+        return registry;
+    }
+
+    @Test
+    void testTenantsAreIsolated() throws Exception {
+        TenantRegistry registry = registry(mock(BetProcessor.class), 0);
+        assertEquals(Set.of("copa", "world-cup"), registry.getTenants());
+        assertNull(registry.get("nowhere"));
+
+        BetProcessor worldCup = registry.get("world-cup");
+        BetProcessor copa = registry.get("copa");
+        assertNotSame(worldCup, copa);
+        assertEquals(1, getField(worldCup, "numberOfWorkers"));
+
+        worldCup.addBet(new Bet.BetBuilder().id(1).amount(10.0).odds(2.0).client("Client1").status(BetStatus.OPEN).build());
+        Thread.sleep(200);
+
+        assertTrue(worldCup.getSummary().contains("Total bets processed: 1"));
+        assertTrue(copa.getSummary().contains("Total bets processed: 0"));
+        registry.shutdown();
+    }
+
+    @Test
+    void testThreadBudgetIsShared() throws Exception {
+        BetProcessor defaultProcessor = mock(BetProcessor.class);
+        TenantRegistry registry = registry(defaultProcessor, 3);
+
+        Object worldCupBudget = getField(registry.get("world-cup"), "threadBudget");
+        assertInstanceOf(ThreadBudget.class, worldCupBudget);
+        assertSame(worldCupBudget, getField(registry.get("copa"), "threadBudget"));
+        verify(defaultProcessor).setThreadBudget((ThreadBudget) worldCupBudget);
+        assertEquals(3, ((ThreadBudget) worldCupBudget).getPermits());
+        assertEquals("copa", getField(registry.get("copa"), "tenant"));
+        registry.shutdown();
+    }
+}
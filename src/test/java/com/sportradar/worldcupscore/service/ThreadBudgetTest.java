@@ -0,0 +1,78 @@
+package com.sportradar.worldcupscore.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThreadBudgetTest {
+
+    private static Thread waiter(ThreadBudget budget, String tenant, List<String> granted) {
+        Thread thread = new Thread(() -> {
+            try {
+                budget.acquire(tenant);
+                granted.add(tenant);
+                budget.release();
+            } catch (InterruptedException e) {
+                granted.add(tenant + " interrupted");
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        while (thread.getState() != Thread.State.WAITING) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void testPermitsAlternateBetweenWaitingTenants() throws Exception {
+        ThreadBudget budget = new ThreadBudget(1);
+        budget.acquire("world-cup");
+        List<String> granted = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        // three world-cup workers queue before the one copa worker
+        for (String tenant : List.of("world-cup", "world-cup", "world-cup", "copa")) {
+            Thread thread = waiter(budget, tenant, granted);
+            awaitWaiting(thread);
+            threads.add(thread);
+        }
+
+        budget.release();
+        for (Thread thread : threads) {
+            thread.join(1000);
+        }
+
+        assertEquals(List.of("world-cup", "copa", "world-cup", "world-cup"), granted);
+        assertEquals(1, budget.getAvailable());
+    }
+
+    @Test
+    void testInterruptedWaiterGivesUpItsTurn() throws Exception {
+        ThreadBudget budget = new ThreadBudget(1);
+        budget.acquire("");
+        List<String> granted = Collections.synchronizedList(new ArrayList<>());
+        Thread interrupted = waiter(budget, "world-cup", granted);
+        awaitWaiting(interrupted);
+        Thread copa = waiter(budget, "copa", granted);
+        awaitWaiting(copa);
+
+        interrupted.interrupt();
+        interrupted.join(1000);
+        budget.release();
+        copa.join(1000);
+
+        assertEquals(List.of("world-cup interrupted", "copa"), granted);
+        assertEquals(1, budget.getAvailable());
+    }
+
+    @Test
+    void testPermitsMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new ThreadBudget(0));
+    }
+}
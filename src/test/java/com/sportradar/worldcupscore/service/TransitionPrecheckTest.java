@@ -0,0 +1,69 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransitionPrecheckTest {
+
+    private final Map<Integer, BetStatus> open = new HashMap<>();
+    private final Set<Integer> settled = new HashSet<>();
+
+    private TransitionPrecheck precheck(boolean allowEarlySettlement) {
+        return new TransitionPrecheck(open::get, settled::contains, allowEarlySettlement);
+    }
+
+    private Bet bet(int id, BetStatus status) {
+        return new Bet.BetBuilder().id(id).amount(10.0).odds(2.0).status(status).build();
+    }
+
+    @Test
+    void testSettlementRightBehindItsOpenIsAdmitted() {
+        TransitionPrecheck precheck = precheck(false);
+        Bet opened = bet(1, BetStatus.OPEN);
+        Bet won = bet(1, BetStatus.WINNER);
+
+        assertNull(precheck.admit(opened));
+        assertNull(precheck.admit(won));
+        assertEquals("Bet 1 is already settled.", precheck.admit(bet(1, BetStatus.LOSER)));
+        assertEquals("Bet 1 is already settled.", precheck.admit(bet(1, BetStatus.OPEN)));
+
+        // once both are processed the real state takes over
+        open.put(1, BetStatus.OPEN);
+        precheck.done(opened);
+        open.remove(1);
+        settled.add(1);
+        precheck.done(won);
+        assertEquals(0, precheck.inFlight());
+        assertEquals("Bet 1 is already settled.", precheck.admit(bet(1, BetStatus.VOID)));
+        assertEquals(3, precheck.getRejected());
+    }
+
+    @Test
+    void testRejectsAgainstCurrentState() {
+        TransitionPrecheck precheck = precheck(false);
+        open.put(2, BetStatus.OPEN);
+
+        assertEquals("Bet 2 is already open.", precheck.admit(bet(2, BetStatus.OPEN)));
+        assertEquals("Bet 3 cannot be WINNER: it has not been opened.", precheck.admit(bet(3, BetStatus.WINNER)));
+        assertEquals("Bet 4 has no status.", precheck.admit(bet(4, null)));
+        assertNull(precheck.admit(bet(2, BetStatus.LOSER)));
+        assertEquals(1, precheck.inFlight());
+    }
+
+    @Test
+    void testEarlySettlementAllowedWithReorderWindow() {
+        TransitionPrecheck precheck = precheck(true);
+
+        assertNull(precheck.admit(bet(5, BetStatus.WINNER)));
+        // the OPEN it is waiting for must still get through
+        assertNull(precheck.admit(bet(5, BetStatus.OPEN)));
+    }
+}
@@ -0,0 +1,124 @@
+package com.sportradar.worldcupscore.service;
+
+import com.sportradar.worldcupscore.model.Bet;
+import com.sportradar.worldcupscore.model.BetStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkStealingDispatcherTest {
+
+    private static Bet bet(int id, double amount) {
+        return new Bet.BetBuilder()
+                .id(id)
+                .amount(amount)
+                .odds(2.0)
+                .client("Client")
+                .event("Event")
+                .market("Market")
+                .selection("Selection")
+                .status(BetStatus.OPEN)
+                .build();
+    }
+
+    private static ExecutorService start(WorkStealingDispatcher dispatcher, int workers,
+                                         WorkStealingDispatcher.BetHandler handler, AtomicBoolean stopped) {
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        for (int i = 0; i < workers; i++) {
+            int index = i;
+            executor.submit(() -> {
+                dispatcher.runWorker(index, handler, stopped::get);
+                return null;
+            });
+        }
+        return executor;
+    }
+
+    @Test
+    void testPerIdOrderIsKept() throws Exception {
+        WorkStealingDispatcher dispatcher = new WorkStealingDispatcher(4, 2);
+        Map<Integer, List<Double>> seen = new ConcurrentHashMap<>();
+        AtomicBoolean stopped = new AtomicBoolean();
+        ExecutorService executor = start(dispatcher, 4,
+                bet -> seen.computeIfAbsent(bet.getId(), k -> new CopyOnWriteArrayList<>()).add(bet.getAmount()), stopped);
+
+        for (int seq = 0; seq < 200; seq++) {
+            for (int id = 0; id < 20; id++) {
+                dispatcher.submit(bet(id, seq));
+            }
+        }
+        stopped.set(true);
+        dispatcher.wakeAll();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(0, dispatcher.size());
+        for (int id = 0; id < 20; id++) {
+            List<Double> amounts = seen.get(id);
+            assertEquals(200, amounts.size());
+            for (int seq = 0; seq < 200; seq++) {
+                assertEquals(seq, amounts.get(seq));
+            }
+        }
+    }
+
+    @Test
+    void testIdleWorkerStealsFromBusyOwner() throws Exception {
+        // one group per worker: every id below lands on some owner, the others must steal to help
+        WorkStealingDispatcher dispatcher = new WorkStealingDispatcher(4, 1);
+        Map<Integer, String> processedBy = new ConcurrentHashMap<>();
+        AtomicBoolean stopped = new AtomicBoolean();
+        ExecutorService executor = start(dispatcher, 4, bet -> {
+            Thread.sleep(5);
+            processedBy.put(bet.getId(), Thread.currentThread().getName());
+        }, stopped);
+
+        for (int id = 0; id < 200; id++) {
+            dispatcher.submit(bet(id, 1.0));
+        }
+        Thread.sleep(200);
+        stopped.set(true);
+        dispatcher.wakeAll();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(200, processedBy.size());
+        assertTrue(processedBy.values().stream().distinct().count() > 1);
+    }
+
+    @Test
+    void testWorkerStopsWhenDrained() throws Exception {
+        WorkStealingDispatcher dispatcher = new WorkStealingDispatcher(1, 4);
+        dispatcher.submit(bet(1, 1.0));
+        List<Integer> processed = new CopyOnWriteArrayList<>();
+
+        dispatcher.runWorker(0, bet -> processed.add(bet.getId()), () -> true);
+
+        assertEquals(List.of(1), processed);
+        assertEquals(0, dispatcher.size());
+    }
+
+    @Test
+    void testInterruptedWorkerReleasesClaimedGroup() throws Exception {
+        WorkStealingDispatcher dispatcher = new WorkStealingDispatcher(1, 1);
+        dispatcher.submit(bet(1, 1.0));
+        List<Integer> processed = new CopyOnWriteArrayList<>();
+
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class,
+                () -> dispatcher.runWorker(0, bet -> processed.add(bet.getId()), () -> true));
+
+        // the group is free again, so the next worker run still gets the bet
+        dispatcher.runWorker(0, bet -> processed.add(bet.getId()), () -> true);
+        assertEquals(List.of(1), processed);
+    }
+}